@@ -0,0 +1,438 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BinarySnapshotHandler class reads and writes the whole fleet in a compact binary format.
+ * Every string that repeats (manufacturer, model, dealer id and name, metadata) is stored once in a
+ * dictionary and referred to by index, and the file is read through a memory mapping, so loading it
+ * skips JSON parsing and most of the string allocation.
+ *
+ * <p>Layout, big-endian, counts and dictionary references as unsigned varints:
+ * <pre>
+ * header      magic "CDTS", version (short), reserved (short), source length (long), source modified (long)
+ * dictionary  count, then each string as its UTF-8 length and bytes
+ * dealerships count, then each: id ref, name ref, flags (byte), vehicle count, vehicles
+ * vehicle     type (byte), id (inline string), manufacturer ref, model ref, dealer id ref, price (double),
+ *             acquisition date (long, Vehicle.NO_TIME if missing), rental flags (byte), rental start/end (long, if flagged),
+ *             booking count, bookings (start, end longs), metadata count, metadata (key ref, tag, value)
+ * </pre>
+ * Nullable references and inline strings are stored plus one, so 0 means null.
+ */
+public class BinarySnapshotHandler {
+    static final int MAGIC = 0x43445453;    // "CDTS"
+    static final short VERSION = 1;         // Bumped whenever the layout changes
+
+
+    private static final byte DEALER_ACQUISITION_ENABLED = 1;
+
+    private static final byte RENTED = 1;
+    private static final byte HAS_RENTAL_START = 2;
+    private static final byte HAS_RENTAL_END = 4;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_BOOLEAN = 4;
+
+    private final StringDictionary sharedStrings = StringDictionary.shared(); // Shares repeated values with the other loaders
+
+    /**
+     * Receives the contents of a snapshot as it is read. Every dealership is handed over
+     * before its vehicles.
+     */
+    public interface Loader {
+        /**
+         * Receives a dealership
+         * @param dealerId The dealer ID
+         * @param name The dealership name, may be null
+         * @param acquisitionEnabled Whether the dealership accepts new vehicles
+         */
+        void dealership(String dealerId, String name, boolean acquisitionEnabled);
+
+        /**
+         * Receives a vehicle with its rental state, bookings and metadata restored
+         * @param dealerId The dealer ID of the dealership holding the vehicle
+         * @param vehicle The vehicle
+         */
+        void vehicle(String dealerId, Vehicle vehicle);
+    }
+
+    /**
+     * Gets the binary snapshot file that caches an inventory file
+     * @param inventoryFile The inventory file
+     * @return The snapshot file next to it
+     */
+    public static File snapshotFileFor(File inventoryFile) {
+        return new File(inventoryFile.getPath() + ".snapshot");
+    }
+
+    /**
+     * Writes the dealerships and their vehicles, replacing the file atomically
+     * @param dealerships The dealerships to write
+     * @param file The snapshot file
+     * @return true if the snapshot was written, false otherwise
+     */
+    public boolean writeSnapshot(Collection<Dealership> dealerships, File file) {
+        return writeSnapshot(dealerships, file, null);
+    }
+
+    /**
+     * Writes the dealerships and their vehicles as a cache of an inventory file, replacing the file
+     * atomically. The size and modification time of the inventory file are stored in the header,
+     * so a later change to the inventory file makes the snapshot stale.
+     * @param dealerships The dealerships to write
+     * @param file The snapshot file
+     * @param source The inventory file the snapshot stands in for, may be null
+     * @return true if the snapshot was written, false otherwise
+     */
+    public boolean writeSnapshot(Collection<Dealership> dealerships, File file, File source) {
+        // Copy every inventory once, so the dictionary and the records see the same vehicles
+        List<Dealership> dealers = new ArrayList<>(dealerships);
+        List<List<Vehicle>> inventories = new ArrayList<>(dealers.size());
+        Dictionary dictionary = new Dictionary();
+        for (Dealership dealership : dealers) {
+            dictionary.add(dealership.getDealerId());
+            dictionary.add(dealership.getName());
+            List<Vehicle> vehicles = dealership.getVehicles();
+            for (Vehicle vehicle : vehicles) {
+                dictionary.add(vehicle.getManufacturer());
+                dictionary.add(vehicle.getModel());
+                dictionary.add(vehicle.getDealerId());
+                if (!vehicle.hasMetadata()) continue;
+                for (Map.Entry<String, Object> entry : vehicle.getMetadata().entrySet()) {
+                    dictionary.add(entry.getKey());
+                    if (isText(entry.getValue())) {
+                        dictionary.add(entry.getValue().toString());
+                    }
+                }
+            }
+            inventories.add(vehicles);
+        }
+
+        File target = file.getAbsoluteFile();
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(target.getParentFile().toPath(), target.getName(), ".tmp");
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeLong(source != null && source.exists() ? source.length() : -1);
+                out.writeLong(source != null && source.exists() ? source.lastModified() : -1);
+
+                writeVarInt(out, dictionary.strings.size());
+                for (String string : dictionary.strings) {
+                    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, bytes.length);
+                    out.write(bytes);
+                }
+
+                writeVarInt(out, dealers.size());
+                for (int i = 0; i < dealers.size(); i++) {
+                    Dealership dealership = dealers.get(i);
+                    writeVarInt(out, dictionary.ref(dealership.getDealerId()));
+                    writeVarInt(out, dictionary.ref(dealership.getName()));
+                    out.writeByte(dealership.isAcquisitionEnabled() ? DEALER_ACQUISITION_ENABLED : 0);
+                    List<Vehicle> vehicles = inventories.get(i);
+                    writeVarInt(out, vehicles.size());
+                    for (Vehicle vehicle : vehicles) {
+                        writeVehicle(out, vehicle, dictionary);
+                    }
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            moveAtomically(tempFile, target.toPath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Nothing else to clean up
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a snapshot was written for the current contents of an inventory file
+     * @param file The snapshot file
+     * @param source The inventory file
+     * @return true if the snapshot exists, has this format version and the inventory file has not changed since
+     */
+    public boolean isCurrentFor(File file, File source) {
+        if (!file.isFile() || !source.isFile()) return false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(24);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            return header.remaining() == 24
+                    && header.getInt() == MAGIC
+                    && header.getShort() == VERSION
+                    && header.getShort() == 0
+                    && header.getLong() == source.length()
+                    && header.getLong() == source.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping and hands its contents to a loader
+     * @param file The snapshot file
+     * @param loader Receives the dealerships and vehicles
+     * @return true if the whole snapshot was read, false if it is missing, of another version or damaged
+     */
+    public boolean readSnapshot(File file, Loader loader) {
+        if (!file.isFile()) return false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                System.err.println("Binary snapshot too large to map: " + file.getName());
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                System.err.println("Not a binary snapshot: " + file.getName());
+                return false;
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                System.err.println("Unsupported binary snapshot version " + version + ": " + file.getName());
+                return false;
+            }
+            buffer.getShort();
+            buffer.getLong();
+            buffer.getLong();
+
+            // Every reference to a string resolves to the instance the other loaders share
+            String[] strings = new String[readVarInt(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = sharedStrings.intern(readString(buffer, readVarInt(buffer)));
+            }
+
+            int dealerCount = readVarInt(buffer);
+            for (int i = 0; i < dealerCount; i++) {
+                String dealerId = lookup(strings, readVarInt(buffer));
+                String name = lookup(strings, readVarInt(buffer));
+                byte flags = buffer.get();
+                loader.dealership(dealerId, name, (flags & DEALER_ACQUISITION_ENABLED) != 0);
+                int vehicleCount = readVarInt(buffer);
+                for (int j = 0; j < vehicleCount; j++) {
+                    loader.vehicle(dealerId, readVehicle(buffer, strings));
+                }
+            }
+            return true;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException
+                 | IndexOutOfBoundsException e) {
+            System.err.println("Could not read binary snapshot " + file.getName() + ": " + e);
+            return false;
+        }
+    }
+
+    private void writeVehicle(DataOutputStream out, Vehicle vehicle, Dictionary dictionary) throws IOException {
+        out.writeByte(vehicle.getType().getCode());
+        writeInlineString(out, vehicle.getVehicleId());
+        writeVarInt(out, dictionary.ref(vehicle.getManufacturer()));
+        writeVarInt(out, dictionary.ref(vehicle.getModel()));
+        writeVarInt(out, dictionary.ref(vehicle.getDealerId()));
+        out.writeDouble(vehicle.getPrice());
+        out.writeLong(vehicle.getAcquisitionTime());
+
+        // One state, so the flag and the dates belong to the same rental
+        Vehicle.RentalState rental = vehicle.getRentalState();
+        int flags = (rental.isRented() ? RENTED : 0)
+                | (rental.getStartTime() != Vehicle.NO_TIME ? HAS_RENTAL_START : 0)
+                | (rental.getEndTime() != Vehicle.NO_TIME ? HAS_RENTAL_END : 0);
+        out.writeByte(flags);
+        if (rental.getStartTime() != Vehicle.NO_TIME) out.writeLong(rental.getStartTime());
+        if (rental.getEndTime() != Vehicle.NO_TIME) out.writeLong(rental.getEndTime());
+
+        Map<Long, Long> bookings = vehicle.getRentalCalendar().getBookings();
+        writeVarInt(out, bookings.size());
+        for (Map.Entry<Long, Long> booking : bookings.entrySet()) {
+            out.writeLong(booking.getKey());
+            out.writeLong(booking.getValue());
+        }
+
+        if (!vehicle.hasMetadata()) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Map<String, Object> metadata = vehicle.getMetadata();
+        writeVarInt(out, metadata.size());
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            writeVarInt(out, dictionary.ref(entry.getKey()));
+            writeValue(out, entry.getValue(), dictionary);
+        }
+    }
+
+    private Vehicle readVehicle(ByteBuffer buffer, String[] strings) {
+        Vehicle vehicle = VehicleType.fromCode(buffer.get()).newVehicle();
+        int idLength = readVarInt(buffer);
+        vehicle.setVehicleId(idLength == 0 ? null : readString(buffer, idLength - 1));
+        vehicle.setManufacturer(lookup(strings, readVarInt(buffer)));
+        vehicle.setModel(lookup(strings, readVarInt(buffer)));
+        vehicle.setDealerId(lookup(strings, readVarInt(buffer)));
+        vehicle.setPrice(buffer.getDouble());
+        vehicle.setAcquisitionTime(buffer.getLong());
+
+        byte flags = buffer.get();
+        if ((flags & HAS_RENTAL_START) != 0) vehicle.setRentalStartTime(buffer.getLong());
+        if ((flags & HAS_RENTAL_END) != 0) vehicle.setRentalEndTime(buffer.getLong());
+        if ((flags & RENTED) != 0) vehicle.setRented(true);
+
+        int bookingCount = readVarInt(buffer);
+        for (int i = 0; i < bookingCount; i++) {
+            vehicle.getRentalCalendar().reserve(buffer.getLong(), buffer.getLong());
+        }
+
+        int metadataCount = readVarInt(buffer);
+        for (int i = 0; i < metadataCount; i++) {
+            String key = lookup(strings, readVarInt(buffer));
+            vehicle.setMetadata(key, readValue(buffer, strings));
+        }
+        return vehicle;
+    }
+
+    private void writeValue(DataOutputStream out, Object value, Dictionary dictionary) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (isText(value)) {
+            // Values of other types only survive as text, like they would in an XML feed
+            out.writeByte(TAG_STRING);
+            writeVarInt(out, dictionary.ref(value.toString()));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeByte((Boolean) value ? 1 : 0);
+        }
+    }
+
+    /**
+     * Checks whether a metadata value is stored as a dictionary string
+     */
+    private static boolean isText(Object value) {
+        return value != null && !(value instanceof Number) && !(value instanceof Boolean);
+    }
+
+    private Object readValue(ByteBuffer buffer, String[] strings) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return lookup(strings, readVarInt(buffer));
+            case TAG_LONG:
+                return buffer.getLong();
+            case TAG_DOUBLE:
+                return buffer.getDouble();
+            case TAG_BOOLEAN:
+                return buffer.get() != 0;
+            default:
+                throw new IllegalArgumentException("Unknown metadata tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a string that is not worth a dictionary entry, such as a unique vehicle id
+     */
+    private void writeInlineString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String lookup(String[] strings, int ref) {
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The distinct strings of a snapshot in first-seen order; references are the index plus one
+     */
+    private static final class Dictionary {
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> refs = new HashMap<>();
+
+        void add(String string) {
+            if (string != null && !refs.containsKey(string)) {
+                strings.add(string);
+                refs.put(string, strings.size());
+            }
+        }
+
+        int ref(String string) {
+            return string != null ? refs.get(string) : 0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The DateParser class turns MM/dd/yyyy dates into epoch milliseconds at local midnight.
+ * It reads the digits straight out of the text and works out the day number arithmetically,
+ * so a valid date allocates nothing, and it keeps no per-call state, so one instance is shared
+ * by all threads. The zone offset of each recently parsed day is cached.
+ */
+public final class DateParser {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int CACHE_SIZE = 1024;                        // Days whose offset is remembered, a power of two
+    private static final long EMPTY = (long) Integer.MIN_VALUE << 32;  // Cache entry that matches no day
+
+    private final ZoneId zone;                                          // Zone whose midnight is returned
+    private final ZoneRules rules;                                      // Offsets of that zone
+    private final boolean fixedOffset;                                  // Whether the zone always has the same offset
+    private final AtomicLongArray offsets = new AtomicLongArray(CACHE_SIZE); // Epoch day << 32 | offset seconds
+
+    /**
+     * Constructor that parses dates in a zone
+     * @param zone The zone whose midnight a date stands for
+     */
+    public DateParser(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixedOffset = rules.isFixedOffset();
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            offsets.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Gets the zone dates are parsed in
+     * @return The zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Parses a MM/dd/yyyy date; month and day may have one digit, the year must have four
+     * @param text The date text
+     * @return Epoch milliseconds of the start of that day in the zone
+     * @throws ParseException if the text is not a valid date
+     */
+    public long parse(CharSequence text) throws ParseException {
+        if (text == null) throw new ParseException("Missing date", 0);
+        int length = text.length();
+
+        int position = 0;
+        int month = 0;
+        int digits = 0;
+        for (; position < length && digits < 2 && isDigit(text.charAt(position)); position++, digits++) {
+            month = month * 10 + (text.charAt(position) - '0');
+        }
+        if (digits == 0 || position == length || text.charAt(position++) != '/') throw invalid(text, position);
+
+        int day = 0;
+        digits = 0;
+        for (; position < length && digits < 2 && isDigit(text.charAt(position)); position++, digits++) {
+            day = day * 10 + (text.charAt(position) - '0');
+        }
+        if (digits == 0 || position == length || text.charAt(position++) != '/') throw invalid(text, position);
+
+        int year = 0;
+        digits = 0;
+        for (; position < length && isDigit(text.charAt(position)); position++, digits++) {
+            year = year * 10 + (text.charAt(position) - '0');
+        }
+        if (digits != 4 || position != length) throw invalid(text, position);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) throw invalid(text, 0);
+
+        long epochDay = epochDay(year, month, day);
+        return epochDay * MILLIS_PER_DAY - offsetSeconds(epochDay, year, month, day) * 1000L;
+    }
+
+    /**
+     * Gets the offset from UTC at the start of a day, from the cache when it was asked for recently
+     */
+    private int offsetSeconds(long epochDay, int year, int month, int day) {
+        if (fixedOffset) {
+            return rules.getOffset(Instant.EPOCH).getTotalSeconds();
+        }
+        int index = (int) epochDay & (CACHE_SIZE - 1);
+        long entry = offsets.get(index);
+        if ((int) (entry >> 32) == (int) epochDay) {
+            return (int) entry;
+        }
+        // A midnight inside a gap keeps the offset from before it, like a lenient calendar does
+        int seconds = rules.getOffset(LocalDateTime.of(year, month, day, 0, 0)).getTotalSeconds();
+        offsets.set(index, (epochDay << 32) | (seconds & 0xFFFFFFFFL));
+        return seconds;
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to a date of the proleptic Gregorian calendar
+     */
+    static long epochDay(int year, int month, int day) {
+        // Shift the year to start in March, so the leap day is the last day of the year
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static ParseException invalid(CharSequence text, int position) {
+        return new ParseException("Unparseable date: \"" + text + "\" (expected MM/dd/yyyy)", position);
+    }
+}
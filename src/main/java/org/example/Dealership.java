@@ -3,17 +3,23 @@ package org.example;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The Dealership class is a car dealership that manages an inventory of vehicle.
+ * Every inventory operation holds the dealership's lock, so a dealership can be shared between threads.
  */
 public class Dealership {
     private String dealerId;                            // Unique id for dealership
-    private boolean isAcquisitionEnabled = true;        // Controls whether vehicle acquisition is allowed
-    private List<Vehicle> vehicles = new ArrayList<>(); // List that stores vehicle in the dealership
-    private String name;                                // Dealership name for display
+    private volatile boolean isAcquisitionEnabled = true; // Controls whether vehicle acquisition is allowed
+    private final Map<String, Vehicle> vehicles = new LinkedHashMap<>(); // Vehicles keyed by id, kept in insertion order
+    private final Map<String, Vehicle> rentableVehicles = new LinkedHashMap<>(); // The rentable ones among them, same order
+    private volatile String name;                       // Dealership name for display
+    private final ReentrantLock lock = new ReentrantLock(); // Guards the vehicle inventory
 
     /**
      * Constructor that initialize a Dealership
@@ -61,13 +67,55 @@ public class Dealership {
      * @return true if vehicle was added, false otherwise
      */
     public boolean addVehicle(Vehicle vehicle) {
-        // Check if vehicle with same ID already exists
-        if (vehicles.stream().anyMatch(v -> v.getVehicleId().equals(vehicle.getVehicleId()))) {
-            return false;
+        lock.lock();
+        try {
+            // Only add the vehicle if no vehicle with the same ID exists
+            if (vehicles.putIfAbsent(vehicle.getVehicleId(), vehicle) != null) return false;
+            if (vehicle.isRentable()) {
+                rentableVehicles.put(vehicle.getVehicleId(), vehicle);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a vehicle from the inventory
+     * @param vehicleId The ID of the vehicle to remove
+     * @return true if the vehicle was removed, false if it was not found or is rented
+     */
+    public boolean removeVehicle(String vehicleId) {
+        lock.lock();
+        try {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle == null) return false;
+
+            // Can't remove a rented vehicle
+            if (vehicle.isRented()) return false;
+
+            vehicles.remove(vehicleId);
+            rentableVehicles.remove(vehicleId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a vehicle out of the inventory whatever its rental state, e.g. to undo adding it
+     * @param vehicleId The ID of the vehicle to take out
+     * @return true if the vehicle was taken out, false if it was not found
+     */
+    public boolean discardVehicle(String vehicleId) {
+        lock.lock();
+        try {
+            if (vehicles.remove(vehicleId) == null) return false;
+            rentableVehicles.remove(vehicleId);
+            return true;
+        } finally {
+            lock.unlock();
         }
-        // Add the new vehicle
-        vehicles.add(vehicle);
-        return true;
     }
 
     /**
@@ -76,7 +124,7 @@ public class Dealership {
      */
     public void exportToJSON(File file) {
         JSONFileHandler handler = new JSONFileHandler();
-        handler.writeInventory(vehicles, file);
+        handler.writeInventory(getVehicles(), file);
     }
 
     /**
@@ -84,7 +132,44 @@ public class Dealership {
      * @return A list of vehicles in the inventory
      */
     public List<Vehicle> getVehicles() {
-        return new ArrayList<>(vehicles);
+        lock.lock();
+        try {
+            return new ArrayList<>(vehicles.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the rentable vehicles that are not in a set of booked vehicle ids.
+     * Only rentable vehicles are visited, so vehicles that can never be rented cost nothing.
+     * @param booked Ids of the vehicles to leave out
+     * @param available Receives the other rentable vehicles, in inventory order
+     */
+    public void collectAvailableVehicles(Set<String> booked, List<Vehicle> available) {
+        lock.lock();
+        try {
+            for (Vehicle vehicle : rentableVehicles.values()) {
+                if (!booked.contains(vehicle.getVehicleId())) {
+                    available.add(vehicle);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of vehicles in the inventory
+     * @return The vehicle count
+     */
+    public int getVehicleCount() {
+        lock.lock();
+        try {
+            return vehicles.size();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -118,27 +203,30 @@ public class Dealership {
      * @return true if transfer was successful, false otherwise
      */
     public boolean transferVehicle(String vehicleId, Dealership targetDealership) {
-        Vehicle vehicleToTransfer = null;
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                vehicleToTransfer = vehicle;
-                break;
-            }
-        }
+        // Hold both inventories so the vehicle is never in neither or in both
+        lockBoth(this, targetDealership);
+        try {
+            Vehicle vehicleToTransfer = vehicles.get(vehicleId);
+            if (vehicleToTransfer == null) return false;
 
-        if (vehicleToTransfer == null) return false;
+            // Can't transfer a rented vehicle
+            if (vehicleToTransfer.isRented()) return false;
 
-        // Can't transfer a rented vehicle
-        if (vehicleToTransfer.isRented()) return false;
+            // Can't transfer onto a vehicle id the target already holds
+            if (targetDealership.findVehicleById(vehicleId) != null) return false;
 
-        // Remove from this dealership
-        vehicles.remove(vehicleToTransfer);
+            // Remove from this dealership
+            vehicles.remove(vehicleId);
+            rentableVehicles.remove(vehicleId);
 
-        // Update vehicle's dealerId
-        vehicleToTransfer.setDealerId(targetDealership.getDealerId());
+            // Update vehicle's dealerId
+            vehicleToTransfer.setDealerId(targetDealership.getDealerId());
 
-        // Add to target dealership
-        return targetDealership.addVehicle(vehicleToTransfer);
+            // Add to target dealership
+            return targetDealership.addVehicle(vehicleToTransfer);
+        } finally {
+            unlockBoth(this, targetDealership);
+        }
     }
 
     /**
@@ -147,12 +235,12 @@ public class Dealership {
      * @return The found vehicle or null
      */
     public Vehicle findVehicleById(String vehicleId) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                return vehicle;
-            }
+        lock.lock();
+        try {
+            return vehicles.get(vehicleId);
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     /**
@@ -163,9 +251,56 @@ public class Dealership {
      * @return true if successful, false otherwise
      */
     public boolean rentVehicle(String vehicleId, Date startDate, Date endDate) {
-        Vehicle vehicle = findVehicleById(vehicleId);
-        if (vehicle == null) return false;
-        return vehicle.rent(startDate, endDate);
+        return rentVehicle(vehicleId,
+                startDate != null ? startDate.getTime() : Vehicle.NO_TIME,
+                endDate != null ? endDate.getTime() : Vehicle.NO_TIME);
+    }
+
+    /**
+     * Rents a vehicle by ID
+     * @param vehicleId The ID of the vehicle to rent
+     * @param startTime The rental start in epoch millis, or Vehicle.NO_TIME
+     * @param endTime The rental end in epoch millis, or Vehicle.NO_TIME
+     * @return true if successful, false otherwise
+     */
+    public boolean rentVehicle(String vehicleId, long startTime, long endTime) {
+        lock.lock();
+        try {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle == null) return false;
+            return vehicle.rent(startTime, endTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Books a vehicle for a future period without renting it yet
+     * @param vehicleId The ID of the vehicle to reserve
+     * @param startDate The reservation start date
+     * @param endDate The reservation end date
+     * @return true if successful, false if the vehicle is missing, not rentable or already booked
+     */
+    public boolean reserveVehicle(String vehicleId, Date startDate, Date endDate) {
+        return reserveVehicle(vehicleId, startDate.getTime(), endDate.getTime());
+    }
+
+    /**
+     * Books a vehicle for a future period without renting it yet
+     * @param vehicleId The ID of the vehicle to reserve
+     * @param startTime The reservation start in epoch millis
+     * @param endTime The reservation end in epoch millis
+     * @return true if successful, false if the vehicle is missing, not rentable or already booked
+     */
+    public boolean reserveVehicle(String vehicleId, long startTime, long endTime) {
+        lock.lock();
+        try {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle == null) return false;
+            return vehicle.reserve(startTime, endTime);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -174,22 +309,28 @@ public class Dealership {
      * @return true if successful, false otherwise
      */
     public boolean returnVehicle(String vehicleId) {
-        Vehicle vehicle = findVehicleById(vehicleId);
-        if (vehicle == null) return false;
-        return vehicle.returnVehicle();
+        lock.lock();
+        try {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle == null) return false;
+            return vehicle.returnVehicle();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Displays the details of all the vehicles in the dealership
      */
     public void showVehicles() {
+        List<Vehicle> snapshot = getVehicles();
         System.out.println("\nDealership ID: " + dealerId);
         if (name != null && !name.isEmpty()) {
             System.out.println("Dealership Name: " + name);
         }
-        System.out.println("Total vehicles: " + vehicles.size());
-        vehicles.forEach(v -> System.out.println(
-                "Type: " + v.getClass().getSimpleName() +
+        System.out.println("Total vehicles: " + snapshot.size());
+        snapshot.forEach(v -> System.out.println(
+                "Type: " + v.getType().getDisplayName() +
                         ", ID: " + v.getVehicleId() +
                         ", Manufacturer: " + v.getManufacturer() +
                         ", Model: " + v.getModel() +
@@ -197,4 +338,55 @@ public class Dealership {
                         ", Status: " + (v.isRented() ? "RENTED" : "AVAILABLE")
         ));
     }
+
+    /**
+     * Acquires this dealership's lock, for callers that must keep several operations atomic
+     */
+    void lock() {
+        lock.lock();
+    }
+
+    /**
+     * Releases this dealership's lock
+     */
+    void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Acquires the locks of two dealerships, always in dealer id order so that two threads
+     * transferring in opposite directions cannot deadlock
+     * @param first One dealership
+     * @param second The other dealership, may be the same as the first
+     */
+    static void lockBoth(Dealership first, Dealership second) {
+        if (comesBefore(second, first)) {
+            Dealership swap = first;
+            first = second;
+            second = swap;
+        }
+        first.lock.lock();
+        second.lock.lock();
+    }
+
+    /**
+     * Releases the locks taken by lockBoth
+     * @param first One dealership
+     * @param second The other dealership
+     */
+    static void unlockBoth(Dealership first, Dealership second) {
+        first.lock.unlock();
+        second.lock.unlock();
+    }
+
+    /**
+     * Gives every pair of dealerships a fixed lock order
+     */
+    private static boolean comesBefore(Dealership a, Dealership b) {
+        int order = String.valueOf(a.dealerId).compareTo(String.valueOf(b.dealerId));
+        if (order == 0) {
+            order = Integer.compare(System.identityHashCode(a), System.identityHashCode(b));
+        }
+        return order < 0;
+    }
 }
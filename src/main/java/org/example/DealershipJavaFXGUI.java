@@ -1,8 +1,14 @@
 package org.example;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -13,18 +19,23 @@ import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.File;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * DealershipJavaFXGUI class provides a JavaFX-based graphical user interface for managing
@@ -37,6 +48,7 @@ public class DealershipJavaFXGUI extends Application {
     private static final String EXPORT_PATH = "src/main/resources/export.json";
     private static final String APP_TITLE = "Dealership Management System";
     private static final Color THEME_COLOR = Color.DODGERBLUE; // Main color
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250); // Typing pause before a search runs
 
     // Dark mode properties
     private boolean darkModeEnabled = false;
@@ -60,11 +72,36 @@ public class DealershipJavaFXGUI extends Application {
     // Search components
     private TextField searchField;
     private ComboBox<String> searchTypeComboBox;
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private Task<List<Vehicle>> searchTask; // The latest search still in flight, or null
+
+    // Searches run on their own thread so they never wait behind saves, and a newer search cancels older ones
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dealership-search");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     // Main GUI components
-    private TextArea displayArea;
+    private TableView<Vehicle> inventoryTable;
     private FileChooser fileChooser;
 
+    // Table rows: the whole fleet, and the results of the last search while one is shown
+    private final VehicleRows inventoryRows = new VehicleRows();
+    private final VehicleRows searchRows = new VehicleRows();
+
+    // Background work: disk I/O and parsing run here, one task at a time, so the FX thread never waits on them
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dealership-background");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Deque<BackgroundTask<?>> backgroundTasks = new ArrayDeque<>(); // Queued and running tasks, oldest first
+    private Label statusLabel;
+    private Label messageLabel;
+    private ProgressBar progressBar;
+    private Button cancelTaskButton;
+
     @Override
     public void start(Stage primaryStage) {
         manager = new DealershipManager();
@@ -88,19 +125,17 @@ public class DealershipJavaFXGUI extends Application {
         VBox centerContent = new VBox(searchArea, centerPane);
         VBox.setVgrow(centerPane, Priority.ALWAYS);
 
-        // Create display area with resizable capability
-        displayArea = createDisplayArea();
-        ScrollPane scrollPane = new ScrollPane(displayArea);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(300);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
+        // Create the inventory table; it scrolls by itself and only renders the visible rows
+        inventoryTable = createInventoryTable();
+        showRows(inventoryRows.getRows());
 
         // Make it resizable
         SplitPane mainSplitPane = new SplitPane();
         mainSplitPane.setOrientation(javafx.geometry.Orientation.VERTICAL);
-        mainSplitPane.getItems().addAll(centerContent, scrollPane);
+        mainSplitPane.getItems().addAll(centerContent, inventoryTable);
         mainSplitPane.setDividerPositions(0.6);
         mainLayout.setCenter(mainSplitPane);
+        mainLayout.setBottom(createStatusBar());
 
         // Set up the scene
         Scene scene = new Scene(mainLayout, 1000, 700);
@@ -115,10 +150,219 @@ public class DealershipJavaFXGUI extends Application {
         // Show the stage
         primaryStage.show();
 
+        // Keep the table and dropdown in step with the fleet; batches arrive on the FX thread
+        manager.addFleetListener(this::applyFleetEvents, Platform::runLater);
+
         // Load initial data
         loadInitialInventory();
     }
 
+    @Override
+    public void stop() {
+        // Let queued saves finish, then fold the mutation journal back into inventory.json on exit
+        searchExecutor.shutdownNow();
+        backgroundExecutor.shutdown();
+        try {
+            backgroundExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    /**
+     * Creates the status bar that shows the progress of background work
+     */
+    private HBox createStatusBar() {
+        HBox statusBar = new HBox(10);
+        statusBar.setPadding(new Insets(5, 10, 5, 10));
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+
+        statusLabel = new Label("Ready");
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        progressBar.setVisible(false);
+
+        // Cancelling skips the tasks that have not started and stops a running load, import or export,
+        // which undoes its changes; any other running task finishes, so its change is kept
+        cancelTaskButton = new Button("Cancel");
+        cancelTaskButton.setDisable(true);
+        cancelTaskButton.setOnAction(e -> {
+            for (BackgroundTask<?> task : new ArrayList<>(backgroundTasks)) {
+                task.requestCancel();
+            }
+            updateCancelButton();
+        });
+
+        messageLabel = new Label();
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        statusBar.getChildren().addAll(progressBar, cancelTaskButton, statusLabel, spacer, messageLabel);
+        return statusBar;
+    }
+
+    /**
+     * Runs work on the background thread and hands its result back to the FX thread.
+     * Tasks run one at a time in submission order, so saves reach the journal in the order they were made.
+     * @param description What the work does, shown in the status bar
+     * @param work The work to run off the FX thread
+     * @param onSuccess Called on the FX thread with the result
+     */
+    private <T> void runInBackground(String description, Callable<T> work, Consumer<T> onSuccess) {
+        submitBackgroundTask(description, progress -> work.call(), false, onSuccess);
+    }
+
+    /**
+     * Runs work that reports its progress on the background thread and hands its result back to the FX thread.
+     * The work may be stopped while it runs: it checks the listener it is given and, once asked to stop,
+     * undoes its changes and throws a CancellationException.
+     * @param description What the work does, shown in the status bar
+     * @param work The work to run off the FX thread, given a listener that drives the progress bar
+     * @param onSuccess Called on the FX thread with the result
+     */
+    private <T> void runInBackground(String description, ProgressWork<T> work, Consumer<T> onSuccess) {
+        submitBackgroundTask(description, work, true, onSuccess);
+    }
+
+    /**
+     * Queues a background task and wires its outcome to the status bar
+     */
+    private <T> void submitBackgroundTask(String description, ProgressWork<T> work, boolean stoppable,
+                                          Consumer<T> onSuccess) {
+        BackgroundTask<T> task = new BackgroundTask<>(description, work, stoppable);
+
+        task.setOnRunning(e -> showTaskProgress(task));
+        task.setOnSucceeded(e -> {
+            finishBackgroundTask(task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            finishBackgroundTask(task);
+            Throwable error = task.getException();
+            if (error instanceof CancellationException) {
+                // The work stopped and undid its changes
+                showMessage(description + " cancelled");
+            } else {
+                showError(description + " failed: " + (error != null ? error.getMessage() : "unknown error"));
+            }
+        });
+        task.setOnCancelled(e -> {
+            finishBackgroundTask(task);
+            // Only tasks that never started are cancelled this way, so nothing was changed
+            showMessage(description + " cancelled");
+        });
+
+        backgroundTasks.addLast(task);
+        backgroundExecutor.submit(task);
+        updateCancelButton();
+    }
+
+    /**
+     * Enables Cancel while some task can still be cancelled
+     */
+    private void updateCancelButton() {
+        boolean cancellable = false;
+        for (BackgroundTask<?> task : backgroundTasks) {
+            cancellable |= task.canCancel();
+        }
+        cancelTaskButton.setDisable(!cancellable);
+    }
+
+    /**
+     * Binds the status bar to the task that just started running
+     */
+    private void showTaskProgress(Task<?> task) {
+        statusLabel.textProperty().bind(task.messageProperty());
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        updateCancelButton();
+    }
+
+    /**
+     * Unbinds the status bar from a finished task
+     */
+    private void finishBackgroundTask(Task<?> task) {
+        backgroundTasks.remove(task);
+        updateCancelButton();
+        if (!backgroundTasks.isEmpty()) return;
+
+        statusLabel.textProperty().unbind();
+        progressBar.progressProperty().unbind();
+        statusLabel.setText("Ready");
+        progressBar.setProgress(0);
+        progressBar.setVisible(false);
+    }
+
+    /**
+     * Work run off the FX thread that reports its progress as it goes
+     */
+    @FunctionalInterface
+    private interface ProgressWork<T> {
+        T call(ProgressListener progress) throws Exception;
+    }
+
+    /**
+     * A background task that is cancelled outright before it starts, and once running is only asked to stop.
+     * Whichever of starting and cancelling comes first wins, so a cancelled task has never run its work.
+     * A running task stops only if its work checks the listener; it then fails with a CancellationException
+     * after undoing its changes, and otherwise runs to the end.
+     */
+    private static class BackgroundTask<T> extends Task<T> {
+        private final String description;                            // Shown in the status bar
+        private final ProgressWork<T> work;                          // The work to run
+        private final boolean stoppable;                             // Whether the work checks for cancellation
+        private final AtomicBoolean started = new AtomicBoolean();  // Set once the task starts or is cancelled
+        private volatile boolean stopRequested;                      // Set when a running task is asked to stop
+
+        BackgroundTask(String description, ProgressWork<T> work, boolean stoppable) {
+            this.description = description;
+            this.work = work;
+            this.stoppable = stoppable;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            if (!started.compareAndSet(false, true)) return null; // Cancelled as it was picked up
+            updateMessage(description + "...");
+            updateProgress(-1, 1);
+            T result = work.call(new ProgressListener() {
+                @Override
+                public void progress(long done, long total) {
+                    updateProgress(done, total);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return stopRequested;
+                }
+            });
+            updateProgress(1, 1);
+            return result;
+        }
+
+        /**
+         * Cancels the task if it has not started, or asks its work to stop if it is running and can
+         */
+        void requestCancel() {
+            if (started.compareAndSet(false, true)) {
+                cancel(false);
+            } else if (stoppable && !stopRequested) {
+                stopRequested = true;
+                updateMessage(description + ": cancelling...");
+            }
+        }
+
+        /**
+         * Checks whether Cancel would still do anything for this task
+         */
+        boolean canCancel() {
+            return !started.get() || (stoppable && !stopRequested);
+        }
+    }
+
     /**
      * Creates the header panel with title
      */
@@ -165,20 +409,25 @@ public class DealershipJavaFXGUI extends Application {
         searchField.setPromptText("Enter search query");
         searchField.setPrefWidth(250);
 
-        // Remove the listener that performs search as user types
-        // Instead, only search when the button is clicked or Enter is pressed
-        searchField.setOnAction(e -> performSearch(searchField.getText()));
+        // Search as the user types, once typing pauses; Enter or the button search right away
+        searchDebounce.setOnFinished(e -> performSearch(searchField.getText()));
+        searchField.setOnAction(e -> searchNow());
+        searchTypeComboBox.setOnAction(e -> searchDebounce.playFromStart());
 
         // Still show all vehicles when search field is cleared
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue == null || newValue.trim().isEmpty()) {
-                refreshDisplay(); // Show all vehicles when search field is cleared
+                searchDebounce.stop();
+                cancelSearch();
+                showRows(inventoryRows.getRows()); // Show all vehicles when search field is cleared
+            } else {
+                searchDebounce.playFromStart();
             }
         });
 
         // Create search button
         Button searchButton = new Button("Search");
-        searchButton.setOnAction(e -> performSearch(searchField.getText()));
+        searchButton.setOnAction(e -> searchNow());
 
         // Create dashboard button
         Button dashboardButton = new Button("Dashboard");
@@ -239,9 +488,11 @@ public class DealershipJavaFXGUI extends Application {
             }
         });
 
-        vehicleTypeComboBox = new ComboBox<>(FXCollections.observableArrayList(
-                "SUV", "Sedan", "Pickup", "Sports Car"));
-        vehicleTypeComboBox.setValue("SUV");
+        vehicleTypeComboBox = new ComboBox<>();
+        for (VehicleType type : VehicleType.values()) {
+            vehicleTypeComboBox.getItems().add(type.getDisplayName());
+        }
+        vehicleTypeComboBox.setValue(VehicleType.SUV.getDisplayName());
         vehicleIdField = new TextField();
         manufacturerField = new TextField();
         modelField = new TextField();
@@ -415,15 +666,77 @@ public class DealershipJavaFXGUI extends Application {
     }
 
     /**
-     * Creates and sets up the display area
+     * Creates the inventory table with one sortable column per vehicle field
+     */
+    private TableView<Vehicle> createInventoryTable() {
+        TableView<Vehicle> table = new TableView<>();
+        table.setPrefHeight(300);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("No vehicles to show"));
+
+        TableColumn<Vehicle, String> typeColumn = new TableColumn<>("Type");
+        typeColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getType().getDisplayName()));
+
+        TableColumn<Vehicle, String> idColumn = new TableColumn<>("ID");
+        idColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getVehicleId()));
+
+        TableColumn<Vehicle, String> manufacturerColumn = new TableColumn<>("Manufacturer");
+        manufacturerColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getManufacturer()));
+
+        TableColumn<Vehicle, String> modelColumn = new TableColumn<>("Model");
+        modelColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getModel()));
+
+        // Prices sort as numbers and are only formatted for display
+        TableColumn<Vehicle, Double> priceColumn = new TableColumn<>("Price");
+        priceColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getPrice()));
+        priceColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double price, boolean empty) {
+                super.updateItem(price, empty);
+                setText(empty || price == null ? null : String.format("$%.2f", price));
+            }
+        });
+
+        TableColumn<Vehicle, String> dealerColumn = new TableColumn<>("Dealer");
+        dealerColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(dealerInfo(cell.getValue())));
+
+        TableColumn<Vehicle, String> statusColumn = new TableColumn<>("Status");
+        statusColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(rentalStatus(cell.getValue())));
+
+        table.getColumns().addAll(List.of(typeColumn, idColumn, manufacturerColumn, modelColumn,
+                priceColumn, dealerColumn, statusColumn));
+        return table;
+    }
+
+    /**
+     * Shows a list of rows in the inventory table, sorted by the table's sort columns
      */
-    private TextArea createDisplayArea() {
-        TextArea area = new TextArea();
-        area.setEditable(false);
-        area.setWrapText(true);
-        area.setPrefHeight(300);
-        area.setFont(Font.font("Monospaced", 12));
-        return area;
+    private void showRows(ObservableList<Vehicle> rows) {
+        SortedList<Vehicle> sortedRows = new SortedList<>(rows);
+        sortedRows.comparatorProperty().bind(inventoryTable.comparatorProperty());
+        inventoryTable.setItems(sortedRows);
+    }
+
+    /**
+     * Gets the dealer column text of a vehicle, including the dealer name when known
+     */
+    private String dealerInfo(Vehicle vehicle) {
+        String dealerInfo = vehicle.getDealerId();
+        String dealerName = manager.getDealerName(vehicle.getDealerId());
+        if (dealerName != null && !dealerName.isEmpty()) {
+            dealerInfo += " (" + dealerName + ")";
+        }
+        return dealerInfo;
+    }
+
+    /**
+     * Gets the status column text of a vehicle
+     */
+    private static String rentalStatus(Vehicle vehicle) {
+        if (!vehicle.isRentable()) {
+            return "NOT RENTABLE";
+        }
+        return vehicle.isRented() ? "RENTED" : "AVAILABLE";
     }
 
     /**
@@ -445,27 +758,13 @@ public class DealershipJavaFXGUI extends Application {
         dashboardLayout.setPrefWidth(800);
         dashboardLayout.setPrefHeight(500);
 
-        // Get all vehicles for statistics
-        List<Vehicle> allVehicles = manager.getVehiclesForDisplay();
-
-        // Calculate statistics
-        int totalVehicles = allVehicles.size();
-        long rentedVehicles = allVehicles.stream().filter(Vehicle::isRented).count();
-        long availableVehicles = totalVehicles - rentedVehicles;
-
-        // Count by type
-        Map<String, Integer> vehiclesByType = new HashMap<>();
-        for (Vehicle vehicle : allVehicles) {
-            String type = vehicle.getClass().getSimpleName();
-            vehiclesByType.put(type, vehiclesByType.getOrDefault(type, 0) + 1);
-        }
-
-        // Count by dealer
-        Map<String, Integer> vehiclesByDealer = new HashMap<>();
-        for (Vehicle vehicle : allVehicles) {
-            String dealerId = vehicle.getDealerId();
-            vehiclesByDealer.put(dealerId, vehiclesByDealer.getOrDefault(dealerId, 0) + 1);
-        }
+        // Read the running totals; nothing here walks the fleet
+        FleetStatistics.Snapshot statistics = manager.getStatistics();
+        long totalVehicles = statistics.getTotalVehicles();
+        long rentedVehicles = statistics.getRentedVehicles();
+        long availableVehicles = statistics.getAvailableVehicles();
+        Map<String, Long> vehiclesByType = statistics.getVehiclesByType();
+        Map<String, Long> vehiclesByDealer = statistics.getVehiclesByDealer();
 
         // Create summary labels
         Label summaryLabel = new Label("Inventory Summary");
@@ -494,7 +793,7 @@ public class DealershipJavaFXGUI extends Application {
 
         XYChart.Series<String, Number> typeSeries = new XYChart.Series<>();
         typeSeries.setName("Count");
-        for (Map.Entry<String, Integer> entry : vehiclesByType.entrySet()) {
+        for (Map.Entry<String, Long> entry : vehiclesByType.entrySet()) {
             typeSeries.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
         }
         typeChart.getData().add(typeSeries);
@@ -511,9 +810,9 @@ public class DealershipJavaFXGUI extends Application {
 
         // Create list items
         ObservableList<String> dealerItems = FXCollections.observableArrayList();
-        for (Map.Entry<String, Integer> entry : vehiclesByDealer.entrySet()) {
-            dealerItems.add(String.format("Dealer ID: %s     Vehicle Count: %d",
-                    entry.getKey(), entry.getValue()));
+        for (Map.Entry<String, Long> entry : vehiclesByDealer.entrySet()) {
+            dealerItems.add(String.format("Dealer ID: %s     Vehicle Count: %d     Average Price: $%,.2f",
+                    entry.getKey(), entry.getValue(), statistics.getAveragePrice(entry.getKey())));
         }
 
         // Set items and add to layout
@@ -544,90 +843,90 @@ public class DealershipJavaFXGUI extends Application {
     }
 
     /**
-     * Performs a search based on the query and search type
+     * Runs the search in the search field without waiting for typing to pause
+     */
+    private void searchNow() {
+        searchDebounce.stop();
+        performSearch(searchField.getText());
+    }
+
+    /**
+     * Performs a search based on the query and search type.
+     * The query runs on the search thread; only the result of the latest search is shown.
      */
     private void performSearch(String query) {
+        cancelSearch();
         if (query == null || query.trim().isEmpty()) {
             // If search is empty, show all vehicles
-            refreshDisplay();
+            showRows(inventoryRows.getRows());
             return;
         }
 
-        // Convert query to lowercase for case-insensitive search
-        String searchQuery = query.toLowerCase().trim();
-
-        // Get search type
-        String searchType = searchTypeComboBox.getValue();
+        // Look the query up in the manager's search index instead of filtering the whole fleet
+        VehicleSearchIndex.Field field = searchFieldFor(searchTypeComboBox.getValue());
+        String trimmedQuery = query.trim();
+        Task<List<Vehicle>> task = new Task<>() {
+            @Override
+            protected List<Vehicle> call() {
+                return manager.searchVehicles(field, trimmedQuery);
+            }
+        };
 
-        // Get all vehicles
-        List<Vehicle> allVehicles = manager.getVehiclesForDisplay();
+        // A replaced search is interrupted and stops inside the index; any result it still produces is dropped
+        task.setOnSucceeded(e -> {
+            if (searchTask != task) return;
+            searchTask = null;
+            displayFilteredVehicles(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            if (searchTask != task) return;
+            searchTask = null;
+            showError("Error searching: " + task.getException().getMessage());
+        });
 
-        // Filter vehicles based on search criteria
-        List<Vehicle> filteredVehicles = allVehicles.stream()
-                .filter(vehicle -> matchesSearchCriteria(vehicle, searchType, searchQuery))
-                .collect(Collectors.toList());
+        searchTask = task;
+        searchExecutor.submit(task);
+    }
 
-        // Display filtered vehicles
-        displayFilteredVehicles(filteredVehicles);
+    /**
+     * Cancels the search in flight, if any, interrupting the search thread so the index stops scanning
+     */
+    private void cancelSearch() {
+        if (searchTask != null) {
+            searchTask.cancel(true);
+            searchTask = null;
+        }
     }
 
     /**
-     * Helper method to check if a vehicle matches search criteria
+     * Helper method to map the search type dropdown to an index field
      */
-    private boolean matchesSearchCriteria(Vehicle vehicle, String searchType, String query) {
+    private VehicleSearchIndex.Field searchFieldFor(String searchType) {
         switch (searchType) {
             case "ID":
-                return vehicle.getVehicleId().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.ID;
             case "Manufacturer":
-                return vehicle.getManufacturer().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.MANUFACTURER;
             case "Model":
-                return vehicle.getModel().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.MODEL;
             case "Dealer ID":
-                return vehicle.getDealerId().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.DEALER_ID;
             case "Type":
-                return vehicle.getClass().getSimpleName().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.TYPE;
             case "All Fields":
             default:
-                return vehicle.getVehicleId().toLowerCase().contains(query) ||
-                        vehicle.getManufacturer().toLowerCase().contains(query) ||
-                        vehicle.getModel().toLowerCase().contains(query) ||
-                        vehicle.getDealerId().toLowerCase().contains(query) ||
-                        vehicle.getClass().getSimpleName().toLowerCase().contains(query);
+                return VehicleSearchIndex.Field.ALL;
         }
     }
 
     /**
-     * Display filtered vehicles in the display area
+     * Shows search results in the inventory table
      */
     private void displayFilteredVehicles(List<Vehicle> vehicles) {
-        StringBuilder sb = new StringBuilder("Search Results:\n\n");
-
-        if (vehicles.isEmpty()) {
-            sb.append("No vehicles match your search criteria.\n");
-        } else {
-            vehicles.forEach(vehicle -> {
-                String rentalStatus = vehicle.isRented() ? "RENTED" : "AVAILABLE";
-                if (vehicle instanceof SportsCar) {
-                    rentalStatus = "NOT RENTABLE";
-                }
-
-                String dealerInfo = vehicle.getDealerId();
-                if (vehicle.getMetadata().containsKey("dealer_name")) {
-                    dealerInfo += " (" + vehicle.getMetadata().get("dealer_name") + ")";
-                }
-
-                sb.append(String.format("Type: %s, ID: %s, Manufacturer: %s, Model: %s, Price: $%.2f, Dealer: %s, Status: %s\n",
-                        vehicle.getClass().getSimpleName(),
-                        vehicle.getVehicleId(),
-                        vehicle.getManufacturer(),
-                        vehicle.getModel(),
-                        vehicle.getPrice(),
-                        dealerInfo,
-                        rentalStatus));
-            });
-        }
-
-        displayArea.setText(sb.toString());
+        searchRows.setAll(vehicles);
+        showRows(searchRows.getRows());
+        showMessage(vehicles.isEmpty() ? "No vehicles match your search criteria."
+                : vehicles.size() + " vehicles match your search.");
     }
 
     /**
@@ -636,57 +935,54 @@ public class DealershipJavaFXGUI extends Application {
     private void loadInitialInventory() {
         File initialFile = new File(INVENTORY_PATH);
         if (initialFile.exists()) {
-            manager.readInventoryFile(initialFile);
-            refreshDisplay();
-            updateDealerDropdown();
-        }
-    }
-
-    /**
-     * Updates the dealer dropdown with current dealerships in the system
-     */
-    private void updateDealerDropdown() {
-        // Get all unique dealer IDs from current inventory
-        java.util.Set<String> dealerIds = new java.util.HashSet<>();
-
-        for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-            dealerIds.add(vehicle.getDealerId());
+            runInBackground("Loading inventory", progress -> {
+                manager.readInventoryFile(initialFile, progress);
+                return null;
+            }, ignored -> showMessage("Loaded " + manager.getStatistics().getTotalVehicles() + " vehicles"));
         }
-
-        // Update the combo box
-        dealerIdComboBox.getItems().clear();
-        dealerIdComboBox.getItems().add("-- New Dealer --");
-        dealerIdComboBox.getItems().addAll(dealerIds);
     }
 
     /**
-     * Updates the display area with current inventory information
+     * Applies a batch of fleet changes to the table and the dealer dropdown.
+     * Only the rows named in the batch are touched, so nothing here rescans the fleet.
      */
-    private void refreshDisplay() {
-        StringBuilder sb = new StringBuilder("Current Inventory:\n\n");
-
-        manager.getVehiclesForDisplay().forEach(vehicle -> {
-            String rentalStatus = vehicle.isRented() ? "RENTED" : "AVAILABLE";
-            if (vehicle instanceof SportsCar) {
-                rentalStatus = "NOT RENTABLE";
-            }
-
-            String dealerInfo = vehicle.getDealerId();
-            if (vehicle.getMetadata().containsKey("dealer_name")) {
-                dealerInfo += " (" + vehicle.getMetadata().get("dealer_name") + ")";
+    private void applyFleetEvents(List<FleetEvent> events) {
+        List<Vehicle> added = new ArrayList<>();
+        Set<String> removed = new HashSet<>();
+        Map<String, Vehicle> changed = new HashMap<>();
+
+        for (FleetEvent event : events) {
+            switch (event.getType()) {
+                case VEHICLE_ADDED:
+                    added.add(event.getVehicle());
+                    break;
+                case VEHICLE_REMOVED:
+                    removed.add(event.getVehicleId());
+                    break;
+                case VEHICLE_TRANSFERRED:
+                case VEHICLE_RENTED:
+                case VEHICLE_RETURNED:
+                    changed.put(event.getVehicleId(), event.getVehicle());
+                    break;
+                case DEALER_CREATED:
+                    if (!dealerIdComboBox.getItems().contains(event.getDealerId())) {
+                        dealerIdComboBox.getItems().add(event.getDealerId());
+                    }
+                    break;
             }
+        }
 
-            sb.append(String.format("Type: %s, ID: %s, Manufacturer: %s, Model: %s, Price: $%.2f, Dealer: %s, Status: %s\n",
-                    vehicle.getClass().getSimpleName(),
-                    vehicle.getVehicleId(),
-                    vehicle.getManufacturer(),
-                    vehicle.getModel(),
-                    vehicle.getPrice(),
-                    dealerInfo,
-                    rentalStatus));
-        });
-
-        displayArea.setText(sb.toString());
+        // Removals first, so a vehicle removed and added again under the same id ends up as one new row;
+        // each change is looked up by id, so only the affected rows are touched
+        for (String vehicleId : removed) {
+            inventoryRows.remove(vehicleId);
+            searchRows.remove(vehicleId);
+        }
+        for (Vehicle vehicle : changed.values()) {
+            inventoryRows.replace(vehicle);
+            searchRows.replace(vehicle);
+        }
+        inventoryRows.addAll(added);
     }
 
     /**
@@ -784,10 +1080,10 @@ public class DealershipJavaFXGUI extends Application {
     }
 
     /**
-     * Adds a message to the display area
+     * Shows a message in the status bar
      */
     private void showMessage(String message) {
-        displayArea.appendText("\n>>> " + message + "\n");
+        messageLabel.setText(message);
     }
 
     /**
@@ -807,13 +1103,8 @@ public class DealershipJavaFXGUI extends Application {
      * Creates appropriate vehicle object based on selected type
      */
     private Vehicle createVehicleFromType() {
-        return switch (vehicleTypeComboBox.getValue()) {
-            case "SUV" -> new SUV();
-            case "Sedan" -> new Sedan();
-            case "Pickup" -> new Pickup();
-            case "Sports Car" -> new SportsCar();
-            default -> new SUV(); // Default to SUV if something goes wrong
-        };
+        VehicleType type = VehicleType.fromName(vehicleTypeComboBox.getValue());
+        return (type != null ? type : VehicleType.SUV).newVehicle(); // Default to SUV if something goes wrong
     }
 
     /**
@@ -823,7 +1114,7 @@ public class DealershipJavaFXGUI extends Application {
         dealerIdField.clear();
         dealerIdField.setDisable(false);
         dealerIdComboBox.setValue(null);
-        vehicleTypeComboBox.setValue("SUV");
+        vehicleTypeComboBox.setValue(VehicleType.SUV.getDisplayName());
         vehicleIdField.clear();
         manufacturerField.clear();
         modelField.clear();
@@ -836,10 +1127,8 @@ public class DealershipJavaFXGUI extends Application {
     private List<String> getAvailableVehiclesForDealer(String dealerId) {
         List<String> availableVehicles = new ArrayList<>();
 
-        for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-            if (vehicle.getDealerId().equals(dealerId) &&
-                    !(vehicle instanceof SportsCar) &&
-                    !vehicle.isRented()) {
+        for (Vehicle vehicle : manager.getVehiclesForDealer(dealerId)) {
+            if (vehicle.isRentable() && !vehicle.isRented()) {
                 availableVehicles.add(vehicle.getVehicleId() + " - " +
                         vehicle.getManufacturer() + " " +
                         vehicle.getModel());
@@ -855,8 +1144,8 @@ public class DealershipJavaFXGUI extends Application {
     private List<String> getRentedVehiclesForDealer(String dealerId) {
         List<String> rentedVehicles = new ArrayList<>();
 
-        for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-            if (vehicle.getDealerId().equals(dealerId) && vehicle.isRented()) {
+        for (Vehicle vehicle : manager.getVehiclesForDealer(dealerId)) {
+            if (vehicle.isRented()) {
                 rentedVehicles.add(vehicle.getVehicleId() + " - " +
                         vehicle.getManufacturer() + " " +
                         vehicle.getModel());
@@ -893,18 +1182,18 @@ public class DealershipJavaFXGUI extends Application {
             vehicle.setManufacturer(manufacturerField.getText().trim());
             vehicle.setModel(modelField.getText().trim());
             vehicle.setPrice(Double.parseDouble(priceField.getText().trim()));
-            vehicle.setAcquisitionDate(new Date());
+            vehicle.setAcquisitionTime(System.currentTimeMillis());
             vehicle.setDealerId(dealerId);
 
             File inventoryFile = new File(INVENTORY_PATH);
-            if (manager.addVehicleToInventory(vehicle, inventoryFile)) {
-                refreshDisplay();
-                updateDealerDropdown(); // Update dealer dropdown after adding
-                clearInputFields();
-                showSuccess("Vehicle added to inventory successfully!");
-            } else {
-                showError("Cannot add vehicle - Acquisition is disabled for dealer " + dealerId);
-            }
+            runInBackground("Adding vehicle", () -> manager.addVehicleToInventory(vehicle, inventoryFile), added -> {
+                if (added) {
+                    clearInputFields();
+                    showSuccess("Vehicle added to inventory successfully!");
+                } else {
+                    showError("Cannot add vehicle - Acquisition is disabled for dealer " + dealerId);
+                }
+            });
         } catch (Exception ex) {
             showError("Error adding vehicle: " + ex.getMessage());
         }
@@ -935,10 +1224,7 @@ public class DealershipJavaFXGUI extends Application {
             dealerCombo.setPromptText("Select a dealer");
 
             // Find all dealers that have vehicles
-            Set<String> dealersWithVehicles = new HashSet<>();
-            for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-                dealersWithVehicles.add(vehicle.getDealerId());
-            }
+            Set<String> dealersWithVehicles = manager.getStatistics().getVehiclesByDealer().keySet();
 
             // If no vehicles, show a message and return
             if (dealersWithVehicles.isEmpty()) {
@@ -1032,23 +1318,21 @@ public class DealershipJavaFXGUI extends Application {
                 }
 
                 File inventoryFile = new File(INVENTORY_PATH);
-                boolean success = manager.removeVehicleFromInventory(
+                runInBackground("Removing vehicle", () -> manager.removeVehicleFromInventory(
                         info.dealerId,
                         info.vehicleId,
                         info.manufacturer,
                         info.model,
                         info.price,
                         inventoryFile
-                );
-
-                if (success) {
-                    refreshDisplay();
-                    clearInputFields();
-                    updateDealerDropdown();
-                    showSuccess("Vehicle removed successfully");
-                } else {
-                    showError("Failed to remove vehicle. Vehicle may be rented or not found.");
-                }
+                ), success -> {
+                    if (success) {
+                        clearInputFields();
+                        showSuccess("Vehicle removed successfully");
+                    } else {
+                        showError("Failed to remove vehicle. Vehicle may be rented or not found.");
+                    }
+                });
             });
         } catch (Exception ex) {
             showError("Error removing vehicle: " + ex.getMessage());
@@ -1079,11 +1363,7 @@ public class DealershipJavaFXGUI extends Application {
             // Create dealer dropdown
             ComboBox<String> rentalDealerCombo = new ComboBox<>();
             rentalDealerCombo.setPromptText("Select a dealer");
-            java.util.Set<String> dealerIds = new java.util.HashSet<>();
-
-            for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-                dealerIds.add(vehicle.getDealerId());
-            }
+            Set<String> dealerIds = manager.getStatistics().getVehiclesByDealer().keySet();
             rentalDealerCombo.getItems().addAll(dealerIds);
 
             // Create vehicle dropdown (initially empty)
@@ -1139,15 +1419,14 @@ public class DealershipJavaFXGUI extends Application {
                 }
 
                 File inventoryFile = new File(INVENTORY_PATH);
-                boolean success = manager.rentVehicle(
-                        info.dealerId, info.vehicleId, info.startDate, info.endDate, inventoryFile);
-
-                if (success) {
-                    refreshDisplay();
-                    showSuccess("Vehicle rented successfully");
-                } else {
-                    showError("Failed to rent vehicle. Vehicle may be already rented or not found.");
-                }
+                runInBackground("Renting vehicle", () -> manager.rentVehicle(
+                        info.dealerId, info.vehicleId, info.startDate, info.endDate, inventoryFile), success -> {
+                    if (success) {
+                        showSuccess("Vehicle rented successfully");
+                    } else {
+                        showError("Failed to rent vehicle. Vehicle may be already rented or not found.");
+                    }
+                });
             });
         } catch (Exception ex) {
             showError("Error renting vehicle: " + ex.getMessage());
@@ -1236,14 +1515,13 @@ public class DealershipJavaFXGUI extends Application {
 
                 String dealerId = dealerCombo.getValue();
                 File inventoryFile = new File(INVENTORY_PATH);
-                boolean success = manager.returnVehicle(dealerId, vehicleId, inventoryFile);
-
-                if (success) {
-                    refreshDisplay();
-                    showSuccess("Vehicle returned successfully");
-                } else {
-                    showError("Failed to return vehicle. An unexpected error occurred.");
-                }
+                runInBackground("Returning vehicle", () -> manager.returnVehicle(dealerId, vehicleId, inventoryFile), success -> {
+                    if (success) {
+                        showSuccess("Vehicle returned successfully");
+                    } else {
+                        showError("Failed to return vehicle. An unexpected error occurred.");
+                    }
+                });
             });
         } catch (Exception ex) {
             showError("Error returning vehicle: " + ex.getMessage());
@@ -1275,10 +1553,7 @@ public class DealershipJavaFXGUI extends Application {
             sourceDealerCombo.setPromptText("Select Source Dealer");
 
             // Find all dealers that have vehicles
-            Set<String> dealersWithVehicles = new HashSet<>();
-            for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-                dealersWithVehicles.add(vehicle.getDealerId());
-            }
+            Set<String> dealersWithVehicles = manager.getStatistics().getVehiclesByDealer().keySet();
 
             // If no vehicles, show a message and return
             if (dealersWithVehicles.isEmpty()) {
@@ -1394,20 +1669,18 @@ public class DealershipJavaFXGUI extends Application {
                 }
 
                 File inventoryFile = new File(INVENTORY_PATH);
-                boolean success = manager.transferVehicle(
+                runInBackground("Transferring vehicle", () -> manager.transferVehicle(
                         info.sourceDealerId,
                         info.targetDealerId,
                         info.vehicleId,
                         inventoryFile
-                );
-
-                if (success) {
-                    refreshDisplay();
-                    updateDealerDropdown();
-                    showSuccess("Vehicle transferred successfully");
-                } else {
-                    showError("Failed to transfer vehicle. Check dealer IDs and vehicle status.");
-                }
+                ), success -> {
+                    if (success) {
+                        showSuccess("Vehicle transferred successfully");
+                    } else {
+                        showError("Failed to transfer vehicle. Check dealer IDs and vehicle status.");
+                    }
+                });
             });
         } catch (Exception ex) {
             showError("Error transferring vehicle: " + ex.getMessage());
@@ -1420,19 +1693,19 @@ public class DealershipJavaFXGUI extends Application {
      */
     private void handleImportXML() {
         try {
-            fileChooser.setTitle("Open XML File");
-            File selectedFile = fileChooser.showOpenDialog(null);
+            fileChooser.setTitle("Open XML Files");
+            List<File> selectedFiles = fileChooser.showOpenMultipleDialog(null);
 
-            if (selectedFile != null) {
+            if (selectedFiles != null && !selectedFiles.isEmpty()) {
                 File inventoryFile = new File(INVENTORY_PATH);
-                int importCount = manager.importXMLFile(selectedFile, inventoryFile);
-
-                if (importCount > 0) {
-                    refreshDisplay();
-                    showSuccess("Successfully imported " + importCount + " vehicles from XML");
-                } else {
-                    showMessage("No vehicles were imported from XML");
-                }
+                runInBackground("Importing " + selectedFiles.size() + " XML file(s)",
+                        progress -> manager.importXMLFiles(selectedFiles, inventoryFile, progress), statistics -> {
+                    if (statistics.getImported() > 0) {
+                        showSuccess("Successfully imported " + statistics.getImported() + " vehicles from XML\n" + statistics);
+                    } else {
+                        showMessage("No vehicles were imported from XML\n" + statistics);
+                    }
+                });
             }
         } catch (Exception ex) {
             showError("Error importing XML: " + ex.getMessage());
@@ -1481,27 +1754,24 @@ public class DealershipJavaFXGUI extends Application {
             return;
         }
 
-        try {
-            if (manager.exportInventoryToExport(inventoryFile, exportFile)) {
+        runInBackground("Exporting inventory",
+                progress -> manager.exportInventoryToExport(inventoryFile, exportFile, progress), exported -> {
+            if (exported) {
                 showSuccess("Successfully exported to export.json");
             } else {
                 showError("Failed to export: No vehicles found in inventory");
             }
-        } catch (Exception e) {
-            showError("Error during export: " + e.getMessage());
-        }
+        });
     }
 
     /**
      * Handles clearing the export.json file
      */
     private void handleClearExport() {
-        try {
+        runInBackground("Clearing export.json", () -> {
             manager.clearExportFile(new File(EXPORT_PATH));
-            showSuccess("export.json has been cleared");
-        } catch (Exception e) {
-            showError("Error clearing export.json: " + e.getMessage());
-        }
+            return null;
+        }, ignored -> showSuccess("export.json has been cleared"));
     }
 
     /**
@@ -1511,15 +1781,13 @@ public class DealershipJavaFXGUI extends Application {
      */
     private List<String> getVehiclesForDealer(String dealerId) {
         List<String> formattedVehicles = new ArrayList<>();
-        for (Vehicle vehicle : manager.getVehiclesForDisplay()) {
-            if (vehicle.getDealerId().equals(dealerId)) {
-                String formatted = String.format("%s - %s %s ($%.2f)",
-                        vehicle.getVehicleId(),
-                        vehicle.getManufacturer(),
-                        vehicle.getModel(),
-                        vehicle.getPrice());
-                formattedVehicles.add(formatted);
-            }
+        for (Vehicle vehicle : manager.getVehiclesForDealer(dealerId)) {
+            String formatted = String.format("%s - %s %s ($%.2f)",
+                    vehicle.getVehicleId(),
+                    vehicle.getManufacturer(),
+                    vehicle.getModel(),
+                    vehicle.getPrice());
+            formattedVehicles.add(formatted);
         }
         return formattedVehicles;
     }
@@ -1528,11 +1796,11 @@ public class DealershipJavaFXGUI extends Application {
      * Finds a vehicle by dealer ID and vehicle ID
      */
     private Vehicle findVehicleById(String dealerId, String vehicleId) {
-        return manager.getVehiclesForDisplay().stream()
-                .filter(vehicle -> vehicle.getDealerId().equals(dealerId) &&
-                        vehicle.getVehicleId().equals(vehicleId))
-                .findFirst()
-                .orElse(null);
+        Vehicle vehicle = manager.findVehicle(vehicleId);
+        if (vehicle == null || !vehicle.getDealerId().equals(dealerId)) {
+            return null;
+        }
+        return vehicle;
     }
 
     /**
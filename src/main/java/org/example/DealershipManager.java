@@ -1,37 +1,170 @@
 package org.example;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.io.File;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * The DealershipManager class manages all the dealerships and the inventories.
  * This class provides the methods add, remove, export vehicle, enable acquisition, and lastly disable acquisition.
+ * It is safe to share between threads: each change holds the lock of the dealership it touches (both, for
+ * transfers), and journal snapshots briefly exclude all changes so the snapshot and journal never disagree.
  */
 public class DealershipManager {
-    private Map<String, Dealership> dealerships = new HashMap<>();          // stores the dealership by their id
+    private static final int IMPORT_QUEUE_CAPACITY = 1024;                 // vehicles buffered per import shard
+
+    private final Map<String, Dealership> dealerships = new ConcurrentHashMap<>();    // stores the dealership by their id
+    private final Map<String, Dealership> vehicleIndex = new ConcurrentHashMap<>();   // maps every vehicle id to the dealership holding it
     private final JSONFileHandler jsonFileHandler = new JSONFileHandler();  // Handles all the JSON files
     private final XMLFileHandler xmlFileHandler = new XMLFileHandler();     // Handles XML import
+    private final BinarySnapshotHandler binarySnapshotHandler = new BinarySnapshotHandler(); // Handles the binary cold-start snapshot
+    private final Map<String, InventoryJournal> journals = new ConcurrentHashMap<>(); // open mutation journals by inventory file path
+    private final Set<String> pendingSnapshots = ConcurrentHashMap.newKeySet(); // inventory files whose journal needs a full snapshot first
+    private final VehicleSearchIndex searchIndex = new VehicleSearchIndex(); // normalized fields of every vehicle, for search
+    private final RentalIntervalIndex rentalIndex = new RentalIntervalIndex(); // bookings of every vehicle, by period
+    private final FleetStatistics statistics = new FleetStatistics();       // running dashboard totals
+    private final FleetColumns columns = new FleetColumns();                // owns the scanned fields of every vehicle, by column
+    private final FleetEventDispatcher events = new FleetEventDispatcher(); // hands changes to listeners in batches
+    private final DateParser dateParser = new DateParser(ZoneId.systemDefault()); // parses MM/dd/yyyy rental dates
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock(); // shared by journaled changes, exclusive for snapshots and bulk loads
+    private volatile InventoryJournal.SyncPolicy journalSyncPolicy = InventoryJournal.SyncPolicy.NONE; // when journal records are forced to disk
+    private volatile int journalCompactionThreshold = 1000;                 // journal records before folding into the snapshot
 
     /**
      * Reads the inventory and loads the vehicles into their respective dealership
      * @param file The inventory file that you want to read form
      */
     public void readInventoryFile(File file) {
-        List<Vehicle> vehicles = jsonFileHandler.readInventory(file);
-        for (Vehicle vehicle : vehicles) {
-            String dealerId = vehicle.getDealerId();
-            String dealerName = null;
+        readInventoryFile(file, (done, total) -> { });
+    }
+
+    /**
+     * Reads the inventory, stopping between vehicles if the listener asks to.
+     * A cancelled load takes back every vehicle it added, and its journal is not replayed.
+     * @param file The inventory file that you want to read form
+     * @param progress Asked whether to stop
+     * @throws CancellationException if the load was cancelled
+     */
+    public void readInventoryFile(File file, ProgressListener progress) {
+        snapshotLock.writeLock().lock();
+        try {
+            loadInventoryFile(file, progress);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
 
-            // Check if dealer name is in metadata
-            if (vehicle.getMetadata().containsKey("dealer_name")) {
-                dealerName = (String) vehicle.getMetadata().get("dealer_name");
+    /**
+     * Loads an inventory snapshot and replays its journal; the caller holds the snapshot write lock
+     * @param file The inventory file
+     * @param progress Asked whether to stop
+     */
+    private void loadInventoryFile(File file, ProgressListener progress) {
+        List<Vehicle> loaded = new ArrayList<>(); // Taken back again if the load is cancelled
+        try {
+            // The binary snapshot written on close stands in for the JSON file as long as that has not changed
+            File binarySnapshot = BinarySnapshotHandler.snapshotFileFor(file);
+            if (!binarySnapshotHandler.isCurrentFor(binarySnapshot, file)
+                    || !loadBinarySnapshot(binarySnapshot, progress, loaded)) {
+                // Stream the snapshot so only one record is held in memory at a time
+                jsonFileHandler.readInventoryWithDealerNames(file, (vehicle, dealerName) -> {
+                    checkCancelled(progress, "Loading " + file.getName());
+                    if (processAddVehicleCommand(vehicle.getDealerId(), vehicle, dealerName)) {
+                        loaded.add(vehicle);
+                    }
+                });
             }
+            checkCancelled(progress, "Loading " + file.getName());
+        } catch (CancellationException e) {
+            discardVehicles(loaded);
+            throw e;
+        }
+
+        // Replay the mutations recorded since the snapshot was written
+        InventoryJournal journal = new InventoryJournal(InventoryJournal.journalFileFor(file), journalSyncPolicy);
+        int replayed = journal.replay(this::applyJournalRecord);
+        if (replayed > 0) {
+            System.out.println("Replayed " + replayed + " journal records for " + file.getName());
+        }
+        pendingSnapshots.remove(file.getAbsolutePath());
+        InventoryJournal previous = journals.put(file.getAbsolutePath(), journal);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Writes the whole fleet, including dealership names, acquisition flags, rental state and
+     * bookings, to a binary snapshot
+     * @param file The snapshot file
+     * @return true if the snapshot was written, false otherwise
+     */
+    public boolean writeBinarySnapshot(File file) {
+        snapshotLock.writeLock().lock();
+        try {
+            return binarySnapshotHandler.writeSnapshot(dealerships.values(), file);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
 
-            processAddVehicleCommand(dealerId, vehicle, dealerName);
+    /**
+     * Loads the dealerships and vehicles of a binary snapshot
+     * @param file The snapshot file
+     * @return true if the whole snapshot was read, false otherwise
+     */
+    public boolean readBinarySnapshot(File file) {
+        snapshotLock.writeLock().lock();
+        try {
+            return loadBinarySnapshot(file, (done, total) -> { }, new ArrayList<>());
+        } finally {
+            snapshotLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Loads a binary snapshot; the caller holds the snapshot write lock
+     * @param file The snapshot file
+     * @param progress Asked whether to stop before each vehicle
+     * @param loaded Receives every vehicle that was added
+     * @return true if the whole snapshot was read, false otherwise
+     */
+    private boolean loadBinarySnapshot(File file, ProgressListener progress, List<Vehicle> loaded) {
+        // Dealerships start open so their vehicles can be added, and are closed once everything is in
+        List<String> closedDealerIds = new ArrayList<>();
+        boolean read = binarySnapshotHandler.readSnapshot(file, new BinarySnapshotHandler.Loader() {
+            @Override
+            public void dealership(String dealerId, String name, boolean acquisitionEnabled) {
+                dealershipFor(dealerId, name);
+                if (!acquisitionEnabled) {
+                    closedDealerIds.add(dealerId);
+                }
+            }
+
+            @Override
+            public void vehicle(String dealerId, Vehicle vehicle) {
+                checkCancelled(progress, "Loading " + file.getName());
+                if (applyVehicle(dealerId, vehicle, null) == ImportStatistics.Outcome.IMPORTED) {
+                    loaded.add(vehicle);
+                }
+            }
+        });
+        closedDealerIds.forEach(this::disableAcquisition);
+        return read;
+    }
+
     /**
      * A command to add a vehicle to a dealership
      * @param dealerId  Unique id for dealership
@@ -50,28 +183,141 @@ public class DealershipManager {
      * @return true if the vehicle was added, false otherwise
      */
     public boolean processAddVehicleCommand(String dealerId, Vehicle vehicle, String dealerName) {
-        Dealership dealership = dealerships.get(dealerId);
+        switch (applyVehicle(dealerId, vehicle, dealerName)) {
+            case IMPORTED:
+                System.out.println("Vehicle added successfully to dealer " + dealerId);
+                return true;
+            case ACQUISITION_DISABLED:
+                System.out.println("Cannot add vehicle: Acquisition disabled for dealer " + dealerId);
+                return false;
+            case DUPLICATE:
+                System.out.println("Failed to add vehicle: Duplicate vehicle ID");
+                return false;
+            default:
+                System.out.println("Failed to add vehicle: Missing dealer or vehicle ID");
+                return false;
+        }
+    }
 
-        if (dealership == null) {
-            dealership = new Dealership(dealerId, dealerName);
-            dealership.enableAcquisition();
-            dealerships.put(dealerId, dealership);
-        } else if (dealerName != null && !dealerName.isEmpty()) {
-            dealership.setName(dealerName);
+    /**
+     * Adds a vehicle to its dealership, creating the dealership if needed.
+     * Safe to call from several threads as long as each dealership is only touched by one of them.
+     * @param dealerId Unique id for dealership
+     * @param vehicle The vehicle you want added
+     * @param dealerName Optional dealer name
+     * @return What happened to the vehicle
+     */
+    private ImportStatistics.Outcome applyVehicle(String dealerId, Vehicle vehicle, String dealerName) {
+        if (dealerId == null || vehicle.getVehicleId() == null) {
+            return ImportStatistics.Outcome.MALFORMED;
         }
 
-        if (!dealership.isAcquisitionEnabled()) {
-            System.out.println("Cannot add vehicle: Acquisition disabled for dealer " + dealerId);
-            return false;
+        Dealership dealership = dealershipFor(dealerId, dealerName);
+        dealership.lock();
+        try {
+            if (!dealership.isAcquisitionEnabled()) {
+                return ImportStatistics.Outcome.ACQUISITION_DISABLED;
+            }
+
+            // Vehicle ids must be unique across the whole fleet; claim the id before adding
+            if (vehicleIndex.putIfAbsent(vehicle.getVehicleId(), dealership) != null) {
+                return ImportStatistics.Outcome.DUPLICATE;
+            }
+            if (!dealership.addVehicle(vehicle)) {
+                vehicleIndex.remove(vehicle.getVehicleId(), dealership);
+                return ImportStatistics.Outcome.DUPLICATE;
+            }
+            // The vehicle's dealer is the one that holds it, so its dealer column groups it correctly
+            if (!dealerId.equals(vehicle.getDealerId())) {
+                vehicle.setDealerId(dealerId);
+            }
+            searchIndex.add(vehicle);
+            columns.add(vehicle);
+            indexBookings(vehicle);
+            statistics.vehicleAdded(vehicle, dealerId);
+            events.publish(FleetEvent.vehicleAdded(vehicle, dealerId));
+            return ImportStatistics.Outcome.IMPORTED;
+        } finally {
+            dealership.unlock();
         }
+    }
 
-        if (dealership.addVehicle(vehicle)) {
-            System.out.println("Vehicle added successfully to dealer " + dealerId);
-            return true;
-        } else {
-            System.out.println("Failed to add vehicle: Duplicate vehicle ID");
-            return false;
+    /**
+     * Drops a vehicle its dealership no longer holds from every index and tells listeners it is gone
+     * @param vehicle The removed vehicle
+     * @param dealerId The dealer that held it
+     */
+    private void unindexVehicle(Vehicle vehicle, String dealerId) {
+        vehicleIndex.remove(vehicle.getVehicleId());
+        searchIndex.remove(vehicle.getVehicleId());
+        columns.remove(vehicle);
+        statistics.vehicleRemoved(vehicle, dealerId);
+        events.publish(FleetEvent.vehicleRemoved(vehicle, dealerId));
+        unindexBookings(vehicle);
+    }
+
+    /**
+     * Takes back vehicles a cancelled load or a cancelled or failed import added, rented or not;
+     * the caller holds the snapshot write lock
+     * @param vehicles The vehicles to take back
+     */
+    private void discardVehicles(Collection<Vehicle> vehicles) {
+        for (Vehicle vehicle : vehicles) {
+            Dealership dealership = vehicleIndex.get(vehicle.getVehicleId());
+            if (dealership != null && dealership.discardVehicle(vehicle.getVehicleId())) {
+                unindexVehicle(vehicle, dealership.getDealerId());
+            }
+        }
+    }
+
+    /**
+     * Throws if the listener asks the operation to stop
+     * @param progress The listener of the operation
+     * @param operation What is being done, for the exception message
+     */
+    private static void checkCancelled(ProgressListener progress, String operation) {
+        if (progress.isCancelled()) {
+            throw new CancellationException(operation + " cancelled");
+        }
+    }
+
+    /**
+     * Gets a dealership, creating it with acquisition enabled if it does not exist yet
+     * @param dealerId Unique id for dealership
+     * @param dealerName Optional dealer name, applied to the dealership when not empty
+     * @return The dealership
+     */
+    private Dealership dealershipFor(String dealerId, String dealerName) {
+        Dealership dealership = createDealershipIfAbsent(dealerId, id -> {
+            Dealership created = new Dealership(id, dealerName);
+            created.enableAcquisition();
+            return created;
+        });
+        if (dealerName != null && !dealerName.isEmpty()) {
+            dealership.setName(dealerName);
         }
+        return dealership;
+    }
+
+    /**
+     * Gets a dealership, creating it and telling listeners if it does not exist yet
+     * @param dealerId Unique id for dealership
+     * @param factory Creates the dealership
+     * @return The dealership
+     */
+    private Dealership createDealershipIfAbsent(String dealerId, Function<String, Dealership> factory) {
+        Dealership dealership = dealerships.get(dealerId);
+        if (dealership != null) return dealership;
+
+        boolean[] created = new boolean[1];
+        dealership = dealerships.computeIfAbsent(dealerId, id -> {
+            created[0] = true;
+            return factory.apply(id);
+        });
+        if (created[0]) {
+            events.publish(FleetEvent.dealerCreated(dealerId));
+        }
+        return dealership;
     }
 
     /**
@@ -82,37 +328,256 @@ public class DealershipManager {
      */
     public boolean addVehicleToInventory(Vehicle vehicle, File inventoryFile) {
         // Check if acquisition is enabled
-        Dealership dealership = dealerships.get(vehicle.getDealerId());
+        Dealership dealership = findDealership(vehicle.getDealerId());
         if (dealership != null && !dealership.isAcquisitionEnabled()) {
             return false;
         }
 
-        boolean result = processAddVehicleCommand(vehicle.getDealerId(), vehicle);
-        if (result) {
-            saveState(inventoryFile);
+        if (vehicle.getDealerId() == null) {
+            return processAddVehicleCommand(null, vehicle);
+        }
+
+        // Hold the dealership until the add is journaled, so later changes to it are journaled after it
+        boolean result;
+        snapshotLock.readLock().lock();
+        try {
+            dealership = dealershipFor(vehicle.getDealerId(), null);
+            dealership.lock();
+            try {
+                result = processAddVehicleCommand(vehicle.getDealerId(), vehicle);
+                if (result) {
+                    recordMutation(inventoryFile, addRecord(vehicle, null));
+                }
+            } finally {
+                dealership.unlock();
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
         }
+        finishMutation(inventoryFile);
         return result;
     }
 
     /**
      * Auto-saves the current state to the inventory file
      * @param inventoryFile The file to save to
+     * @return true if the file was written, false if it was left as it was
      */
-    private void saveState(File inventoryFile) {
-        List<Vehicle> allVehicles = getVehiclesForDisplay();
-        jsonFileHandler.writeInventory(allVehicles, inventoryFile);
+    private boolean saveState(File inventoryFile) {
+        // The binary snapshot no longer matches once the JSON file is rewritten
+        try {
+            Files.deleteIfExists(BinarySnapshotHandler.snapshotFileFor(inventoryFile).toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        // Stream one dealership at a time instead of building a combined list
+        return jsonFileHandler.writeInventory(dealerships.values().stream()
+                .flatMap(dealership -> dealership.getVehicles().stream()), inventoryFile, this::getDealerName);
     }
 
     /**
-     * Removes a vehicle from inventory and dealership lists.
-     * @param dealerId The unique id of a dealership
-     * @param vehicleId The id of the vehicle you want removed
-     * @param manufacturer  The manufacturer of the vehicle
-     * @param model The model of the vehicle
-     * @param price The price of the vehicle
-     * @param inventoryFile The file where the inventory is stored
-     * @return  true if the vehicle was removed, otherwise false
+     * Records a mutation in the journal of an inventory file.
+     * The caller holds the snapshot read lock and the locks of the dealerships it changed, so
+     * records reach the journal in the same order the changes were made.
+     * The first mutation for a file this manager did not load marks it for a full snapshot instead,
+     * so the snapshot plus its journal always describe the current state. A record that cannot be
+     * appended marks the file for a full snapshot too, so the change still reaches disk.
+     * @param inventoryFile The inventory snapshot file
+     * @param record The mutation record
+     */
+    private void recordMutation(File inventoryFile, Map<String, Object> record) {
+        String path = inventoryFile.getAbsolutePath();
+        InventoryJournal journal = journals.get(path);
+        if (journal == null) {
+            journals.computeIfAbsent(path,
+                    key -> new InventoryJournal(InventoryJournal.journalFileFor(inventoryFile), journalSyncPolicy));
+            pendingSnapshots.add(path);
+            return;
+        }
+        if (!journal.append(record)) {
+            System.err.println("Could not journal a change to " + inventoryFile.getName() + "; writing a snapshot instead");
+            pendingSnapshots.add(path);
+        }
+    }
+
+    /**
+     * Writes the snapshot a mutation asked for, or compacts the journal once it reaches the threshold.
+     * Must be called after the mutation released its locks.
+     * @param inventoryFile The inventory snapshot file
+     */
+    private void finishMutation(File inventoryFile) {
+        InventoryJournal journal = journals.get(inventoryFile.getAbsolutePath());
+        if (journal == null) return;
+        if (pendingSnapshots.contains(inventoryFile.getAbsolutePath())
+                || journal.getRecordCount() >= journalCompactionThreshold) {
+            compactJournal(inventoryFile);
+        }
+    }
+
+    /**
+     * Writes a full snapshot of an inventory file and empties its journal, opening the journal if needed
+     * @param inventoryFile The inventory snapshot file
+     */
+    private void writeSnapshot(File inventoryFile) {
+        journals.computeIfAbsent(inventoryFile.getAbsolutePath(),
+                path -> new InventoryJournal(InventoryJournal.journalFileFor(inventoryFile), journalSyncPolicy));
+        compactJournal(inventoryFile);
+    }
+
+    /**
+     * Folds the journal of an inventory file back into the snapshot and empties the journal.
+     * Replaying records that are already in the snapshot is harmless, so a crash between
+     * the two steps does not corrupt the inventory. If the snapshot cannot be written, the
+     * journal is kept, so the old snapshot plus the journal still describe every change.
+     * @param inventoryFile The inventory snapshot file
+     * @return true if the snapshot was written and the journal emptied, false otherwise
+     */
+    public boolean compactJournal(File inventoryFile) {
+        InventoryJournal journal = journals.get(inventoryFile.getAbsolutePath());
+        if (journal == null) return false;
+
+        // No change may land between writing the snapshot and emptying the journal
+        snapshotLock.writeLock().lock();
+        try {
+            if (!saveState(inventoryFile)) {
+                System.err.println("Keeping the journal of " + inventoryFile.getName() + ": snapshot was not written");
+                return false;
+            }
+            journal.truncate();
+            pendingSnapshots.remove(inventoryFile.getAbsolutePath());
+            return true;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts and closes every open journal.
+     * When a single inventory file is open, the whole state is also written as its binary snapshot,
+     * so the next start can load that instead of parsing the JSON file.
      */
+    public void close() {
+        snapshotLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, InventoryJournal> entry : journals.entrySet()) {
+                compactJournal(new File(entry.getKey()));
+                entry.getValue().close();
+            }
+            if (journals.size() == 1) {
+                File inventoryFile = new File(journals.keySet().iterator().next());
+                binarySnapshotHandler.writeSnapshot(dealerships.values(),
+                        BinarySnapshotHandler.snapshotFileFor(inventoryFile), inventoryFile);
+            }
+            journals.clear();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets when journal records are forced to disk
+     * @param syncPolicy The sync policy for journals opened from now on
+     */
+    public void setJournalSyncPolicy(InventoryJournal.SyncPolicy syncPolicy) {
+        this.journalSyncPolicy = syncPolicy;
+    }
+
+    /**
+     * Sets how many journal records are written before the journal is folded into the snapshot
+     * @param threshold The number of records, at least 1
+     */
+    public void setJournalCompactionThreshold(int threshold) {
+        this.journalCompactionThreshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Creates the journal record for an added vehicle
+     */
+    private Map<String, Object> addRecord(Vehicle vehicle, String dealerName) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("op", "add");
+        record.put("vehicle_type", JSONFileHandler.vehicleTypeName(vehicle));
+        record.putAll(jsonFileHandler.toRecord(vehicle));
+        if (dealerName != null) {
+            record.put("dealer_name", dealerName);
+        }
+        return record;
+    }
+
+    /**
+     * Creates a journal record that refers to a vehicle at a dealership
+     */
+    private Map<String, Object> vehicleRecord(String op, String dealerId, String vehicleId) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("op", op);
+        record.put("dealership_id", dealerId);
+        record.put("vehicle_id", vehicleId);
+        return record;
+    }
+
+    /**
+     * Applies one journal record to the in-memory state without journaling it again
+     * @param record The journal record
+     */
+    private void applyJournalRecord(JsonNode record) {
+        String op = record.path("op").asText();
+        String dealerId = record.path("dealership_id").asText();
+        String vehicleId = record.path("vehicle_id").asText();
+        Dealership dealership = findDealership(dealerId);
+
+        switch (op) {
+            case "add":
+                Vehicle vehicle = jsonFileHandler.fromRecord(record);
+                if (vehicle != null) {
+                    String dealerName = record.has("dealer_name") ? record.get("dealer_name").asText() : null;
+                    // Replayed adds are applied quietly, like vehicles loaded from a snapshot
+                    applyVehicle(dealerId, vehicle, dealerName);
+                }
+                break;
+            case "remove":
+                Vehicle removed = dealership != null ? dealership.findVehicleById(vehicleId) : null;
+                if (removed != null && dealership.removeVehicle(vehicleId)) {
+                    unindexVehicle(removed, dealerId);
+                }
+                break;
+            case "transfer":
+                String targetDealerId = record.path("target_dealership_id").asText();
+                Dealership targetDealership = findDealership(targetDealerId);
+                if (targetDealership == null) {
+                    enableAcquisition(targetDealerId);
+                    targetDealership = findDealership(targetDealerId);
+                }
+                if (dealership != null && dealership.transferVehicle(vehicleId, targetDealership)) {
+                    vehicleIndex.put(vehicleId, targetDealership);
+                    searchIndex.updateDealer(vehicleId, targetDealerId);
+                    Vehicle transferred = targetDealership.findVehicleById(vehicleId);
+                    statistics.vehicleTransferred(transferred, dealerId, targetDealerId);
+                    events.publish(FleetEvent.vehicleTransferred(transferred, dealerId, targetDealerId));
+                }
+                break;
+            case "rent":
+                if (dealership != null) {
+                    rentAndIndex(dealership, vehicleId,
+                            record.path("rental_start_date").asLong(), record.path("rental_end_date").asLong());
+                }
+                break;
+            case "reserve":
+                if (dealership != null) {
+                    reserveAndIndex(dealership, vehicleId,
+                            record.path("rental_start_date").asLong(), record.path("rental_end_date").asLong());
+                }
+                break;
+            case "return":
+                if (dealership != null) {
+                    returnAndUnindex(dealership, vehicleId);
+                }
+                break;
+            default:
+                System.err.println("Skipping unknown journal record: " + op);
+        }
+    }
+
     /**
      * Removes a vehicle from inventory and dealership lists.
      * @param dealerId The unique id of a dealership
@@ -126,54 +591,36 @@ public class DealershipManager {
     public boolean removeVehicleFromInventory(String dealerId, String vehicleId, String manufacturer,
                                               String model, double price, File inventoryFile) {
         // Find the dealership
-        Dealership dealership = dealerships.get(dealerId);
+        Dealership dealership = findDealership(dealerId);
         if (dealership == null) {
             return false;
         }
 
-        // Find the vehicle in the dealership
-        Vehicle vehicleToRemove = null;
-        for (Vehicle vehicle : dealership.getVehicles()) {
-            if (vehicle.getVehicleId().equals(vehicleId) &&
-                    vehicle.getManufacturer().equals(manufacturer) &&
-                    vehicle.getModel().equals(model) &&
-                    Math.abs(vehicle.getPrice() - price) < 0.01) {
-                vehicleToRemove = vehicle;
-                break;
+        snapshotLock.readLock().lock();
+        dealership.lock();
+        try {
+            // Find the vehicle in the dealership and make sure the details match
+            Vehicle vehicleToRemove = dealership.findVehicleById(vehicleId);
+            if (vehicleToRemove == null ||
+                    !vehicleToRemove.getManufacturer().equals(manufacturer) ||
+                    !vehicleToRemove.getModel().equals(model) ||
+                    Math.abs(vehicleToRemove.getPrice() - price) >= 0.01) {
+                return false;
             }
-        }
 
-        if (vehicleToRemove == null) {
-            return false;
-        }
-
-        // Can't remove a rented vehicle
-        if (vehicleToRemove.isRented()) {
-            return false;
-        }
-
-        // Create a new dealership instance with the same ID and name
-        Dealership updatedDealership = new Dealership(dealerId, dealership.getName());
-
-        // Set acquisition state based on original dealership
-        if (dealership.isAcquisitionEnabled()) {
-            updatedDealership.enableAcquisition();
-        } else {
-            updatedDealership.disableAcquisition();
-        }
-
-        // Add all vehicles except the one to remove
-        for (Vehicle v : dealership.getVehicles()) {
-            if (!v.getVehicleId().equals(vehicleToRemove.getVehicleId())) {
-                updatedDealership.addVehicle(v);
+            // Remove in place; rented vehicles are refused by the dealership
+            if (!dealership.removeVehicle(vehicleId)) {
+                return false;
             }
-        }
+            unindexVehicle(vehicleToRemove, dealerId);
 
-        // Replace the old dealership with the updated one
-        dealerships.put(dealerId, updatedDealership);
-
-        // Save updated state
-        saveState(inventoryFile);
+            // Record the removal
+            recordMutation(inventoryFile, vehicleRecord("remove", dealerId, vehicleId));
+        } finally {
+            dealership.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        finishMutation(inventoryFile);
         return true;
     }
 
@@ -190,6 +637,22 @@ public class DealershipManager {
      * @return true if export is successful, otherwise false
      */
     public boolean exportInventoryToExport(File inventoryFile, File exportFile) {
+        return exportInventoryToExport(inventoryFile, exportFile, (done, total) -> { });
+    }
+
+    /**
+     * Exports the inventory to an external file, reporting the vehicles written as it goes.
+     * A cancelled export stops between vehicles and leaves any earlier export file as it was.
+     * @param inventoryFile The inventory file
+     * @param exportFile The destination export file
+     * @param progress Told the number of vehicles written out of the number to export, and asked whether to stop
+     * @return true if export is successful, otherwise false
+     * @throws CancellationException if the export was cancelled
+     */
+    public boolean exportInventoryToExport(File inventoryFile, File exportFile, ProgressListener progress) {
+        // Make sure the file includes any journaled changes
+        compactJournal(inventoryFile);
+
         // First try to read from file
         List<Vehicle> inventory = jsonFileHandler.readInventory(inventoryFile);
 
@@ -205,9 +668,21 @@ public class DealershipManager {
         }
 
         try {
-            jsonFileHandler.writeInventory(inventory, exportFile);
+            long total = inventory.size();
+            AtomicLong written = new AtomicLong();
+            boolean exported = jsonFileHandler.writeInventory(inventory.stream().peek(vehicle -> {
+                checkCancelled(progress, "Export");
+                progress.progress(written.incrementAndGet(), total);
+            }), exportFile, this::getDealerName);
+            if (!exported) {
+                // The writer stops on the cancellation and leaves the old file in place
+                checkCancelled(progress, "Export");
+                return false;
+            }
             System.out.println("Exported " + inventory.size() + " vehicles to export.json");
             return true;
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -229,11 +704,7 @@ public class DealershipManager {
      * @return true after acquisition was enabled
      */
     public boolean enableAcquisition(String dealerId) {
-        Dealership dealership = dealerships.get(dealerId);
-        if (dealership == null) {
-            dealership = new Dealership(dealerId);
-            dealerships.put(dealerId, dealership);
-        }
+        Dealership dealership = createDealershipIfAbsent(dealerId, Dealership::new);
         dealership.enableAcquisition();
         return true;
     }
@@ -244,11 +715,7 @@ public class DealershipManager {
      * @return true after disabling acquisition
      */
     public boolean disableAcquisition(String dealerId) {
-        Dealership dealership = dealerships.get(dealerId);
-        if (dealership == null) {
-            dealership = new Dealership(dealerId);
-            dealerships.put(dealerId, dealership);
-        }
+        Dealership dealership = createDealershipIfAbsent(dealerId, Dealership::new);
         dealership.disableAcquisition();
         return true;
     }
@@ -257,30 +724,85 @@ public class DealershipManager {
      * Imports vehicles from an XML file
      * @param xmlFile The XML file to import
      * @param inventoryFile The inventory file to update
-     * @return Number of vehicles successfully imported
+     * @return The import statistics
      */
-    public int importXMLFile(File xmlFile, File inventoryFile) {
-        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile);
-        int successCount = 0;
-
-        for (Vehicle vehicle : importedVehicles) {
-            String dealerId = vehicle.getDealerId();
-            String dealerName = null;
+    public ImportStatistics importXMLFile(File xmlFile, File inventoryFile) {
+        return importXMLFiles(List.of(xmlFile), inventoryFile);
+    }
 
-            if (vehicle.getMetadata().containsKey("dealer_name")) {
-                dealerName = (String) vehicle.getMetadata().get("dealer_name");
-            }
+    /**
+     * Imports vehicles from several XML files at once.
+     * Feeds are parsed in parallel and vehicles are applied by worker threads sharded by dealer id,
+     * so each dealership is only ever touched by one worker. The inventory file is updated once
+     * all workers have finished.
+     * @param xmlFiles The XML files to import
+     * @param inventoryFile The inventory file to update
+     * @return The import statistics
+     */
+    public ImportStatistics importXMLFiles(List<File> xmlFiles, File inventoryFile) {
+        return importXMLFiles(xmlFiles, inventoryFile, (done, total) -> { });
+    }
 
-            if (processAddVehicleCommand(dealerId, vehicle, dealerName)) {
-                successCount++;
-            }
+    /**
+     * Imports vehicles from several XML files at once, reporting how much of the feeds has been imported.
+     * A cancelled import stops its parsers and workers and takes back every vehicle it added,
+     * so neither the fleet nor the inventory file changes.
+     * @param xmlFiles The XML files to import
+     * @param inventoryFile The inventory file to update
+     * @param progress Told the bytes of the feeds imported out of their total size, and asked whether to stop
+     * @return The import statistics
+     * @throws CancellationException if the import was cancelled
+     */
+    public ImportStatistics importXMLFiles(List<File> xmlFiles, File inventoryFile, ProgressListener progress) {
+        // Imports exclude other journaled changes, so no change to an imported vehicle is journaled before its add
+        snapshotLock.writeLock().lock();
+        try {
+            return importXMLFilesLocked(xmlFiles, inventoryFile, progress);
+        } finally {
+            snapshotLock.writeLock().unlock();
         }
+    }
+
+    /**
+     * Runs the import pipeline and records its result; the caller holds the snapshot write lock
+     */
+    private ImportStatistics importXMLFilesLocked(List<File> xmlFiles, File inventoryFile, ProgressListener progress) {
+        Queue<Vehicle> imported = new ConcurrentLinkedQueue<>();
+        int workerCount = Math.min(4, Runtime.getRuntime().availableProcessors());
 
-        if (successCount > 0) {
-            saveState(inventoryFile);
+        XMLImportPipeline pipeline = new XMLImportPipeline(xmlFileHandler, workerCount, IMPORT_QUEUE_CAPACITY);
+        ImportStatistics statistics;
+        try {
+            statistics = pipeline.run(xmlFiles, vehicle -> {
+                ImportStatistics.Outcome outcome = applyVehicle(vehicle.getDealerId(), vehicle, null);
+                if (outcome == ImportStatistics.Outcome.IMPORTED) {
+                    imported.add(vehicle);
+                }
+                return outcome;
+            }, this::dealershipFor, progress);
+        } catch (RuntimeException e) {
+            // A cancelled or failed import leaves no vehicle behind that the journal does not know about
+            discardVehicles(imported);
+            throw e;
         }
 
-        return successCount;
+        // Record the imported vehicles; a large import is cheaper to write as one snapshot
+        InventoryJournal journal = journals.get(inventoryFile.getAbsolutePath());
+        if (imported.isEmpty()) {
+            return statistics;
+        } else if (journal == null || pendingSnapshots.contains(inventoryFile.getAbsolutePath())
+                || journal.getRecordCount() + imported.size() >= journalCompactionThreshold) {
+            writeSnapshot(inventoryFile);
+        } else {
+            for (Vehicle vehicle : imported) {
+                recordMutation(inventoryFile, addRecord(vehicle, getDealerName(vehicle.getDealerId())));
+            }
+            // A record that could not be journaled asked for a snapshot instead
+            if (pendingSnapshots.contains(inventoryFile.getAbsolutePath())) {
+                writeSnapshot(inventoryFile);
+            }
+        }
+        return statistics;
     }
 
     /**
@@ -292,16 +814,34 @@ public class DealershipManager {
      * @return true if transfer was successful, false otherwise
      */
     public boolean transferVehicle(String sourceDealerId, String targetDealerId, String vehicleId, File inventoryFile) {
-        Dealership sourceDealership = dealerships.get(sourceDealerId);
-        Dealership targetDealership = dealerships.get(targetDealerId);
+        Dealership sourceDealership = findDealership(sourceDealerId);
+        Dealership targetDealership = findDealership(targetDealerId);
 
         if (sourceDealership == null || targetDealership == null) return false;
-        if (!targetDealership.isAcquisitionEnabled()) return false;
 
-        boolean result = sourceDealership.transferVehicle(vehicleId, targetDealership);
-        if (result) {
-            saveState(inventoryFile);
+        // Lock both dealerships in a fixed order so opposite transfers cannot deadlock
+        boolean result;
+        snapshotLock.readLock().lock();
+        Dealership.lockBoth(sourceDealership, targetDealership);
+        try {
+            if (!targetDealership.isAcquisitionEnabled()) return false;
+
+            result = sourceDealership.transferVehicle(vehicleId, targetDealership);
+            if (result) {
+                vehicleIndex.put(vehicleId, targetDealership);
+                searchIndex.updateDealer(vehicleId, targetDealerId);
+                Vehicle transferred = targetDealership.findVehicleById(vehicleId);
+                statistics.vehicleTransferred(transferred, sourceDealerId, targetDealerId);
+                events.publish(FleetEvent.vehicleTransferred(transferred, sourceDealerId, targetDealerId));
+                Map<String, Object> record = vehicleRecord("transfer", sourceDealerId, vehicleId);
+                record.put("target_dealership_id", targetDealerId);
+                recordMutation(inventoryFile, record);
+            }
+        } finally {
+            Dealership.unlockBoth(sourceDealership, targetDealership);
+            snapshotLock.readLock().unlock();
         }
+        finishMutation(inventoryFile);
         return result;
     }
 
@@ -316,17 +856,28 @@ public class DealershipManager {
      */
     public boolean rentVehicle(String dealerId, String vehicleId, String startDateStr, String endDateStr, File inventoryFile) {
         try {
-            Dealership dealership = dealerships.get(dealerId);
+            Dealership dealership = findDealership(dealerId);
             if (dealership == null) return false;
 
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
-            Date startDate = dateFormat.parse(startDateStr);
-            Date endDate = dateFormat.parse(endDateStr);
+            long startTime = dateParser.parse(startDateStr);
+            long endTime = dateParser.parse(endDateStr);
 
-            boolean result = dealership.rentVehicle(vehicleId, startDate, endDate);
-            if (result) {
-                saveState(inventoryFile);
+            boolean result;
+            snapshotLock.readLock().lock();
+            dealership.lock();
+            try {
+                result = rentAndIndex(dealership, vehicleId, startTime, endTime);
+                if (result) {
+                    Map<String, Object> record = vehicleRecord("rent", dealerId, vehicleId);
+                    record.put("rental_start_date", startTime);
+                    record.put("rental_end_date", endTime);
+                    recordMutation(inventoryFile, record);
+                }
+            } finally {
+                dealership.unlock();
+                snapshotLock.readLock().unlock();
             }
+            finishMutation(inventoryFile);
             return result;
         } catch (Exception e) {
             e.printStackTrace();
@@ -342,16 +893,275 @@ public class DealershipManager {
      * @return true if successful, false otherwise
      */
     public boolean returnVehicle(String dealerId, String vehicleId, File inventoryFile) {
-        Dealership dealership = dealerships.get(dealerId);
+        Dealership dealership = findDealership(dealerId);
         if (dealership == null) return false;
 
-        boolean result = dealership.returnVehicle(vehicleId);
-        if (result) {
-            saveState(inventoryFile);
+        boolean result;
+        snapshotLock.readLock().lock();
+        dealership.lock();
+        try {
+            result = returnAndUnindex(dealership, vehicleId);
+            if (result) {
+                recordMutation(inventoryFile, vehicleRecord("return", dealerId, vehicleId));
+            }
+        } finally {
+            dealership.unlock();
+            snapshotLock.readLock().unlock();
         }
+        finishMutation(inventoryFile);
         return result;
     }
 
+    /**
+     * Books a vehicle for a future period without renting it yet
+     * @param dealerId The dealer ID
+     * @param vehicleId The vehicle ID
+     * @param startDateStr The reservation start date string (MM/dd/yyyy)
+     * @param endDateStr The reservation end date string (MM/dd/yyyy)
+     * @param inventoryFile The inventory file to update
+     * @return true if successful, false if the vehicle is missing, not rentable or already booked
+     */
+    public boolean reserveVehicle(String dealerId, String vehicleId, String startDateStr, String endDateStr, File inventoryFile) {
+        try {
+            Dealership dealership = findDealership(dealerId);
+            if (dealership == null) return false;
+
+            long startTime = dateParser.parse(startDateStr);
+            long endTime = dateParser.parse(endDateStr);
+
+            boolean result;
+            snapshotLock.readLock().lock();
+            dealership.lock();
+            try {
+                result = reserveAndIndex(dealership, vehicleId, startTime, endTime);
+                if (result) {
+                    Map<String, Object> record = vehicleRecord("reserve", dealerId, vehicleId);
+                    record.put("rental_start_date", startTime);
+                    record.put("rental_end_date", endTime);
+                    recordMutation(inventoryFile, record);
+                }
+            } finally {
+                dealership.unlock();
+                snapshotLock.readLock().unlock();
+            }
+            finishMutation(inventoryFile);
+            return result;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Finds the vehicles whose field contains the query, ignoring case.
+     * Served from the search index, so the cost follows the number of matches rather than the fleet size.
+     * @param field The field to match, or ALL for any field
+     * @param query The text to look for
+     * @return The matching vehicles
+     */
+    public List<Vehicle> searchVehicles(VehicleSearchIndex.Field field, String query) {
+        return searchIndex.search(field, query);
+    }
+
+    /**
+     * Runs a typed query over the whole fleet, e.g. SUVs at one dealer in a price range, sorted and paged
+     * @param query The query to run
+     * @return The matching vehicles
+     */
+    public List<Vehicle> query(VehicleQuery query) {
+        return searchIndex.query(query);
+    }
+
+    /**
+     * Aggregates the prices of the vehicles matching a query, e.g. the average price of available SUVs.
+     * Runs as a scan over primitive columns; sorting and paging of the query are ignored.
+     * @param query The predicates
+     * @return The count, rentals and price totals of the matching vehicles
+     */
+    public FleetColumns.Summary summarize(VehicleQuery query) {
+        return columns.summarize(query);
+    }
+
+    /**
+     * Aggregates the prices of the vehicles matching a query, per manufacturer, model, dealer or type
+     * @param groupBy The column to group by
+     * @param query The predicates
+     * @return Column value mapped to the totals of its matching vehicles
+     */
+    public Map<String, FleetColumns.Summary> summarizeBy(FleetColumns.GroupBy groupBy, VehicleQuery query) {
+        return columns.summarizeBy(groupBy, query);
+    }
+
+    /**
+     * Registers a listener for changes to the fleet.
+     * Changes are queued per listener and delivered in coalesced batches on its executor, so a view
+     * can apply deltas instead of rescanning the fleet. A listener whose executor runs tasks right away
+     * is called while the changed dealership is still locked, and must not change the fleet itself.
+     * @param listener The listener
+     * @param executor Where batches are delivered, e.g. Platform::runLater for a JavaFX view
+     */
+    public void addFleetListener(FleetListener listener, Executor executor) {
+        events.addListener(listener, executor);
+    }
+
+    /**
+     * Unregisters a fleet listener
+     * @param listener The listener
+     */
+    public void removeFleetListener(FleetListener listener) {
+        events.removeListener(listener);
+    }
+
+    /**
+     * Gets the dashboard statistics of the whole fleet.
+     * The totals are kept up to date on every change, so this does not walk the vehicles.
+     * @return A snapshot of the fleet statistics
+     */
+    public FleetStatistics.Snapshot getStatistics() {
+        return statistics.snapshot();
+    }
+
+    /**
+     * Finds the rentable vehicles with no booking during a period
+     * @param dealerId The dealer ID, or null to search every dealership
+     * @param startDate The first day of the period
+     * @param endDate The last day of the period
+     * @return The vehicles that are free for the whole period
+     */
+    public List<Vehicle> findAvailableVehicles(String dealerId, Date startDate, Date endDate) {
+        return findAvailableVehicles(dealerId, startDate.getTime(), endDate.getTime());
+    }
+
+    /**
+     * Finds the rentable vehicles with no booking during a period
+     * @param dealerId The dealer ID, or null to search every dealership
+     * @param startTime The start of the first day of the period, in epoch millis
+     * @param endTime The start of the last day of the period, in epoch millis
+     * @return The vehicles that are free for the whole period
+     */
+    public List<Vehicle> findAvailableVehicles(String dealerId, long startTime, long endTime) {
+        // One interval-tree query finds every booked vehicle, instead of checking each calendar;
+        // the answer is the rest of each dealership's rentable vehicles
+        Set<String> booked = rentalIndex.findBooked(startTime, endTime);
+        List<Vehicle> available = new ArrayList<>();
+        if (dealerId != null) {
+            Dealership dealership = findDealership(dealerId);
+            if (dealership != null) {
+                dealership.collectAvailableVehicles(booked, available);
+            }
+        } else {
+            for (Dealership dealership : dealerships.values()) {
+                dealership.collectAvailableVehicles(booked, available);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Rents a vehicle and indexes its booking
+     */
+    private boolean rentAndIndex(Dealership dealership, String vehicleId, long startTime, long endTime) {
+        if (!dealership.rentVehicle(vehicleId, startTime, endTime)) return false;
+        rentalIndex.add(startTime, endTime, vehicleId);
+        statistics.rentalChanged(true);
+        events.publish(FleetEvent.vehicleRented(dealership.findVehicleById(vehicleId), dealership.getDealerId()));
+        return true;
+    }
+
+    /**
+     * Reserves a vehicle and indexes the booking
+     */
+    private boolean reserveAndIndex(Dealership dealership, String vehicleId, long startTime, long endTime) {
+        if (!dealership.reserveVehicle(vehicleId, startTime, endTime)) return false;
+        rentalIndex.add(startTime, endTime, vehicleId);
+        return true;
+    }
+
+    /**
+     * Returns a vehicle and drops the booking of the finished rental from the index
+     */
+    private boolean returnAndUnindex(Dealership dealership, String vehicleId) {
+        Vehicle vehicle = dealership.findVehicleById(vehicleId);
+        if (vehicle == null) return false;
+
+        long startTime = vehicle.getRentalStartTime();
+        if (!dealership.returnVehicle(vehicleId)) return false;
+        if (startTime != Vehicle.NO_TIME) {
+            rentalIndex.remove(startTime, vehicleId);
+        }
+        statistics.rentalChanged(false);
+        events.publish(FleetEvent.vehicleReturned(vehicle, dealership.getDealerId()));
+        return true;
+    }
+
+    /**
+     * Indexes the bookings a vehicle brought with it, e.g. from a snapshot
+     */
+    private void indexBookings(Vehicle vehicle) {
+        if (vehicle.getRentalCalendar().size() == 0) return;
+        for (Map.Entry<Long, Long> booking : vehicle.getRentalCalendar().getBookings().entrySet()) {
+            rentalIndex.add(booking.getKey(), booking.getValue(), vehicle.getVehicleId());
+        }
+    }
+
+    /**
+     * Drops every booking of a vehicle that left the fleet from the index
+     */
+    private void unindexBookings(Vehicle vehicle) {
+        for (Long start : vehicle.getRentalCalendar().getBookings().keySet()) {
+            rentalIndex.remove(start, vehicle.getVehicleId());
+        }
+    }
+
+    /**
+     * Finds a vehicle anywhere in the fleet by its ID
+     * @param vehicleId The vehicle ID
+     * @return The vehicle, or null if no dealership holds it
+     */
+    public Vehicle findVehicle(String vehicleId) {
+        Dealership dealership = vehicleId != null ? vehicleIndex.get(vehicleId) : null;
+        return dealership != null ? dealership.findVehicleById(vehicleId) : null;
+    }
+
+    /**
+     * Finds the ID of the dealership currently holding a vehicle
+     * @param vehicleId The vehicle ID
+     * @return The dealer ID, or null if no dealership holds the vehicle
+     */
+    public String findDealerIdForVehicle(String vehicleId) {
+        Dealership dealership = vehicleId != null ? vehicleIndex.get(vehicleId) : null;
+        return dealership != null ? dealership.getDealerId() : null;
+    }
+
+    /**
+     * Gets the vehicles of a single dealership
+     * @param dealerId The dealer ID
+     * @return A list of the dealership's vehicles, empty if the dealership does not exist
+     */
+    public List<Vehicle> getVehiclesForDealer(String dealerId) {
+        Dealership dealership = findDealership(dealerId);
+        return dealership != null ? dealership.getVehicles() : new ArrayList<>();
+    }
+
+    /**
+     * Gets the name of a dealership
+     * @param dealerId The dealer ID
+     * @return The dealership name, or null if the dealership does not exist or has no name
+     */
+    public String getDealerName(String dealerId) {
+        Dealership dealership = findDealership(dealerId);
+        return dealership != null ? dealership.getName() : null;
+    }
+
+    /**
+     * Looks up a dealership, treating a missing id as an unknown dealership
+     * @param dealerId The dealer ID, may be null
+     * @return The dealership, or null if it does not exist
+     */
+    private Dealership findDealership(String dealerId) {
+        return dealerId != null ? dealerships.get(dealerId) : null;
+    }
+
     /**
      * Gets a list of all vehicles for all the dealerships
      * @return A list containing all vehicles in all the dealerships
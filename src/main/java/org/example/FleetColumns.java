@@ -0,0 +1,331 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The FleetColumns class owns the scanned fields of every stored vehicle in primitive columns.
+ * Each vehicle holds one slot: its price, acquisition time and dictionary codes for manufacturer,
+ * model and dealer and its VehicleType code sit at that index of parallel arrays, and its rental status is a bit.
+ * A stored Vehicle keeps none of these fields itself; its getters and setters read and write its slot,
+ * so every change reaches the columns without a separate update. Removing a vehicle hands it back its own fields.
+ * An aggregate over the fleet walks a few arrays front to back instead of chasing a pointer per vehicle.
+ * String columns hold codes of the shared StringDictionary, so predicates on them compare ints.
+ */
+public class FleetColumns {
+    private static final int INITIAL_CAPACITY = 1024;       // Slots allocated up front
+
+    /**
+     * The dictionary-encoded columns aggregates can be grouped by
+     */
+    public enum GroupBy {
+        MANUFACTURER,
+        MODEL,
+        DEALER,
+        TYPE
+    }
+
+    // Columns are replaced when they grow; volatile so a vehicle read outside the lock sees the current array
+    private volatile double[] prices = new double[INITIAL_CAPACITY];        // Slot -> price
+    private volatile long[] acquiredAt = new long[INITIAL_CAPACITY];        // Slot -> acquisition millis, or Vehicle.NO_TIME
+    private volatile int[] manufacturers = new int[INITIAL_CAPACITY];       // Slot -> manufacturer code
+    private volatile int[] models = new int[INITIAL_CAPACITY];              // Slot -> model code
+    private volatile int[] dealers = new int[INITIAL_CAPACITY];             // Slot -> dealer code
+    private int[] types = new int[INITIAL_CAPACITY];                        // Slot -> VehicleType code
+    private Vehicle.RentalState[] rentals = new Vehicle.RentalState[INITIAL_CAPACITY]; // Slot -> rental state
+    private final BitSet rented = new BitSet();                             // Slots of rented vehicles
+    private final BitSet live = new BitSet();                               // Slots that hold a vehicle
+    private int[] freeSlots = new int[16];                                  // Slots released by removals
+    private int freeCount;                                                  // Entries in use in freeSlots
+    private int highWater;                                                  // Slots ever handed out
+    private int size;                                                       // Vehicles stored
+
+    private final StringDictionary dictionary = StringDictionary.shared(); // Codes of the string columns
+    private final Vehicle.Store view = new ColumnView();                   // What stored vehicles read through
+
+    /**
+     * Stores a vehicle, moving its scanned fields into a slot. A vehicle stored elsewhere is removed there first.
+     * @param vehicle The vehicle
+     */
+    public void add(Vehicle vehicle) {
+        Vehicle.Store current = vehicle.getStore();
+        if (current == view) return;
+        if (current instanceof ColumnView) {
+            ((ColumnView) current).owner().remove(vehicle);
+        }
+
+        synchronized (this) {
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+            prices[slot] = vehicle.getPrice();
+            acquiredAt[slot] = vehicle.getAcquisitionTime();
+            manufacturers[slot] = dictionary.code(vehicle.getManufacturer());
+            models[slot] = dictionary.code(vehicle.getModel());
+            dealers[slot] = dealerCode(vehicle.getDealerId());
+            types[slot] = vehicle.getType().getCode();
+            rentals[slot] = vehicle.getRentalState();
+            rented.set(slot, rentals[slot].isRented());
+            live.set(slot);
+            size++;
+            vehicle.moveTo(view, slot);
+        }
+    }
+
+    /**
+     * Drops a vehicle, handing it back its own copy of its fields, and frees its slot for the next one
+     * @param vehicle The vehicle
+     */
+    public synchronized void remove(Vehicle vehicle) {
+        if (vehicle.getStore() != view) return;
+
+        int slot = vehicle.getSlot();
+        vehicle.moveTo(new Vehicle.Fields(dictionary.value(manufacturers[slot]), dictionary.value(models[slot]),
+                acquiredAt[slot], prices[slot], dictionary.value(dealers[slot]), rentals[slot]), 0);
+        rentals[slot] = null;
+        rented.clear(slot);
+        live.clear(slot);
+        size--;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Aggregates the prices of the vehicles matching a query's predicates; sorting and paging are ignored
+     * @param query The predicates
+     * @return The count, rentals and price totals of the matching vehicles
+     */
+    public synchronized Summary summarize(VehicleQuery query) {
+        Summary summary = new Summary();
+        Predicate predicate = new Predicate(query);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (predicate.test(slot)) {
+                summary.add(prices[slot], rented.get(slot));
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Aggregates the prices of the vehicles matching a query's predicates, per value of a column
+     * @param groupBy The column to group by
+     * @param query The predicates
+     * @return Column value mapped to the totals of its matching vehicles; values without matches are left out
+     */
+    public synchronized Map<String, Summary> summarizeBy(GroupBy groupBy, VehicleQuery query) {
+        int[] column;
+        switch (groupBy) {
+            case MANUFACTURER: column = manufacturers; break;
+            case MODEL: column = models; break;
+            case TYPE: column = types; break;
+            case DEALER:
+            default: column = dealers;
+        }
+
+        // Codes are dense, so the groups are an array indexed by code
+        Summary[] groups = new Summary[groupBy == GroupBy.TYPE ? VehicleType.count() : dictionary.size()];
+        Predicate predicate = new Predicate(query);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (predicate.test(slot)) {
+                int code = column[slot];
+                if (groups[code] == null) {
+                    groups[code] = new Summary();
+                }
+                groups[code].add(prices[slot], rented.get(slot));
+            }
+        }
+
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        for (int code = 0; code < groups.length; code++) {
+            if (groups[code] != null) {
+                String name = groupBy == GroupBy.TYPE
+                        ? VehicleType.fromCode(code).getDisplayName() : dictionary.value(code);
+                summaries.put(name, groups[code]);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Gets the number of stored vehicles
+     * @return The vehicle count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the code of a dealer id, making sure its lower-cased form has a code for case-insensitive filters
+     */
+    private int dealerCode(String dealerId) {
+        int code = dictionary.code(dealerId);
+        dictionary.foldedCode(code);
+        return code;
+    }
+
+    /**
+     * Hands out a new slot, growing the columns when they are full
+     */
+    private int nextSlot() {
+        if (highWater == prices.length) {
+            int capacity = prices.length * 2;
+            prices = Arrays.copyOf(prices, capacity);
+            acquiredAt = Arrays.copyOf(acquiredAt, capacity);
+            manufacturers = Arrays.copyOf(manufacturers, capacity);
+            models = Arrays.copyOf(models, capacity);
+            dealers = Arrays.copyOf(dealers, capacity);
+            types = Arrays.copyOf(types, capacity);
+            rentals = Arrays.copyOf(rentals, capacity);
+        }
+        return highWater++;
+    }
+
+    /**
+     * The slots of this store as seen by the vehicles that hold them. Reads of a single field take no lock;
+     * writes, and the rental state that must change atomically with the rented bit, lock the columns.
+     */
+    private final class ColumnView implements Vehicle.Store {
+        FleetColumns owner() { return FleetColumns.this; }
+
+        public String manufacturer(int slot) { return dictionary.value(manufacturers[slot]); }
+        public String model(int slot) { return dictionary.value(models[slot]); }
+        public long acquisitionTime(int slot) { return acquiredAt[slot]; }
+        public double price(int slot) { return prices[slot]; }
+        public String dealerId(int slot) { return dictionary.value(dealers[slot]); }
+
+        public void setManufacturer(int slot, String manufacturer) {
+            int code = dictionary.code(manufacturer);
+            synchronized (FleetColumns.this) {
+                manufacturers[slot] = code;
+            }
+        }
+
+        public void setModel(int slot, String model) {
+            int code = dictionary.code(model);
+            synchronized (FleetColumns.this) {
+                models[slot] = code;
+            }
+        }
+
+        public void setAcquisitionTime(int slot, long acquisitionTime) {
+            synchronized (FleetColumns.this) {
+                acquiredAt[slot] = acquisitionTime;
+            }
+        }
+
+        public void setPrice(int slot, double price) {
+            synchronized (FleetColumns.this) {
+                prices[slot] = price;
+            }
+        }
+
+        public void setDealerId(int slot, String dealerId) {
+            int code = dealerCode(dealerId);
+            synchronized (FleetColumns.this) {
+                dealers[slot] = code;
+            }
+        }
+
+        public Vehicle.RentalState rentalState(int slot) {
+            synchronized (FleetColumns.this) {
+                return rentals[slot];
+            }
+        }
+
+        public boolean compareAndSetRentalState(int slot, Vehicle.RentalState expected, Vehicle.RentalState update) {
+            synchronized (FleetColumns.this) {
+                if (rentals[slot] != expected) return false;
+                rentals[slot] = update;
+                rented.set(slot, update.isRented());
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A query's predicates resolved against the columns. String predicates compare dictionary codes;
+     * whether a dealer code matches ignoring case is worked out once per code and remembered.
+     */
+    private final class Predicate {
+        final int type;             // Required type code, -1 for any
+        final int dealer;           // Required folded dealer code, -1 for any
+        final byte[] dealerMatch;   // Dealer code -> 0 not yet known, 1 matches, 2 does not
+        final boolean priceRange;   // Whether prices are checked
+        final double minPrice;
+        final double maxPrice;
+        final boolean dateRange;    // Whether acquisition times are checked
+        final long acquiredFrom;
+        final long acquiredTo;
+        final int rentedFilter;     // 1 rented only, 0 available only, -1 either
+        final boolean none;         // Whether nothing can match
+
+        Predicate(VehicleQuery query) {
+            boolean impossible = false;
+            type = query.getType() != null ? query.getType().getCode() : -1;
+            if (query.getDealerId() != null) {
+                // Dealer filters ignore case, like the search index; every stored dealer's folded form has a code
+                dealer = dictionary.find(query.getDealerId().toLowerCase(Locale.ROOT));
+                dealerMatch = new byte[dictionary.size()];
+                impossible |= dealer < 0;
+            } else {
+                dealer = -1;
+                dealerMatch = null;
+            }
+            priceRange = query.hasPriceRange();
+            minPrice = query.getMinPrice();
+            maxPrice = query.getMaxPrice();
+            dateRange = query.hasAcquisitionRange();
+            acquiredFrom = query.getAcquiredFrom();
+            acquiredTo = query.getAcquiredTo();
+            Boolean rentedStatus = query.getRented();
+            rentedFilter = rentedStatus == null ? -1 : rentedStatus ? 1 : 0;
+            none = impossible;
+        }
+
+        boolean test(int slot) {
+            if (none) return false;
+            if (type >= 0 && types[slot] != type) return false;
+            if (dealerMatch != null && !dealerMatches(dealers[slot])) return false;
+            if (priceRange && (prices[slot] < minPrice || prices[slot] > maxPrice)) return false;
+            if (dateRange && (acquiredAt[slot] == Vehicle.NO_TIME
+                    || acquiredAt[slot] < acquiredFrom || acquiredAt[slot] > acquiredTo)) return false;
+            return rentedFilter < 0 || rented.get(slot) == (rentedFilter == 1);
+        }
+
+        private boolean dealerMatches(int code) {
+            if (dealerMatch[code] == 0) {
+                dealerMatch[code] = (byte) (dictionary.foldedCode(code) == dealer ? 1 : 2);
+            }
+            return dealerMatch[code] == 1;
+        }
+    }
+
+    /**
+     * Totals over a set of vehicles
+     */
+    public static final class Summary {
+        private long count;                                 // Vehicles counted
+        private long rentedCount;                           // Of those, rented
+        private double totalPrice;                          // Sum of their prices
+        private double minPrice = Double.POSITIVE_INFINITY; // Lowest price
+        private double maxPrice = Double.NEGATIVE_INFINITY; // Highest price
+
+        void add(double price, boolean isRented) {
+            count++;
+            if (isRented) rentedCount++;
+            totalPrice += price;
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+        }
+
+        public long getCount() { return count; }
+        public long getRentedCount() { return rentedCount; }
+        public double getTotalPrice() { return totalPrice; }
+        public double getMinPrice() { return count > 0 ? minPrice : 0; }
+        public double getMaxPrice() { return count > 0 ? maxPrice : 0; }
+        public double getAveragePrice() { return count > 0 ? totalPrice / count : 0; }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+/**
+ * The FleetEvent class describes one change to the fleet, delivered to a FleetListener.
+ * The vehicle is the live vehicle, so by the time a listener sees the event it may have changed again;
+ * a later event in the same or a following batch reports that change.
+ */
+public class FleetEvent {
+
+    /**
+     * The kinds of change a listener can be told about
+     */
+    public enum Type {
+        VEHICLE_ADDED,          // A vehicle joined a dealership
+        VEHICLE_REMOVED,        // A vehicle left the fleet
+        VEHICLE_TRANSFERRED,    // A vehicle moved from one dealership to another
+        VEHICLE_RENTED,         // A vehicle was rented
+        VEHICLE_RETURNED,       // A rented vehicle was returned
+        DEALER_CREATED          // A dealership was created
+    }
+
+    private final Type type;                // What changed
+    private final Vehicle vehicle;          // The vehicle that changed, or null for dealer events
+    private final String dealerId;          // The dealer holding the vehicle now, or the dealer it left when removed
+    private final String previousDealerId;  // The dealer a transferred vehicle came from, otherwise null
+
+    private FleetEvent(Type type, Vehicle vehicle, String dealerId, String previousDealerId) {
+        this.type = type;
+        this.vehicle = vehicle;
+        this.dealerId = dealerId;
+        this.previousDealerId = previousDealerId;
+    }
+
+    public static FleetEvent vehicleAdded(Vehicle vehicle, String dealerId) {
+        return new FleetEvent(Type.VEHICLE_ADDED, vehicle, dealerId, null);
+    }
+
+    public static FleetEvent vehicleRemoved(Vehicle vehicle, String dealerId) {
+        return new FleetEvent(Type.VEHICLE_REMOVED, vehicle, dealerId, null);
+    }
+
+    public static FleetEvent vehicleTransferred(Vehicle vehicle, String sourceDealerId, String targetDealerId) {
+        return new FleetEvent(Type.VEHICLE_TRANSFERRED, vehicle, targetDealerId, sourceDealerId);
+    }
+
+    public static FleetEvent vehicleRented(Vehicle vehicle, String dealerId) {
+        return new FleetEvent(Type.VEHICLE_RENTED, vehicle, dealerId, null);
+    }
+
+    public static FleetEvent vehicleReturned(Vehicle vehicle, String dealerId) {
+        return new FleetEvent(Type.VEHICLE_RETURNED, vehicle, dealerId, null);
+    }
+
+    public static FleetEvent dealerCreated(String dealerId) {
+        return new FleetEvent(Type.DEALER_CREATED, null, dealerId, null);
+    }
+
+    public Type getType() { return type; }
+    public Vehicle getVehicle() { return vehicle; }
+    public String getVehicleId() { return vehicle != null ? vehicle.getVehicleId() : null; }
+    public String getDealerId() { return dealerId; }
+    public String getPreviousDealerId() { return previousDealerId; }
+
+    @Override
+    public String toString() {
+        return type + (vehicle != null ? " " + vehicle.getVehicleId() : "") + " at " + dealerId +
+                (previousDealerId != null ? " from " + previousDealerId : "");
+    }
+}
@@ -0,0 +1,151 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * The FleetEventDispatcher class hands fleet changes to listeners in coalesced batches.
+ * Each listener has its own executor and pending batch. Publishing only merges the event into the
+ * pending batches and schedules one delivery per listener, so it is cheap enough to call while a
+ * dealership is locked. Every event published before the delivery runs ends up in the same batch.
+ */
+class FleetEventDispatcher {
+
+    /**
+     * One listener, its executor, and the events it has not been given yet
+     */
+    private static final class Registration {
+        final FleetListener listener;                               // The listener
+        final Executor executor;                                    // Where its batches are delivered
+        private List<FleetEvent> pending = new ArrayList<>();       // Undelivered events; null slots were coalesced away
+        private Map<String, Integer> latest = new HashMap<>();      // Vehicle id -> slot of its latest pending event
+        private boolean scheduled;                                  // Whether a delivery is already queued
+
+        Registration(FleetListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        /**
+         * Merges an event into the pending batch and schedules a delivery if none is queued
+         */
+        void publish(FleetEvent event) {
+            synchronized (this) {
+                coalesce(event);
+                if (scheduled) return;
+                scheduled = true;
+            }
+            executor.execute(this::deliver);
+        }
+
+        /**
+         * Hands the pending batch to the listener
+         */
+        private void deliver() {
+            List<FleetEvent> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+                latest = new HashMap<>();
+                scheduled = false;
+            }
+            batch.removeIf(event -> event == null);
+            if (!batch.isEmpty()) {
+                listener.fleetChanged(batch);
+            }
+        }
+
+        /**
+         * Folds an event into the latest pending event of the same vehicle when the net effect allows it
+         */
+        private void coalesce(FleetEvent event) {
+            String vehicleId = event.getVehicleId();
+            Integer slot = vehicleId != null ? latest.get(vehicleId) : null;
+            FleetEvent previous = slot != null ? pending.get(slot) : null;
+
+            if (previous != null) {
+                FleetEvent.Type type = event.getType();
+                switch (previous.getType()) {
+                    case VEHICLE_ADDED:
+                        // The listener has not seen the vehicle yet, so only where it ends up matters
+                        if (type == FleetEvent.Type.VEHICLE_REMOVED) {
+                            drop(slot, vehicleId);
+                        } else if (type == FleetEvent.Type.VEHICLE_TRANSFERRED) {
+                            pending.set(slot, FleetEvent.vehicleAdded(event.getVehicle(), event.getDealerId()));
+                        }
+                        return;
+                    case VEHICLE_RENTED:
+                    case VEHICLE_RETURNED:
+                        // A rental and its return, or the other way round, leave the status where it was
+                        if ((type == FleetEvent.Type.VEHICLE_RENTED || type == FleetEvent.Type.VEHICLE_RETURNED)
+                                && type != previous.getType()) {
+                            drop(slot, vehicleId);
+                            return;
+                        }
+                        break;
+                    case VEHICLE_TRANSFERRED:
+                        // A chain of transfers is one move from the first dealer to the last
+                        if (type == FleetEvent.Type.VEHICLE_TRANSFERRED) {
+                            if (previous.getPreviousDealerId().equals(event.getDealerId())) {
+                                drop(slot, vehicleId);
+                            } else {
+                                pending.set(slot, FleetEvent.vehicleTransferred(event.getVehicle(),
+                                        previous.getPreviousDealerId(), event.getDealerId()));
+                            }
+                            return;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            pending.add(event);
+            if (vehicleId != null) {
+                latest.put(vehicleId, pending.size() - 1);
+            }
+        }
+
+        /**
+         * Leaves a pending event out of the batch; older events of the vehicle are no longer merged into
+         */
+        private void drop(int slot, String vehicleId) {
+            pending.set(slot, null);
+            latest.remove(vehicleId);
+        }
+    }
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>(); // Registered listeners
+
+    /**
+     * Registers a listener
+     * @param listener The listener
+     * @param executor Where its batches are delivered, e.g. Platform::runLater; Runnable::run delivers
+     *                 each event right away on the thread that made the change
+     */
+    void addListener(FleetListener listener, Executor executor) {
+        registrations.add(new Registration(listener, executor));
+    }
+
+    /**
+     * Unregisters a listener; events already scheduled for it may still be delivered
+     * @param listener The listener
+     */
+    void removeListener(FleetListener listener) {
+        registrations.removeIf(registration -> registration.listener == listener);
+    }
+
+    /**
+     * Publishes a change to every listener
+     * @param event The change
+     */
+    void publish(FleetEvent event) {
+        for (Registration registration : registrations) {
+            registration.publish(event);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * The FleetListener interface is told about changes to the fleet in batches.
+ * Changes that happen before a batch is delivered are coalesced where the net effect allows it,
+ * e.g. a vehicle added and removed again is left out, and a rental followed by its return cancels out.
+ */
+@FunctionalInterface
+public interface FleetListener {
+
+    /**
+     * Called with the changes since the previous batch, in the order they were made
+     * @param events The changes, never empty
+     */
+    void fleetChanged(List<FleetEvent> events);
+}
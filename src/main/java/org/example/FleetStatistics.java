@@ -0,0 +1,147 @@
+package org.example;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The FleetStatistics class keeps the dashboard's running totals for the whole fleet.
+ * Every change to the fleet adjusts a few counters, so reading the statistics never walks the vehicles.
+ */
+public class FleetStatistics {
+
+    /**
+     * The running totals of one dealership
+     */
+    private static final class DealerTotals {
+        long vehicles;      // Vehicles held by the dealership
+        double totalPrice;  // Sum of their prices
+    }
+
+    private final long[] byType = new long[VehicleType.count()];            // VehicleType code -> vehicle count
+    private final Map<String, DealerTotals> byDealer = new HashMap<>();     // Dealer id -> running totals
+    private long totalVehicles;                                             // Vehicles in the fleet
+    private long rentedVehicles;                                            // Vehicles currently rented
+
+    /**
+     * Counts a vehicle that joined the fleet
+     * @param vehicle The added vehicle
+     * @param dealerId The dealer that holds it
+     */
+    public synchronized void vehicleAdded(Vehicle vehicle, String dealerId) {
+        totalVehicles++;
+        if (vehicle.isRented()) {
+            rentedVehicles++;
+        }
+        byType[vehicle.getType().getCode()]++;
+        addToDealer(dealerId, vehicle.getPrice());
+    }
+
+    /**
+     * Stops counting a vehicle that left the fleet
+     * @param vehicle The removed vehicle
+     * @param dealerId The dealer that held it
+     */
+    public synchronized void vehicleRemoved(Vehicle vehicle, String dealerId) {
+        totalVehicles--;
+        if (vehicle.isRented()) {
+            rentedVehicles--;
+        }
+        byType[vehicle.getType().getCode()]--;
+        removeFromDealer(dealerId, vehicle.getPrice());
+    }
+
+    /**
+     * Moves a vehicle's price and count from one dealer to another
+     * @param vehicle The transferred vehicle
+     * @param sourceDealerId The dealer that held it
+     * @param targetDealerId The dealer that holds it now
+     */
+    public synchronized void vehicleTransferred(Vehicle vehicle, String sourceDealerId, String targetDealerId) {
+        removeFromDealer(sourceDealerId, vehicle.getPrice());
+        addToDealer(targetDealerId, vehicle.getPrice());
+    }
+
+    /**
+     * Counts a vehicle that was rented or returned
+     * @param rented true if the vehicle was rented, false if it was returned
+     */
+    public synchronized void rentalChanged(boolean rented) {
+        rentedVehicles += rented ? 1 : -1;
+    }
+
+    /**
+     * Takes a consistent copy of the current totals
+     * @return The statistics at this moment
+     */
+    public synchronized Snapshot snapshot() {
+        Map<String, Long> vehiclesByType = new LinkedHashMap<>();
+        for (VehicleType type : VehicleType.values()) {
+            if (byType[type.getCode()] > 0) {
+                vehiclesByType.put(type.getDisplayName(), byType[type.getCode()]);
+            }
+        }
+        Map<String, Long> vehiclesByDealer = new LinkedHashMap<>();
+        Map<String, Double> totalPriceByDealer = new LinkedHashMap<>();
+        for (Map.Entry<String, DealerTotals> entry : byDealer.entrySet()) {
+            vehiclesByDealer.put(entry.getKey(), entry.getValue().vehicles);
+            totalPriceByDealer.put(entry.getKey(), entry.getValue().totalPrice);
+        }
+        return new Snapshot(totalVehicles, rentedVehicles, vehiclesByType,
+                vehiclesByDealer, totalPriceByDealer);
+    }
+
+    private void addToDealer(String dealerId, double price) {
+        DealerTotals totals = byDealer.computeIfAbsent(dealerId, id -> new DealerTotals());
+        totals.vehicles++;
+        totals.totalPrice += price;
+    }
+
+    private void removeFromDealer(String dealerId, double price) {
+        DealerTotals totals = byDealer.get(dealerId);
+        if (totals == null) return;
+        totals.vehicles--;
+        totals.totalPrice -= price;
+        if (totals.vehicles <= 0) {
+            byDealer.remove(dealerId);
+        }
+    }
+
+    /**
+     * An immutable copy of the fleet statistics at one moment
+     */
+    public static final class Snapshot {
+        private final long totalVehicles;                   // Vehicles in the fleet
+        private final long rentedVehicles;                  // Vehicles currently rented
+        private final Map<String, Long> vehiclesByType;     // Type display name -> vehicle count
+        private final Map<String, Long> vehiclesByDealer;   // Dealer id -> vehicle count
+        private final Map<String, Double> totalPriceByDealer; // Dealer id -> sum of prices
+
+        Snapshot(long totalVehicles, long rentedVehicles, Map<String, Long> vehiclesByType,
+                 Map<String, Long> vehiclesByDealer, Map<String, Double> totalPriceByDealer) {
+            this.totalVehicles = totalVehicles;
+            this.rentedVehicles = rentedVehicles;
+            this.vehiclesByType = Collections.unmodifiableMap(vehiclesByType);
+            this.vehiclesByDealer = Collections.unmodifiableMap(vehiclesByDealer);
+            this.totalPriceByDealer = Collections.unmodifiableMap(totalPriceByDealer);
+        }
+
+        public long getTotalVehicles() { return totalVehicles; }
+        public long getRentedVehicles() { return rentedVehicles; }
+        public long getAvailableVehicles() { return totalVehicles - rentedVehicles; }
+        public Map<String, Long> getVehiclesByType() { return vehiclesByType; }
+        public Map<String, Long> getVehiclesByDealer() { return vehiclesByDealer; }
+        public Map<String, Double> getTotalPriceByDealer() { return totalPriceByDealer; }
+
+        /**
+         * Gets the average vehicle price of a dealer
+         * @param dealerId The dealer ID
+         * @return The average price, or 0 if the dealer holds no vehicles
+         */
+        public double getAveragePrice(String dealerId) {
+            long vehicles = vehiclesByDealer.getOrDefault(dealerId, 0L);
+            return vehicles > 0 ? totalPriceByDealer.get(dealerId) / vehicles : 0;
+        }
+    }
+}
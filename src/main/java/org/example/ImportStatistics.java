@@ -0,0 +1,76 @@
+package org.example;
+
+/**
+ * The ImportStatistics class summarizes the result of importing one or more XML feeds.
+ */
+public class ImportStatistics {
+
+    /**
+     * What happened to a single vehicle during an import
+     */
+    public enum Outcome {
+        IMPORTED,               // Added to its dealership
+        DUPLICATE,              // Rejected because the vehicle id already exists in the fleet
+        ACQUISITION_DISABLED,   // Rejected because its dealership does not accept vehicles
+        MALFORMED               // Could not be parsed into a vehicle
+    }
+
+    private final long imported;            // Vehicles added to a dealership
+    private final long duplicates;          // Vehicles rejected as duplicate ids
+    private final long acquisitionDisabled; // Vehicles rejected because acquisition was disabled
+    private final long malformed;           // Vehicle elements or documents that could not be parsed
+
+    /**
+     * Constructor that initializes the statistics
+     * @param imported Vehicles added to a dealership
+     * @param duplicates Vehicles rejected as duplicate ids
+     * @param acquisitionDisabled Vehicles rejected because acquisition was disabled
+     * @param malformed Vehicle elements or documents that could not be parsed
+     */
+    public ImportStatistics(long imported, long duplicates, long acquisitionDisabled, long malformed) {
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.acquisitionDisabled = acquisitionDisabled;
+        this.malformed = malformed;
+    }
+
+    /**
+     * Gets the number of vehicles added to a dealership
+     * @return imported count
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Gets the number of vehicles rejected as duplicate ids
+     * @return duplicate count
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Gets the number of vehicles rejected because their dealership had acquisition disabled
+     * @return acquisition-disabled count
+     */
+    public long getAcquisitionDisabled() {
+        return acquisitionDisabled;
+    }
+
+    /**
+     * Gets the number of vehicle elements or documents that could not be parsed
+     * @return malformed count
+     */
+    public long getMalformed() {
+        return malformed;
+    }
+
+    @Override
+    public String toString() {
+        return "Imported: " + imported +
+                ", Duplicates: " + duplicates +
+                ", Acquisition disabled: " + acquisitionDisabled +
+                ", Malformed: " + malformed;
+    }
+}
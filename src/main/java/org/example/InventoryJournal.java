@@ -0,0 +1,193 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The InventoryJournal class is an append-only log of inventory mutations.
+ * Each mutation is written as one JSON record per line, so the cost of a write does not
+ * depend on the size of the fleet. The journal is replayed on top of the inventory snapshot
+ * at startup and truncated whenever the snapshot is rewritten.
+ */
+public class InventoryJournal {
+
+    /**
+     * Controls when appended records are forced to disk
+     */
+    public enum SyncPolicy {
+        NONE,           // Leave flushing to the operating system
+        EVERY_RECORD    // Force every record to disk before returning
+    }
+
+    private final File file;                                        // The journal file
+    private final SyncPolicy syncPolicy;                            // When to force records to disk
+    private final ObjectMapper objectMapper = new ObjectMapper();   // Writes records on a single line
+    private FileChannel channel;                                    // Open append channel, created lazily
+    private int recordCount;                                        // Records appended since the last truncate
+
+    /**
+     * Constructor that initializes a journal
+     * @param file The journal file
+     * @param syncPolicy When appended records are forced to disk
+     */
+    public InventoryJournal(File file, SyncPolicy syncPolicy) {
+        this.file = file;
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * Gets the journal file that belongs to an inventory snapshot file
+     * @param inventoryFile The inventory snapshot file
+     * @return The journal file next to it
+     */
+    public static File journalFileFor(File inventoryFile) {
+        return new File(inventoryFile.getPath() + ".journal");
+    }
+
+    /**
+     * Appends one mutation record to the journal
+     * @param record The record fields
+     * @return true if the record was written, false otherwise
+     */
+    public synchronized boolean append(Map<String, Object> record) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncPolicy == SyncPolicy.EVERY_RECORD) {
+                channel.force(false);
+            }
+            recordCount++;
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Replays every complete record in the journal, oldest first.
+     * A record is complete once its line ends. A torn record at the end of the file (from a crash
+     * mid-write) is cut off, so records appended later start on a fresh line. A complete line that
+     * will not parse is corrupt rather than torn; it is reported and skipped, and nothing after it is lost.
+     * @param consumer Receives each record
+     * @return The number of records replayed
+     */
+    public synchronized int replay(Consumer<JsonNode> consumer) {
+        if (!file.exists()) {
+            return 0;
+        }
+        int replayed = 0;
+        long validLength = 0;   // Bytes up to the end of the last complete record
+        boolean torn = false;   // Whether bytes after validLength must be cut off
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String text = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (!text.isBlank()) {
+                    JsonNode record = null;
+                    try {
+                        record = objectMapper.readTree(text);
+                    } catch (IOException e) {
+                        System.err.println("Skipping corrupt journal record ending at byte " + position
+                                + " of " + file + ": " + e.getMessage());
+                    }
+                    if (record != null) {
+                        consumer.accept(record);
+                        replayed++;
+                    }
+                }
+                validLength = position;
+            }
+            // A last line without its newline was never fully appended
+            torn = line.size() > 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (torn) {
+            cutOff(validLength);
+        }
+        recordCount = replayed;
+        return replayed;
+    }
+
+    /**
+     * Truncates the file to its complete records
+     */
+    private void cutOff(long length) {
+        try (FileChannel tail = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            tail.truncate(length);
+            tail.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Empties the journal after its records have been folded into the snapshot
+     */
+    public synchronized void truncate() {
+        try {
+            if (channel != null) {
+                channel.truncate(0);
+                if (syncPolicy == SyncPolicy.EVERY_RECORD) {
+                    channel.force(false);
+                }
+            } else if (file.exists()) {
+                Files.write(file.toPath(), new byte[0]);
+            }
+            recordCount = 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the number of records written since the journal was last truncated
+     * @return The record count
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Closes the journal file
+     */
+    public synchronized void close() {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+    }
+}
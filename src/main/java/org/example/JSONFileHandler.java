@@ -1,12 +1,24 @@
 package org.example; // Declares the package name
 
+import com.fasterxml.jackson.core.JsonGenerator; // Imports Jackson's streaming generator
+import com.fasterxml.jackson.core.JsonParser; // Imports Jackson's token-level streaming parser
+import com.fasterxml.jackson.core.JsonToken; // Imports the token types produced by the parser
 import com.fasterxml.jackson.databind.*; // Imports Jackson's ObjectMapper and related classes
 import java.io.File; // Imports File class for file operations
+import java.io.FileOutputStream; // Imports FileOutputStream for writing and syncing the temp file
 import java.io.IOException; // Imports IOException for handling IO exceptions
+import java.io.UncheckedIOException; // Imports UncheckedIOException for failures inside callbacks
+import java.nio.file.*; // Imports Files, Path and the copy options used for atomic replacement
 import java.util.*; // Imports utility classes like List, ArrayList, Map, HashMap, etc.
+import java.util.concurrent.CancellationException; // Imports CancellationException to tell a cancelled write from a failed one
+import java.util.function.BiConsumer; // Imports BiConsumer for streaming vehicles with their dealer names
+import java.util.function.Consumer; // Imports Consumer for streaming vehicles to callers
+import java.util.function.Function; // Imports Function for resolving dealer names while writing
+import java.util.stream.Stream; // Imports Stream for callers that produce vehicles lazily
 
 public class JSONFileHandler {
     private final ObjectMapper objectMapper; // Declares an ObjectMapper instance to handle JSON processing
+    private final StringDictionary strings = StringDictionary.shared(); // Shares repeated field values between vehicles
 
     public JSONFileHandler() {
         objectMapper = new ObjectMapper(); // Initializes the ObjectMapper instance
@@ -39,65 +51,346 @@ public class JSONFileHandler {
         }
     }
 
-    // Infers the type of vehicle based on the model name
+    // Builds a vehicle from a JSON record such as an inventory entry or a journal record
+    public Vehicle fromRecord(JsonNode node) {
+        return inferVehicleType(node); // Records share the inventory entry layout
+    }
+
+    // Converts a vehicle into a JSON record with the inventory entry layout
+    public Map<String, Object> toRecord(Vehicle vehicle) {
+        Map<String, Object> vehicleData = new LinkedHashMap<>(); // Initializes a map for vehicle properties
+        vehicleData.put("vehicle_id", vehicle.getVehicleId()); // Stores vehicle ID
+        vehicleData.put("vehicle_manufacturer", vehicle.getManufacturer()); // Stores manufacturer
+        vehicleData.put("vehicle_model", vehicle.getModel()); // Stores model name
+        vehicleData.put("acquisition_date", acquisitionTime(vehicle)); // Stores acquisition date as timestamp
+        vehicleData.put("price", vehicle.getPrice()); // Stores vehicle price
+        vehicleData.put("dealership_id", vehicle.getDealerId()); // Stores dealership ID
+        Vehicle.RentalState rental = vehicle.getRentalState(); // One state, so the flag and dates belong together
+        if (rental.isRented()) vehicleData.put("is_rented", true); // Stores the rented flag when set
+        if (rental.getStartTime() != Vehicle.NO_TIME) vehicleData.put("rental_start_date", rental.getStartTime()); // Stores the rental start
+        if (rental.getEndTime() != Vehicle.NO_TIME) vehicleData.put("rental_end_date", rental.getEndTime()); // Stores the rental end
+        if (vehicle.getRentalCalendar().size() > 0) { // Most vehicles have no bookings
+            Map<Long, Long> bookings = vehicle.getRentalCalendar().getBookings(); // Gets the bookings, sorted by start
+            List<Map<String, Long>> bookingData = new ArrayList<>(); // Holds one object per booking
+            bookings.forEach((start, end) -> bookingData.add(Map.of("start", start, "end", end))); // Stores each booking
+            vehicleData.put("bookings", bookingData); // Stores the bookings
+        }
+        return vehicleData; // Returns the record
+    }
+
+    // Gets the vehicle_type name used in JSON for a vehicle
+    public static String vehicleTypeName(Vehicle vehicle) {
+        return vehicle.getType().getKey(); // The registry holds the JSON name of every type
+    }
+
+    // Infers the type of vehicle from its vehicle_type field, falling back to the model name
     private Vehicle inferVehicleType(JsonNode node) {
         try {
-            String model = node.get("vehicle_model").asText().toLowerCase(); // Extracts and converts model name to lowercase
-            Vehicle vehicle; // Declares a Vehicle object
-
-            // Determines the vehicle type based on model name
-            if (model.contains("cr-v") || model.contains("explorer")) {
-                vehicle = new SUV(); // Assigns an SUV instance if model matches
-            } else if (model.contains("model 3")) {
-                vehicle = new Sedan(); // Assigns a Sedan instance if model matches
-            } else if (model.contains("silverado")) {
-                vehicle = new Pickup(); // Assigns a Pickup instance if model matches
-            } else if (model.contains("supra")) {
-                vehicle = new SportsCar(); // Assigns a SportsCar instance if model matches
-            } else {
-                vehicle = new SUV(); // Defaults to an SUV if model type is unknown
+            String type = node.has("vehicle_type") ? node.get("vehicle_type").asText() : null; // Extracts the explicit type if present
+            Vehicle vehicle = createVehicle(type, // Builds the vehicle from the node fields
+                    node.get("vehicle_id").asText(),
+                    node.get("vehicle_manufacturer").asText(),
+                    node.get("vehicle_model").asText(),
+                    node.get("price").asDouble(),
+                    node.get("dealership_id").asText(),
+                    node.get("acquisition_date").asLong());
+            List<long[]> bookings = new ArrayList<>(); // Collects the stored bookings
+            for (JsonNode booking : node.path("bookings")) {
+                bookings.add(new long[] {booking.get("start").asLong(), booking.get("end").asLong()}); // Reads one booking
             }
-
-            // Sets vehicle properties from the JSON node
-            vehicle.setVehicleId(node.get("vehicle_id").asText()); // Sets vehicle ID
-            vehicle.setManufacturer(node.get("vehicle_manufacturer").asText()); // Sets manufacturer name
-            vehicle.setModel(node.get("vehicle_model").asText()); // Sets vehicle model
-            vehicle.setPrice(node.get("price").asDouble()); // Sets vehicle price
-            vehicle.setDealerId(node.get("dealership_id").asText()); // Sets dealership ID
-            vehicle.setAcquisitionDate(new Date(node.get("acquisition_date").asLong())); // Sets acquisition date
-
-            return vehicle; // Returns the created vehicle object
+            restoreRental(vehicle, node.path("is_rented").asBoolean(false), // Restores the rental state and bookings
+                    node.has("rental_start_date") ? node.get("rental_start_date").asLong() : Vehicle.NO_TIME,
+                    node.has("rental_end_date") ? node.get("rental_end_date").asLong() : Vehicle.NO_TIME,
+                    bookings);
+            return vehicle; // Returns the vehicle
         } catch (Exception e) { // Catches any exception
             e.printStackTrace(); // Prints stack trace for debugging
             return null; // Returns null if an error occurs
         }
     }
 
-    // Writes the vehicle inventory to a JSON file
+    // Creates a vehicle of the given type (or the type inferred from the model name) with its properties set
+    private Vehicle createVehicle(String type, String vehicleId, String manufacturer, String model,
+                                  double price, String dealerId, long acquisitionDate) {
+        VehicleType vehicleType = VehicleType.fromName(type); // Looks the explicit type up in the registry
+        if (vehicleType == null) { // Falls back to the model name for old records without a type
+            vehicleType = inferTypeFromModel(model);
+        }
+        Vehicle vehicle = vehicleType.newVehicle(); // Creates a vehicle of that type
+
+        // Sets vehicle properties
+        vehicle.setVehicleId(vehicleId); // Sets vehicle ID
+        vehicle.setManufacturer(strings.intern(manufacturer)); // Sets manufacturer name, shared with equal values
+        vehicle.setModel(strings.intern(model)); // Sets vehicle model, shared with equal values
+        vehicle.setPrice(price); // Sets vehicle price
+        vehicle.setDealerId(strings.intern(dealerId)); // Sets dealership ID, shared with equal values
+        vehicle.setAcquisitionTime(acquisitionDate); // Sets acquisition date, kept as a timestamp
+
+        return vehicle; // Returns the created vehicle object
+    }
+
+    // Restores the rental state and bookings stored with a vehicle; the bookings include the current rental's
+    private static void restoreRental(Vehicle vehicle, boolean rented, long rentalStart, long rentalEnd, List<long[]> bookings) {
+        if (rentalStart != Vehicle.NO_TIME) vehicle.setRentalStartTime(rentalStart); // Restores the rental start
+        if (rentalEnd != Vehicle.NO_TIME) vehicle.setRentalEndTime(rentalEnd); // Restores the rental end
+        if (rented) vehicle.setRented(true); // Restores the rented flag
+        for (long[] booking : bookings) {
+            vehicle.getRentalCalendar().reserve(booking[0], booking[1]); // Restores each booking
+        }
+    }
+
+    // Infers the vehicle type from well-known model names, defaulting to an SUV
+    private static VehicleType inferTypeFromModel(String model) {
+        String modelName = model.toLowerCase(); // Converts model name to lowercase
+        if (modelName.contains("cr-v") || modelName.contains("explorer")) return VehicleType.SUV; // SUV models
+        if (modelName.contains("model 3")) return VehicleType.SEDAN; // Sedan models
+        if (modelName.contains("silverado")) return VehicleType.PICKUP; // Pickup models
+        if (modelName.contains("supra")) return VehicleType.SPORTS_CAR; // Sports car models
+        return VehicleType.SUV; // Defaults to an SUV if model type is unknown
+    }
+
+    // Streams vehicles from the "car_inventory" array to the consumer one record at a time and returns how many were read
+    public int readInventory(File file, Consumer<Vehicle> consumer) {
+        return readInventoryWithDealerNames(file, (vehicle, dealerName) -> consumer.accept(vehicle)); // Drops the dealer names
+    }
+
+    // Streams vehicles to the consumer together with the dealer_name stored next to each, or null if there is none
+    public int readInventoryWithDealerNames(File file, BiConsumer<Vehicle, String> consumer) {
+        try {
+            return streamInventory(file, consumer); // Streams the inventory
+        } catch (IOException e) { // Catches any IO exception
+            e.printStackTrace(); // Prints stack trace for debugging
+            return 0; // Reports nothing read in case of an error
+        }
+    }
+
+    // Streams vehicles from the "car_inventory" array to the consumer, passing read errors to the caller
+    private int streamInventory(File file, BiConsumer<Vehicle, String> consumer) throws IOException {
+        if (!file.exists()) { // Checks if the file exists
+            return 0; // Nothing to read if the file does not exist
+        }
+        int count = 0; // Counts the vehicles handed to the consumer
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) { // Opens a token-level parser
+            if (parser.nextToken() != JsonToken.START_OBJECT) return 0; // The root must be an object
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) { // Walks the top-level fields
+                String fieldName = parser.getCurrentName(); // Gets the top-level field name
+                JsonToken value = parser.nextToken(); // Moves to the field value
+                if (!"car_inventory".equals(fieldName) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren(); // Skips anything that is not the inventory array
+                    continue;
+                }
+
+                String[] dealerName = new String[1]; // Receives the dealer name of each record
+                while (parser.nextToken() == JsonToken.START_OBJECT) { // Walks the inventory one object at a time
+                    Vehicle vehicle = readVehicle(parser, dealerName); // Reads one vehicle record
+                    if (vehicle != null) { // Checks if a valid vehicle object was created
+                        consumer.accept(vehicle, dealerName[0]); // Hands the vehicle and its dealer name to the consumer
+                        count++;
+                    }
+                }
+            }
+        }
+        return count; // Returns the number of vehicles read
+    }
+
+    // Reads the fields of one inventory object from the parser, which is positioned on its START_OBJECT,
+    // storing its dealer name, or null, in dealerName[0]
+    private Vehicle readVehicle(JsonParser parser, String[] dealerName) throws IOException {
+        String type = null, vehicleId = null, manufacturer = null, model = null, dealerId = null; // Text fields
+        dealerName[0] = null; // Most records carry no dealer name
+        Double price = null; // Price, null until seen
+        Long acquisitionDate = null; // Acquisition timestamp, null until seen
+        boolean rented = false; // Rented flag, absent for available vehicles
+        long rentalStart = Vehicle.NO_TIME, rentalEnd = Vehicle.NO_TIME; // Rental dates, absent if never rented
+        List<long[]> bookings = Collections.emptyList(); // Bookings, absent for most vehicles
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) { // Walks the fields of the object
+            String fieldName = parser.getCurrentName(); // Gets the field name
+            parser.nextToken(); // Moves to the field value
+            switch (fieldName) {
+                case "vehicle_type": type = parser.getValueAsString(); break; // Reads the explicit type
+                case "vehicle_id": vehicleId = parser.getValueAsString(); break; // Reads the vehicle ID
+                case "vehicle_manufacturer": manufacturer = parser.getValueAsString(); break; // Reads the manufacturer
+                case "vehicle_model": model = parser.getValueAsString(); break; // Reads the model
+                case "dealership_id": dealerId = parser.getValueAsString(); break; // Reads the dealership ID
+                case "dealer_name": dealerName[0] = strings.intern(parser.getValueAsString()); break; // Reads the dealer name
+                case "price": price = parser.getValueAsDouble(); break; // Reads the price
+                case "acquisition_date": acquisitionDate = parser.getValueAsLong(); break; // Reads the acquisition date
+                case "is_rented": rented = parser.getValueAsBoolean(); break; // Reads the rented flag
+                case "rental_start_date": rentalStart = parser.getValueAsLong(); break; // Reads the rental start
+                case "rental_end_date": rentalEnd = parser.getValueAsLong(); break; // Reads the rental end
+                case "bookings": bookings = readBookings(parser); break; // Reads the bookings
+                default: parser.skipChildren(); // Skips unknown fields, including nested values
+            }
+        }
+
+        // Skips records missing a required field, like the tree-based reader does
+        if (vehicleId == null || manufacturer == null || model == null || dealerId == null
+                || price == null || acquisitionDate == null) {
+            System.err.println("Skipping incomplete inventory record: " + vehicleId);
+            return null;
+        }
+        Vehicle vehicle = createVehicle(type, vehicleId, manufacturer, model, price, dealerId, acquisitionDate); // Builds the vehicle
+        restoreRental(vehicle, rented, rentalStart, rentalEnd, bookings); // Restores the rental state and bookings
+        return vehicle; // Returns the vehicle
+    }
+
+    // Reads a "bookings" array of {"start", "end"} objects; the parser is positioned on its START_ARRAY
+    private static List<long[]> readBookings(JsonParser parser) throws IOException {
+        List<long[]> bookings = new ArrayList<>(); // Collects the bookings
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren(); // Ignores a malformed value
+            return bookings;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) { // Walks the booking objects
+            long start = Vehicle.NO_TIME, end = Vehicle.NO_TIME; // Booking bounds, missing until seen
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName(); // Gets the field name
+                parser.nextToken(); // Moves to the field value
+                if ("start".equals(fieldName)) start = parser.getValueAsLong(); // Reads the booking start
+                else if ("end".equals(fieldName)) end = parser.getValueAsLong(); // Reads the booking end
+                else parser.skipChildren(); // Skips unknown fields
+            }
+            if (start != Vehicle.NO_TIME && end != Vehicle.NO_TIME) {
+                bookings.add(new long[] {start, end}); // Keeps complete bookings only
+            }
+        }
+        return bookings; // Returns the bookings
+    }
+
+    // Writes the vehicle inventory to a JSON file, replacing whatever the file held before
     public void writeInventory(List<Vehicle> vehicles, File file) {
+        writeInventory((Iterable<Vehicle>) vehicles, file); // Streams the list without reading the old file
+    }
+
+    // Streams the vehicles into a temp file next to the target, then atomically moves it over the target
+    public boolean writeInventory(Iterable<Vehicle> vehicles, File file) {
+        return writeAtomically(file, sink -> vehicles.forEach(vehicle -> sink.accept(vehicle, null))); // Writes each vehicle as it is produced
+    }
+
+    // Merges the vehicles into the inventory on disk: entries with the same vehicle ID are replaced,
+    // other entries on disk are kept in place and new vehicles are appended at the end
+    public boolean mergeInventory(Iterable<Vehicle> vehicles, File file) {
+        Map<String, Vehicle> updates = new LinkedHashMap<>(); // Indexes only the incoming vehicles by ID
+        for (Vehicle vehicle : vehicles) {
+            updates.put(vehicle.getVehicleId(), vehicle); // Later duplicates win, like the old writer
+        }
+        return writeAtomically(file, sink -> {
+            try {
+                streamInventory(file, (existing, dealerName) -> { // Streams the old inventory one record at a time
+                    Vehicle updated = updates.remove(existing.getVehicleId()); // Checks for a replacement
+                    if (updated == null) {
+                        sink.accept(existing, dealerName); // Keeps the old entry with its dealer name
+                    } else if (Objects.equals(updated.getDealerId(), existing.getDealerId())) {
+                        sink.accept(updated, dealerName); // Same dealer, so the stored name still applies
+                    } else {
+                        sink.accept(updated, null); // Moved to another dealer, so the old name would be wrong
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Aborts the merge so the target is left untouched
+            }
+            updates.values().forEach(vehicle -> sink.accept(vehicle, null)); // Appends vehicles that were not on disk yet
+        });
+    }
+
+    // Runs the producer against a streaming generator writing into a temp file next to the target,
+    // then atomically moves the temp file over the target
+    private boolean writeAtomically(File file, Consumer<BiConsumer<Vehicle, String>> producer) {
+        File target = file.getAbsoluteFile(); // Resolves the target so its directory is known
+        Path tempFile = null; // Temp file that receives the new inventory
         try {
-            List<Vehicle> existingVehicles = readInventory(file); // Reads existing inventory
-            Map<String, Map<String, Object>> vehicleMap = new HashMap<>(); // Initializes a map to store unique vehicles
-
-            // Converts each vehicle object into a map and stores it in the vehicleMap
-            for (Vehicle vehicle : vehicles) {
-                Map<String, Object> vehicleData = new HashMap<>(); // Initializes a map for vehicle properties
-                vehicleData.put("vehicle_id", vehicle.getVehicleId()); // Stores vehicle ID
-                vehicleData.put("vehicle_manufacturer", vehicle.getManufacturer()); // Stores manufacturer
-                vehicleData.put("vehicle_model", vehicle.getModel()); // Stores model name
-                vehicleData.put("acquisition_date", vehicle.getAcquisitionDate().getTime()); // Stores acquisition date as timestamp
-                vehicleData.put("price", vehicle.getPrice()); // Stores vehicle price
-                vehicleData.put("dealership_id", vehicle.getDealerId()); // Stores dealership ID
-
-                vehicleMap.put(vehicle.getVehicleId(), vehicleData); // Stores the vehicle data in the map
+            tempFile = Files.createTempFile(target.getParentFile().toPath(), target.getName(), ".tmp"); // Creates the temp file in the same directory
+            try (FileOutputStream out = new FileOutputStream(tempFile.toFile());
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) { // Opens a streaming generator
+                generator.useDefaultPrettyPrinter(); // Keeps the pretty-printed layout
+                generator.writeStartObject(); // Opens the root object
+                generator.writeArrayFieldStart("car_inventory"); // Opens the inventory array
+                producer.accept((vehicle, dealerName) -> { // Writes each vehicle the producer hands over
+                    try {
+                        writeVehicle(generator, vehicle, dealerName);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray(); // Closes the inventory array
+                generator.writeEndObject(); // Closes the root object
+                generator.flush(); // Pushes buffered output to the file
+                out.getFD().sync(); // Forces the temp file to disk before it replaces the target
+            }
+            moveAtomically(tempFile, target.toPath()); // Replaces the target in one step
+            return true; // Reports success
+        } catch (IOException | RuntimeException e) { // Catches write, read or move failures
+            if (!(e instanceof CancellationException)) { // A producer that was cancelled is not an error
+                e.printStackTrace(); // Prints stack trace for debugging
             }
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile); // Leaves the existing target untouched
+                } catch (IOException ignored) {
+                    // Nothing else to clean up
+                }
+            }
+            return false; // Reports failure
+        }
+    }
 
-            // Creates a wrapper map with "car_inventory" key
-            Map<String, List<Map<String, Object>>> wrapper = new HashMap<>();
-            wrapper.put("car_inventory", new ArrayList<>(vehicleMap.values())); // Adds all unique vehicle entries to the wrapper
-            objectMapper.writeValue(file, wrapper); // Writes the inventory to the JSON file
-        } catch (IOException e) { // Catches any IO exception
-            e.printStackTrace(); // Prints stack trace for debugging
+    // Streams the vehicles into the inventory file with an atomic replace
+    public boolean writeInventory(Stream<Vehicle> vehicles, File file) {
+        return writeInventory((Iterable<Vehicle>) vehicles::iterator, file); // Iterates the stream once
+    }
+
+    // Streams the vehicles into the inventory file with an atomic replace, storing the name the resolver gives for each dealership ID
+    public boolean writeInventory(Stream<Vehicle> vehicles, File file, Function<String, String> dealerNames) {
+        return writeAtomically(file, sink -> vehicles.forEach(vehicle -> // Iterates the stream once
+                sink.accept(vehicle, dealerNames.apply(vehicle.getDealerId())))); // Resolves the name of each vehicle's dealer
+    }
+
+    // Writes one vehicle object with the inventory entry layout, adding the dealer name when there is one
+    private void writeVehicle(JsonGenerator generator, Vehicle vehicle, String dealerName) throws IOException {
+        generator.writeStartObject(); // Opens the vehicle object
+        generator.writeStringField("vehicle_id", vehicle.getVehicleId()); // Writes vehicle ID
+        generator.writeStringField("vehicle_manufacturer", vehicle.getManufacturer()); // Writes manufacturer
+        generator.writeStringField("vehicle_model", vehicle.getModel()); // Writes model name
+        generator.writeNumberField("acquisition_date", acquisitionTime(vehicle)); // Writes acquisition date as timestamp
+        generator.writeNumberField("price", vehicle.getPrice()); // Writes vehicle price
+        generator.writeStringField("dealership_id", vehicle.getDealerId()); // Writes dealership ID
+        Vehicle.RentalState rental = vehicle.getRentalState(); // One state, so the flag and dates belong together
+        if (rental.isRented()) generator.writeBooleanField("is_rented", true); // Writes the rented flag when set
+        if (rental.getStartTime() != Vehicle.NO_TIME) generator.writeNumberField("rental_start_date", rental.getStartTime()); // Writes the rental start
+        if (rental.getEndTime() != Vehicle.NO_TIME) generator.writeNumberField("rental_end_date", rental.getEndTime()); // Writes the rental end
+        if (vehicle.getRentalCalendar().size() > 0) { // Most vehicles have no bookings, so nothing is copied for them
+            Map<Long, Long> bookings = vehicle.getRentalCalendar().getBookings(); // Gets the bookings, sorted by start
+            generator.writeArrayFieldStart("bookings"); // Opens the bookings array
+            for (Map.Entry<Long, Long> booking : bookings.entrySet()) {
+                generator.writeStartObject(); // Opens one booking
+                generator.writeNumberField("start", booking.getKey()); // Writes the booking start
+                generator.writeNumberField("end", booking.getValue()); // Writes the booking end
+                generator.writeEndObject(); // Closes the booking
+            }
+            generator.writeEndArray(); // Closes the bookings array
+        }
+        if (dealerName != null && !dealerName.isEmpty()) {
+            generator.writeStringField("dealer_name", dealerName); // Writes the dealer name
+        }
+        generator.writeEndObject(); // Closes the vehicle object
+    }
+
+    // Gets the acquisition timestamp of a vehicle, which every inventory entry must have
+    private static long acquisitionTime(Vehicle vehicle) {
+        if (vehicle.getAcquisitionTime() == Vehicle.NO_TIME) { // Readers skip entries without a date
+            throw new IllegalArgumentException("Vehicle " + vehicle.getVehicleId() + " has no acquisition date");
+        }
+        return vehicle.getAcquisitionTime(); // Returns the timestamp
+    }
+
+    // Moves a file over the target atomically, falling back to a plain replace where atomic moves are unsupported
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); // Atomic replace
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING); // Best-effort replace
         }
     }
 }
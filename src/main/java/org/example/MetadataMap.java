@@ -0,0 +1,161 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The MetadataMap class holds the few extra properties a vehicle may carry.
+ * Keys and values alternate in one array searched front to back, which for a handful of entries
+ * is smaller and faster than a HashMap with its table and one node per entry.
+ */
+class MetadataMap extends AbstractMap<String, Object> {
+    private Object[] entries = new Object[4];   // key0, value0, key1, value1, ...
+    private int size;                           // Entries in use
+
+    /**
+     * Constructor that creates an empty map
+     */
+    MetadataMap() {
+    }
+
+    /**
+     * Constructor that copies another map
+     * @param other The map to copy
+     */
+    MetadataMap(Map<String, ?> other) {
+        entries = new Object[Math.max(2, other.size() * 2)];
+        for (Map.Entry<String, ?> entry : other.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? entries[index + 1] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object previous = entries[index + 1];
+            entries[index + 1] = value;
+            return previous;
+        }
+        if (size * 2 == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[size * 2] = key;
+        entries[size * 2 + 1] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) return null;
+        Object previous = entries[index + 1];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(entries, 0, size * 2, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+        };
+    }
+
+    /**
+     * Gets the array index of a key, or -1 if it is not in the map
+     */
+    private int indexOf(Object key) {
+        for (int i = 0; i < size * 2; i += 2) {
+            Object candidate = entries[i];
+            if (candidate == key || (candidate != null && candidate.equals(key))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the entry at an array index, moving the last entry into its place
+     */
+    private void removeAt(int index) {
+        int last = (size - 1) * 2;
+        entries[index] = entries[last];
+        entries[index + 1] = entries[last + 1];
+        entries[last] = null;
+        entries[last + 1] = null;
+        size--;
+    }
+
+    /**
+     * Walks the entries in array order; setValue and remove write through to the map
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next;           // Array index of the next entry
+        private int current = -1;   // Array index of the entry last returned, -1 if removed or none yet
+
+        @Override
+        public boolean hasNext() {
+            return next < size * 2;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            current = next;
+            next += 2;
+            int index = current;
+            return new SimpleEntry<>((String) entries[index], entries[index + 1]) {
+                @Override
+                public Object setValue(Object value) {
+                    entries[index + 1] = value;
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) throw new IllegalStateException();
+            // The last entry moves into the removed slot, so it is visited next
+            removeAt(current);
+            next = current;
+            current = -1;
+        }
+    }
+}
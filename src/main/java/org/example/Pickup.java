@@ -1,2 +1,5 @@
 package org.example;
-public class Pickup extends Vehicle { }
\ No newline at end of file
+public class Pickup extends Vehicle {
+    @Override
+    public VehicleType getType() { return VehicleType.PICKUP; }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.example;
+
+/**
+ * The ProgressListener interface is told how far a long-running operation has got, and can ask it to stop.
+ * It may be called from any thread, and often, so implementations should be cheap.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Called whenever more of the work is done
+     * @param done The amount of work done so far
+     * @param total The total amount of work, in the same unit
+     */
+    void progress(long done, long total);
+
+    /**
+     * Checked by the operation between steps; once it returns true the operation undoes what it did
+     * and throws a CancellationException
+     * @return true if the operation should stop
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The RentalCalendar class holds the bookings of a single vehicle.
+ * Bookings are inclusive [start, end] ranges in epoch milliseconds and never overlap,
+ * so they are kept sorted by start and an overlap check is one floor lookup.
+ */
+public class RentalCalendar {
+    private final NavigableMap<Long, Long> bookings = new TreeMap<>(); // Booking start -> booking end
+
+    /**
+     * Books the vehicle for a period if it is free
+     * @param start The first millisecond of the booking
+     * @param end The last millisecond of the booking
+     * @return true if the booking was added, false if it overlaps another booking or is empty
+     */
+    public synchronized boolean reserve(long start, long end) {
+        if (end < start || !isFree(start, end)) {
+            return false;
+        }
+        bookings.put(start, end);
+        return true;
+    }
+
+    /**
+     * Checks whether no booking overlaps a period
+     * @param start The first millisecond of the period
+     * @param end The last millisecond of the period
+     * @return true if the vehicle is free for the whole period
+     */
+    public synchronized boolean isFree(long start, long end) {
+        // Bookings do not overlap, so the last one starting before the period ends is the only candidate
+        Map.Entry<Long, Long> candidate = bookings.floorEntry(end);
+        return candidate == null || candidate.getValue() < start;
+    }
+
+    /**
+     * Checks whether the calendar holds exactly this booking
+     * @param start The first millisecond of the booking
+     * @param end The last millisecond of the booking
+     * @return true if the booking exists
+     */
+    public synchronized boolean hasBooking(long start, long end) {
+        Long bookedEnd = bookings.get(start);
+        return bookedEnd != null && bookedEnd == end;
+    }
+
+    /**
+     * Cancels the booking that starts at a given time
+     * @param start The first millisecond of the booking
+     * @return The end of the cancelled booking, or null if there was none
+     */
+    public synchronized Long cancel(long start) {
+        return bookings.remove(start);
+    }
+
+    /**
+     * Gets a copy of the bookings, sorted by start
+     * @return Booking start mapped to booking end
+     */
+    public synchronized NavigableMap<Long, Long> getBookings() {
+        return Collections.unmodifiableNavigableMap(new TreeMap<>(bookings));
+    }
+
+    /**
+     * Gets the number of bookings
+     * @return The booking count
+     */
+    public synchronized int size() {
+        return bookings.size();
+    }
+}
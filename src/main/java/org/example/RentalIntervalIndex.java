@@ -0,0 +1,189 @@
+package org.example;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The RentalIntervalIndex class indexes the bookings of the whole fleet.
+ * It is an AVL tree keyed by booking start, where every node also records the latest end in its
+ * subtree. A query for the vehicles booked during a period skips every subtree that ends before
+ * the period starts, so it costs O(log n + k) for k matching bookings instead of a fleet scan.
+ */
+class RentalIntervalIndex {
+
+    /**
+     * One booking in the tree
+     */
+    private static final class Node {
+        final long start;       // First millisecond of the booking
+        final long end;         // Last millisecond of the booking
+        final String vehicleId; // The booked vehicle
+        long maxEnd;            // Latest end anywhere in this subtree
+        int height = 1;         // Height of this subtree
+        Node left;
+        Node right;
+
+        Node(long start, long end, String vehicleId) {
+            this.start = start;
+            this.end = end;
+            this.vehicleId = vehicleId;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;  // Root of the tree
+    private int size;   // Number of bookings
+
+    /**
+     * Adds a booking
+     * @param start The first millisecond of the booking
+     * @param end The last millisecond of the booking
+     * @param vehicleId The booked vehicle
+     */
+    synchronized void add(long start, long end, String vehicleId) {
+        root = insert(root, new Node(start, end, vehicleId));
+    }
+
+    /**
+     * Removes a booking
+     * @param start The first millisecond of the booking
+     * @param vehicleId The booked vehicle
+     * @return true if the booking was in the index
+     */
+    synchronized boolean remove(long start, String vehicleId) {
+        int before = size;
+        root = delete(root, start, vehicleId);
+        return size < before;
+    }
+
+    /**
+     * Finds the vehicles with a booking that overlaps a period
+     * @param start The first millisecond of the period
+     * @param end The last millisecond of the period
+     * @return The ids of the booked vehicles
+     */
+    synchronized Set<String> findBooked(long start, long end) {
+        Set<String> booked = new HashSet<>();
+        collect(root, start, end, booked);
+        return booked;
+    }
+
+    /**
+     * Gets the number of bookings in the index
+     * @return The booking count
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    private void collect(Node node, long start, long end, Set<String> booked) {
+        // Nothing in this subtree ends late enough to overlap
+        if (node == null || node.maxEnd < start) return;
+
+        collect(node.left, start, end, booked);
+        if (node.start <= end && node.end >= start) {
+            booked.add(node.vehicleId);
+        }
+        // Everything to the right starts after this node, so stop once we are past the period
+        if (node.start <= end) {
+            collect(node.right, start, end, booked);
+        }
+    }
+
+    private static int compare(long start, String vehicleId, Node node) {
+        int order = Long.compare(start, node.start);
+        return order != 0 ? order : vehicleId.compareTo(node.vehicleId);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int order = compare(added.start, added.vehicleId, node);
+        if (order < 0) {
+            node.left = insert(node.left, added);
+        } else if (order > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            // The same vehicle cannot have two bookings starting together; keep the existing one
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node delete(Node node, long start, String vehicleId) {
+        if (node == null) return null;
+        int order = compare(start, vehicleId, node);
+        if (order < 0) {
+            node.left = delete(node.left, start, vehicleId);
+        } else if (order > 0) {
+            node.right = delete(node.right, start, vehicleId);
+        } else {
+            size--;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+
+            // Replace the node with its successor
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            size++; // the successor is moved, not removed
+            Node replacement = new Node(successor.start, successor.end, successor.vehicleId);
+            replacement.right = delete(node.right, successor.start, successor.vehicleId);
+            replacement.left = node.left;
+            return rebalance(replacement);
+        }
+        return rebalance(node);
+    }
+
+    private Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static long maxEnd(Node node) {
+        return node != null ? node.maxEnd : Long.MIN_VALUE;
+    }
+}
@@ -1,2 +1,5 @@
 package org.example;
-public class SUV extends Vehicle { }
\ No newline at end of file
+public class SUV extends Vehicle {
+    @Override
+    public VehicleType getType() { return VehicleType.SUV; }
+}
\ No newline at end of file
@@ -1,2 +1,5 @@
 package org.example;
-public class Sedan extends Vehicle { }
\ No newline at end of file
+public class Sedan extends Vehicle {
+    @Override
+    public VehicleType getType() { return VehicleType.SEDAN; }
+}
\ No newline at end of file
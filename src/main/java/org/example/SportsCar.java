@@ -1,11 +1,9 @@
 package org.example;
 
-import java.util.Date;
-
 public class SportsCar extends Vehicle {
     @Override
-    public boolean rent(Date startDate, Date endDate) {
-        // Sports cars cannot be rented according to business rules
-        return false;
+    public VehicleType getType() {
+        // Sports cars cannot be rented according to business rules; the policy lives on the type
+        return VehicleType.SPORTS_CAR;
     }
 }
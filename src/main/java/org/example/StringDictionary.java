@@ -0,0 +1,143 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StringDictionary class gives every distinct value of a low-cardinality field (manufacturer, model,
+ * dealer id, type) one shared String instance and one dense int code.
+ * Loaders intern through the shared dictionary, so a fleet of a million cars holds each manufacturer once,
+ * and indexes compare codes instead of strings. Each value also knows the code of its lower-cased form,
+ * so case-insensitive comparisons lower-case a value once instead of once per vehicle.
+ * Lookups of known values take no lock; only adding a new value does.
+ */
+public final class StringDictionary {
+    private static final StringDictionary SHARED = new StringDictionary(); // Used by every loader and index
+
+    /**
+     * Code 0 stands for null
+     */
+    public static final int NULL_CODE = 0;
+
+    /**
+     * One distinct value and its codes
+     */
+    private static final class Entry {
+        final String value;         // The shared instance
+        final int code;             // Its code
+        volatile int foldedCode = -1; // Code of the lower-cased value, -1 until first asked for
+
+        Entry(String value, int code) {
+            this.value = value;
+            this.code = code;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();  // Value -> entry
+    private volatile Entry[] byCode = new Entry[64];                       // Code -> entry; slot 0 is null
+    private int size = 1;                                                  // Codes handed out, guarded by this
+
+    /**
+     * Gets the dictionary shared by the loaders and indexes
+     * @return The shared dictionary
+     */
+    public static StringDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the shared instance of a value, adding the value if it is new
+     * @param value The value, may be null
+     * @return The shared instance equal to the value, or null
+     */
+    public String intern(String value) {
+        return value != null ? entry(value).value : null;
+    }
+
+    /**
+     * Gets the code of a value, adding the value if it is new
+     * @param value The value, may be null
+     * @return The code, NULL_CODE for null
+     */
+    public int code(String value) {
+        return value != null ? entry(value).code : NULL_CODE;
+    }
+
+    /**
+     * Gets the code of a value without adding it
+     * @param value The value, may be null
+     * @return The code, NULL_CODE for null, or -1 if the value was never added
+     */
+    public int find(String value) {
+        if (value == null) return NULL_CODE;
+        Entry entry = entries.get(value);
+        return entry != null ? entry.code : -1;
+    }
+
+    /**
+     * Gets the value of a code
+     * @param code A code handed out by this dictionary
+     * @return The shared instance, or null for NULL_CODE
+     */
+    public String value(int code) {
+        return code != NULL_CODE ? byCode[code].value : null;
+    }
+
+    /**
+     * Gets the code of the lower-cased form of a value; two values are equal ignoring case
+     * exactly when their folded codes are equal
+     * @param code A code handed out by this dictionary
+     * @return The code of the lower-cased value, NULL_CODE for NULL_CODE
+     */
+    public int foldedCode(int code) {
+        if (code == NULL_CODE) return NULL_CODE;
+        Entry entry = byCode[code];
+        int folded = entry.foldedCode;
+        if (folded < 0) {
+            String lower = entry.value.toLowerCase(Locale.ROOT);
+            folded = lower.equals(entry.value) ? code : code(lower);
+            entry.foldedCode = folded;
+        }
+        return folded;
+    }
+
+    /**
+     * Gets the shared instance of the lower-cased form of a value
+     * @param value The value, may be null
+     * @return The shared lower-cased instance, or null
+     */
+    public String fold(String value) {
+        return value(foldedCode(code(value)));
+    }
+
+    /**
+     * Gets the number of codes handed out, counting the null code; every code is below this
+     * @return The code count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private Entry entry(String value) {
+        Entry entry = entries.get(value);
+        if (entry != null) return entry;
+
+        synchronized (this) {
+            entry = entries.get(value);
+            if (entry != null) return entry;
+
+            // The array is published before the map entry, so anyone who finds the code can decode it
+            Entry[] codes = byCode;
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            entry = new Entry(value, size);
+            codes[size++] = entry;
+            byCode = codes;
+            entries.put(value, entry);
+            return entry;
+        }
+    }
+}
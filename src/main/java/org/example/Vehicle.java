@@ -2,8 +2,8 @@ package org.example;
 
 import com.fasterxml.jackson.annotation.*;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "vehicle_type", visible = true)
 @JsonSubTypes({
@@ -14,72 +14,293 @@ import java.util.Map;
 })
 @JsonIgnoreProperties(ignoreUnknown = true)
 public abstract class Vehicle {
+    /**
+     * Epoch time that stands for a missing date
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
     @JsonProperty("vehicle_id")
     private String vehicleId;
+    @JsonIgnore
+    private volatile Store store = new Fields(); // Holds the scanned fields: the vehicle's own, or a FleetColumns slot
+    @JsonIgnore
+    private int slot;                            // The slot in the store; written before the store, read after it
+    @JsonIgnore
+    private final RentalCalendar rentalCalendar = new RentalCalendar();
+
+    @JsonIgnore
+    private MetadataMap metadata; // Allocated by the first property, most vehicles have none
+
+    @JsonAnySetter
+    public void setMetadata(String key, Object value) {
+        getMetadata().put(key, value);
+    }
+
+    // Getters and Setters
+    public String getVehicleId() { return vehicleId; }
+    public void setVehicleId(String vehicleId) { this.vehicleId = vehicleId; }
+    @JsonProperty("vehicle_manufacturer")
+    public String getManufacturer() { return store.manufacturer(slot); }
     @JsonProperty("vehicle_manufacturer")
-    private String manufacturer;
+    public void setManufacturer(String manufacturer) { store.setManufacturer(slot, manufacturer); }
     @JsonProperty("vehicle_model")
-    private String model;
+    public String getModel() { return store.model(slot); }
+    @JsonProperty("vehicle_model")
+    public void setModel(String model) { store.setModel(slot, model); }
+    @JsonIgnore
+    public long getAcquisitionTime() { return store.acquisitionTime(slot); }
+    @JsonIgnore
+    public void setAcquisitionTime(long acquisitionTime) { store.setAcquisitionTime(slot, acquisitionTime); }
     @JsonProperty("acquisition_date")
-    private Date acquisitionDate;
+    public Date getAcquisitionDate() { return toDate(getAcquisitionTime()); }
+    @JsonProperty("acquisition_date")
+    public void setAcquisitionDate(Date acquisitionDate) { setAcquisitionTime(toTime(acquisitionDate)); }
+    @JsonProperty("price")
+    public double getPrice() { return store.price(slot); }
     @JsonProperty("price")
-    private double price;
+    public void setPrice(double price) { store.setPrice(slot, price); }
     @JsonProperty("dealership_id")
-    private String dealerId;
+    public String getDealerId() { return store.dealerId(slot); }
+    @JsonProperty("dealership_id")
+    public void setDealerId(String dealerId) { store.setDealerId(slot, dealerId); }
+    public Map<String, Object> getMetadata() {
+        if (metadata == null) metadata = new MetadataMap();
+        return metadata;
+    }
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata != null && !metadata.isEmpty() ? new MetadataMap(metadata) : null;
+    }
+    public Object getMetadata(String key) { return metadata != null ? metadata.get(key) : null; }
+    public boolean hasMetadata() { return metadata != null && !metadata.isEmpty(); }
+
+    // Rental methods
+    @JsonIgnore
+    public RentalState getRentalState() { return store.rentalState(slot); }
+    @JsonIgnore
+    public RentalCalendar getRentalCalendar() { return rentalCalendar; }
+    @JsonProperty("is_rented")
+    public boolean isRented() { return getRentalState().isRented(); }
     @JsonProperty("is_rented")
-    private boolean isRented = false;
+    public void setRented(boolean rented) { updateRentalState(state -> state.withRented(rented)); }
+    @JsonIgnore
+    public long getRentalStartTime() { return getRentalState().getStartTime(); }
+    @JsonIgnore
+    public void setRentalStartTime(long rentalStartTime) { updateRentalState(state -> state.withStartTime(rentalStartTime)); }
+    @JsonIgnore
+    public long getRentalEndTime() { return getRentalState().getEndTime(); }
+    @JsonIgnore
+    public void setRentalEndTime(long rentalEndTime) { updateRentalState(state -> state.withEndTime(rentalEndTime)); }
+    @JsonProperty("rental_start_date")
+    public Date getRentalStartDate() { return getRentalState().getStartDate(); }
     @JsonProperty("rental_start_date")
-    private Date rentalStartDate;
+    public void setRentalStartDate(Date rentalStartDate) { setRentalStartTime(toTime(rentalStartDate)); }
     @JsonProperty("rental_end_date")
-    private Date rentalEndDate;
+    public Date getRentalEndDate() { return getRentalState().getEndDate(); }
+    @JsonProperty("rental_end_date")
+    public void setRentalEndDate(Date rentalEndDate) { setRentalEndTime(toTime(rentalEndDate)); }
 
+    /**
+     * Gets the registered type of this vehicle
+     * @return The type
+     */
     @JsonIgnore
-    private Map<String, Object> metadata = new HashMap<>();
+    public abstract VehicleType getType();
 
-    @JsonAnySetter
-    public void setMetadata(String key, Object value) {
-        metadata.put(key, value);
+    public boolean isRentable() {
+        return getType().isRentable();
     }
 
-    // Getters and Setters
-    public String getVehicleId() { return vehicleId; }
-    public void setVehicleId(String vehicleId) { this.vehicleId = vehicleId; }
-    public String getManufacturer() { return manufacturer; }
-    public void setManufacturer(String manufacturer) { this.manufacturer = manufacturer; }
-    public String getModel() { return model; }
-    public void setModel(String model) { this.model = model; }
-    public Date getAcquisitionDate() { return acquisitionDate; }
-    public void setAcquisitionDate(Date acquisitionDate) { this.acquisitionDate = acquisitionDate; }
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
-    public String getDealerId() { return dealerId; }
-    public void setDealerId(String dealerId) { this.dealerId = dealerId; }
-    public Map<String, Object> getMetadata() { return metadata; }
-    public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
+    public boolean isAvailableForRent() {
+        return !getRentalState().isRented();
+    }
 
-    // Rental methods
-    public boolean isRented() { return isRented; }
-    public void setRented(boolean rented) { this.isRented = rented; }
-    public Date getRentalStartDate() { return rentalStartDate; }
-    public void setRentalStartDate(Date rentalStartDate) { this.rentalStartDate = rentalStartDate; }
-    public Date getRentalEndDate() { return rentalEndDate; }
-    public void setRentalEndDate(Date rentalEndDate) { this.rentalEndDate = rentalEndDate; }
+    public boolean reserve(Date startDate, Date endDate) {
+        return reserve(startDate.getTime(), endDate.getTime());
+    }
 
-    public boolean isAvailableForRent() {
-        return !isRented;
+    public boolean reserve(long startTime, long endTime) {
+        if (!isRentable()) return false;
+        return rentalCalendar.reserve(startTime, endTime);
     }
 
     public boolean rent(Date startDate, Date endDate) {
-        if (!isAvailableForRent()) return false;
-        this.isRented = true;
-        this.rentalStartDate = startDate;
-        this.rentalEndDate = endDate;
-        return true;
+        return rent(toTime(startDate), toTime(endDate));
+    }
+
+    public boolean rent(long startTime, long endTime) {
+        if (!isRentable()) return false;
+        RentalState current = getRentalState();
+        if (current.isRented()) return false;
+
+        // Book the period unless this rental picks up an existing reservation for it
+        boolean booked = false;
+        if (startTime != NO_TIME && endTime != NO_TIME && !rentalCalendar.hasBooking(startTime, endTime)) {
+            booked = rentalCalendar.reserve(startTime, endTime);
+            if (!booked) return false;
+        }
+
+        // A single compare-and-set, so two concurrent rentals cannot both succeed
+        if (compareAndSetRentalState(current, new RentalState(true, startTime, endTime))) {
+            return true;
+        }
+        if (booked) {
+            rentalCalendar.cancel(startTime);
+        }
+        return false;
     }
 
     public boolean returnVehicle() {
-        if (!isRented) return false;
-        this.isRented = false;
+        // The rental dates are kept as a record of the last rental
+        RentalState current = getRentalState();
+        if (!current.isRented()) return false;
+        if (!compareAndSetRentalState(current, current.withRented(false))) return false;
+
+        // The booking of the finished rental is released
+        if (current.getStartTime() != NO_TIME) {
+            rentalCalendar.cancel(current.getStartTime());
+        }
         return true;
     }
+
+    /**
+     * Swaps the rental state if it is still the expected one
+     */
+    private boolean compareAndSetRentalState(RentalState expected, RentalState update) {
+        return store.compareAndSetRentalState(slot, expected, update);
+    }
+
+    /**
+     * Applies a change to the rental state, retrying if another thread changed it first
+     */
+    private void updateRentalState(UnaryOperator<RentalState> change) {
+        RentalState current;
+        do {
+            current = getRentalState();
+        } while (!compareAndSetRentalState(current, change.apply(current)));
+    }
+
+    /**
+     * Gets the store that holds this vehicle's scanned fields
+     */
+    Store getStore() {
+        return store;
+    }
+
+    /**
+     * Gets the slot of this vehicle in its store
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Moves this vehicle's scanned fields into a store, e.g. a FleetColumns slot or fresh own fields
+     * @param store The store that now holds the fields
+     * @param slot The slot of this vehicle in the store
+     */
+    void moveTo(Store store, int slot) {
+        this.slot = slot;
+        this.store = store;
+    }
+
+    /**
+     * Wraps an epoch time for callers that still work with Date
+     */
+    private static Date toDate(long time) {
+        return time != NO_TIME ? new Date(time) : null;
+    }
+
+    private static long toTime(Date date) {
+        return date != null ? date.getTime() : NO_TIME;
+    }
+
+    /**
+     * Holds the fields of vehicles that scans read. A stored vehicle is a view on one slot of a FleetColumns;
+     * any other vehicle has its own Fields, where the slot is ignored.
+     */
+    interface Store {
+        String manufacturer(int slot);
+        void setManufacturer(int slot, String manufacturer);
+        String model(int slot);
+        void setModel(int slot, String model);
+        long acquisitionTime(int slot);
+        void setAcquisitionTime(int slot, long acquisitionTime);
+        double price(int slot);
+        void setPrice(int slot, double price);
+        String dealerId(int slot);
+        void setDealerId(int slot, String dealerId);
+        RentalState rentalState(int slot);
+        boolean compareAndSetRentalState(int slot, RentalState expected, RentalState update);
+    }
+
+    /**
+     * The scanned fields of a vehicle that no FleetColumns stores
+     */
+    static final class Fields implements Store {
+        private String manufacturer;
+        private String model;
+        private long acquisitionTime = NO_TIME; // Epoch millis, kept primitive so loading a fleet allocates no Date per vehicle
+        private double price;
+        private String dealerId;
+        private volatile RentalState rentalState = RentalState.AVAILABLE;
+
+        Fields() {
+        }
+
+        Fields(String manufacturer, String model, long acquisitionTime, double price, String dealerId,
+               RentalState rentalState) {
+            this.manufacturer = manufacturer;
+            this.model = model;
+            this.acquisitionTime = acquisitionTime;
+            this.price = price;
+            this.dealerId = dealerId;
+            this.rentalState = rentalState;
+        }
+
+        public String manufacturer(int slot) { return manufacturer; }
+        public void setManufacturer(int slot, String manufacturer) { this.manufacturer = manufacturer; }
+        public String model(int slot) { return model; }
+        public void setModel(int slot, String model) { this.model = model; }
+        public long acquisitionTime(int slot) { return acquisitionTime; }
+        public void setAcquisitionTime(int slot, long acquisitionTime) { this.acquisitionTime = acquisitionTime; }
+        public double price(int slot) { return price; }
+        public void setPrice(int slot, double price) { this.price = price; }
+        public String dealerId(int slot) { return dealerId; }
+        public void setDealerId(int slot, String dealerId) { this.dealerId = dealerId; }
+        public RentalState rentalState(int slot) { return rentalState; }
+
+        public synchronized boolean compareAndSetRentalState(int slot, RentalState expected, RentalState update) {
+            if (rentalState != expected) return false;
+            rentalState = update;
+            return true;
+        }
+    }
+
+    /**
+     * An immutable view of a vehicle's rental status. The vehicle swaps whole states atomically,
+     * so the rented flag and dates read from one state always belong together.
+     */
+    public static final class RentalState {
+        static final RentalState AVAILABLE = new RentalState(false, NO_TIME, NO_TIME);
+
+        private final boolean rented;   // Whether the vehicle is currently rented
+        private final long startTime;   // Start of the current or last rental, or NO_TIME
+        private final long endTime;     // End of the current or last rental, or NO_TIME
+
+        RentalState(boolean rented, long startTime, long endTime) {
+            this.rented = rented;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public boolean isRented() { return rented; }
+        public long getStartTime() { return startTime; }
+        public long getEndTime() { return endTime; }
+        public Date getStartDate() { return toDate(startTime); }
+        public Date getEndDate() { return toDate(endTime); }
+
+        RentalState withRented(boolean rented) { return new RentalState(rented, startTime, endTime); }
+        RentalState withStartTime(long startTime) { return new RentalState(rented, startTime, endTime); }
+        RentalState withEndTime(long endTime) { return new RentalState(rented, startTime, endTime); }
+    }
 }
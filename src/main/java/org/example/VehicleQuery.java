@@ -0,0 +1,212 @@
+package org.example;
+
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * The VehicleQuery class describes a filtered, sorted and paged view of the fleet.
+ * Predicates are combined with AND; unset predicates match every vehicle. For example:
+ * new VehicleQuery().type(SUV.class).dealer("485").priceBetween(20000, 40000)
+ *         .acquiredAfter(ninetyDaysAgo).rented(false).sortBy(VehicleQuery.SortKey.PRICE).limit(20)
+ */
+public class VehicleQuery {
+
+    /**
+     * The orders results can be sorted in
+     */
+    public enum SortKey {
+        PRICE,
+        ACQUISITION_DATE,
+        VEHICLE_ID,
+        MANUFACTURER,
+        MODEL
+    }
+
+    private VehicleType type;               // Exact vehicle type, or null for any
+    private String dealerId;                // Exact dealer id, or null for any
+    private Double minPrice;                // Lowest price, inclusive, or null
+    private Double maxPrice;                // Highest price, inclusive, or null
+    private Long acquiredFrom;              // Earliest acquisition time in millis, inclusive, or null
+    private Long acquiredTo;                // Latest acquisition time in millis, inclusive, or null
+    private Boolean rented;                 // Required rental status, or null for either
+    private SortKey sortKey;                // Result order, or null for fleet order
+    private boolean descending;             // Whether the sort order is reversed
+    private int offset;                     // Matches to skip before the first result
+    private int limit = Integer.MAX_VALUE;  // Most results to return
+
+    /**
+     * Only matches vehicles of a given class
+     * @param type The vehicle class, e.g. SUV.class
+     * @return this query
+     */
+    public VehicleQuery type(Class<? extends Vehicle> type) {
+        if (type == null) {
+            return type((VehicleType) null);
+        }
+        VehicleType vehicleType = VehicleType.of(type);
+        if (vehicleType == null) {
+            throw new IllegalArgumentException("Not a registered vehicle type: " + type.getName());
+        }
+        return type(vehicleType);
+    }
+
+    /**
+     * Only matches vehicles of a given type
+     * @param type The vehicle type, e.g. VehicleType.SUV
+     * @return this query
+     */
+    public VehicleQuery type(VehicleType type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Only matches vehicles held by a given dealer
+     * @param dealerId The dealer ID
+     * @return this query
+     */
+    public VehicleQuery dealer(String dealerId) {
+        this.dealerId = dealerId;
+        return this;
+    }
+
+    /**
+     * Only matches vehicles priced within a range
+     * @param minPrice The lowest price, inclusive
+     * @param maxPrice The highest price, inclusive
+     * @return this query
+     */
+    public VehicleQuery priceBetween(double minPrice, double maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    /**
+     * Only matches vehicles acquired within a period
+     * @param from The earliest acquisition date, inclusive
+     * @param to The latest acquisition date, inclusive
+     * @return this query
+     */
+    public VehicleQuery acquiredBetween(Date from, Date to) {
+        this.acquiredFrom = from.getTime();
+        this.acquiredTo = to.getTime();
+        return this;
+    }
+
+    /**
+     * Only matches vehicles acquired on or after a date
+     * @param from The earliest acquisition date, inclusive
+     * @return this query
+     */
+    public VehicleQuery acquiredAfter(Date from) {
+        this.acquiredFrom = from.getTime();
+        return this;
+    }
+
+    /**
+     * Only matches vehicles with a given rental status
+     * @param rented true for rented vehicles, false for vehicles on the lot
+     * @return this query
+     */
+    public VehicleQuery rented(boolean rented) {
+        this.rented = rented;
+        return this;
+    }
+
+    /**
+     * Sorts the results in ascending order
+     * @param sortKey The field to sort by
+     * @return this query
+     */
+    public VehicleQuery sortBy(SortKey sortKey) {
+        return sortBy(sortKey, false);
+    }
+
+    /**
+     * Sorts the results
+     * @param sortKey The field to sort by
+     * @param descending true for highest first
+     * @return this query
+     */
+    public VehicleQuery sortBy(SortKey sortKey, boolean descending) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Skips a number of matches, for paging
+     * @param offset The number of matches to skip
+     * @return this query
+     */
+    public VehicleQuery offset(int offset) {
+        this.offset = Math.max(0, offset);
+        return this;
+    }
+
+    /**
+     * Caps the number of results, for paging
+     * @param limit The most results to return
+     * @return this query
+     */
+    public VehicleQuery limit(int limit) {
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    // Accessors used by the index that runs the query
+    VehicleType getType() { return type; }
+    String getDealerId() { return dealerId; }
+    boolean hasPriceRange() { return minPrice != null || maxPrice != null; }
+    double getMinPrice() { return minPrice != null ? minPrice : Double.NEGATIVE_INFINITY; }
+    double getMaxPrice() { return maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY; }
+    boolean hasAcquisitionRange() { return acquiredFrom != null || acquiredTo != null; }
+    long getAcquiredFrom() { return acquiredFrom != null ? acquiredFrom : Long.MIN_VALUE; }
+    long getAcquiredTo() { return acquiredTo != null ? acquiredTo : Long.MAX_VALUE; }
+    Boolean getRented() { return rented; }
+    SortKey getSortKey() { return sortKey; }
+    boolean isDescending() { return descending; }
+    int getOffset() { return offset; }
+    int getLimit() { return limit; }
+
+    /**
+     * Checks the predicates that are not answered by an index
+     * @param vehicle The candidate vehicle
+     * @return true if the vehicle matches the rental status predicate
+     */
+    boolean matchesRentalStatus(Vehicle vehicle) {
+        return rented == null || vehicle.isRented() == rented;
+    }
+
+    /**
+     * Gets the comparator for the sort key
+     * @return The comparator, or null when results keep fleet order
+     */
+    Comparator<Vehicle> comparator() {
+        if (sortKey == null) return null;
+        Comparator<Vehicle> comparator;
+        switch (sortKey) {
+            case PRICE:
+                comparator = Comparator.comparingDouble(Vehicle::getPrice);
+                break;
+            case ACQUISITION_DATE:
+                // Missing dates are NO_TIME, the smallest long, so they sort first
+                comparator = Comparator.comparingLong(Vehicle::getAcquisitionTime);
+                break;
+            case MANUFACTURER:
+                comparator = Comparator.comparing(Vehicle::getManufacturer,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                break;
+            case MODEL:
+                comparator = Comparator.comparing(Vehicle::getModel,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                break;
+            case VEHICLE_ID:
+            default:
+                comparator = Comparator.comparing(Vehicle::getVehicleId,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+        }
+        return descending ? comparator.reversed() : comparator;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The VehicleRows class is the backing list of a vehicle table together with the row of each vehicle id.
+ * Replacing or removing a vehicle by id touches only its own row, so applying a batch of fleet changes
+ * costs the size of the batch rather than the size of the table. A removed row is filled by the last row,
+ * so the unsorted order is not insertion order.
+ */
+class VehicleRows {
+    private final ObservableList<Vehicle> rows = FXCollections.observableArrayList(); // The table rows
+    private final Map<String, Integer> rowById = new HashMap<>();                    // Vehicle id -> row index
+
+    /**
+     * Gets the rows, for a table to show
+     * @return The observable rows
+     */
+    ObservableList<Vehicle> getRows() {
+        return rows;
+    }
+
+    /**
+     * Replaces every row
+     * @param vehicles The new rows
+     */
+    void setAll(List<Vehicle> vehicles) {
+        rowById.clear();
+        for (int i = 0; i < vehicles.size(); i++) {
+            rowById.put(vehicles.get(i).getVehicleId(), i);
+        }
+        rows.setAll(vehicles);
+    }
+
+    /**
+     * Appends vehicles in one change, replacing the row of any vehicle id already shown
+     * @param vehicles The vehicles to show
+     */
+    void addAll(List<Vehicle> vehicles) {
+        List<Vehicle> appended = new ArrayList<>();
+        for (Vehicle vehicle : vehicles) {
+            if (!replace(vehicle)) {
+                rowById.put(vehicle.getVehicleId(), rows.size() + appended.size());
+                appended.add(vehicle);
+            }
+        }
+        rows.addAll(appended);
+    }
+
+    /**
+     * Replaces the row of a vehicle in place, so the table redraws only that row
+     * @param vehicle The changed vehicle
+     * @return true if the vehicle had a row, false otherwise
+     */
+    boolean replace(Vehicle vehicle) {
+        Integer row = rowById.get(vehicle.getVehicleId());
+        if (row == null) return false;
+        rows.set(row, vehicle);
+        return true;
+    }
+
+    /**
+     * Removes the row of a vehicle, moving the last row into its place
+     * @param vehicleId The vehicle ID
+     * @return true if the vehicle had a row, false otherwise
+     */
+    boolean remove(String vehicleId) {
+        Integer row = rowById.remove(vehicleId);
+        if (row == null) return false;
+        int last = rows.size() - 1;
+        if (row != last) {
+            Vehicle moved = rows.get(last);
+            rows.set(row, moved);
+            rowById.put(moved.getVehicleId(), row);
+        }
+        rows.remove(last);
+        return true;
+    }
+
+    /**
+     * Gets the number of rows
+     * @return The row count
+     */
+    int size() {
+        return rows.size();
+    }
+}
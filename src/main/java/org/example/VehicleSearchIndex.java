@@ -0,0 +1,485 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * The VehicleSearchIndex class answers the GUI's case-insensitive substring searches without scanning the fleet.
+ * Fields are lower-cased when a vehicle is indexed; repeated fields through the shared string dictionary,
+ * so each distinct value is lower-cased and stored once. Every indexed vehicle gets an int slot; ID,
+ * manufacturer and model are indexed by their trigrams, each mapped to a sorted array of slots, so a query of
+ * three or more characters only checks the vehicles holding its rarest trigram. Shorter queries match most of
+ * the fleet anyway and are answered by checking each vehicle. Type and dealer have few distinct values and
+ * are kept in exact-match maps.
+ * Price and acquisition date are kept in sorted maps, so typed range queries only visit vehicles inside the range.
+ */
+public class VehicleSearchIndex {
+
+    /**
+     * The fields a search can match against
+     */
+    public enum Field {
+        ID,
+        MANUFACTURER,
+        MODEL,
+        DEALER_ID,
+        TYPE,
+        ALL
+    }
+
+    private static final int GRAM = 3;      // Length of the substrings kept in the gram postings
+    private static final int CANCEL_CHECK_INTERVAL = 1024; // Vehicles checked between looks at the interrupt flag
+    private static final StringDictionary DICTIONARY = StringDictionary.shared(); // Shared lower-cased field values
+    private static final String[] TYPE_NAMES = typeNames();  // VehicleType code -> lower-cased display name
+
+    /**
+     * The normalized fields of one indexed vehicle.
+     * Repeated fields are the shared lower-cased instances of the string dictionary, the type is kept as
+     * its VehicleType code and the dealer as its dictionary code, so filters compare ints.
+     */
+    private static final class Entry {
+        final Vehicle vehicle;      // The indexed vehicle
+        final long sequence;        // Indexing order, used to return results in fleet order
+        final int slot;             // Ordinal used in the gram postings
+        final String id;            // Lower-cased vehicle id
+        final String manufacturer;  // Lower-cased manufacturer
+        final String model;         // Lower-cased model
+        final int type;             // VehicleType code
+        final double price;         // Price when indexed
+        final Long acquiredAt;      // Acquisition time in millis, or null if unknown
+        int dealerId;               // Code of the lower-cased dealer id
+
+        Entry(Vehicle vehicle, long sequence, int slot) {
+            this.vehicle = vehicle;
+            this.sequence = sequence;
+            this.slot = slot;
+            this.id = normalize(vehicle.getVehicleId());
+            this.manufacturer = DICTIONARY.value(foldedCode(vehicle.getManufacturer()));
+            this.model = DICTIONARY.value(foldedCode(vehicle.getModel()));
+            this.type = vehicle.getType().getCode();
+            this.price = vehicle.getPrice();
+            this.acquiredAt = vehicle.getAcquisitionTime() != Vehicle.NO_TIME ? vehicle.getAcquisitionTime() : null;
+            this.dealerId = foldedCode(vehicle.getDealerId());
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();                 // Indexed vehicles by id
+    private Entry[] slots = new Entry[1024];                                    // Slot -> indexed vehicle, null if free
+    private int[] freeSlots = new int[16];                                      // Slots released by removals
+    private int freeCount;                                                      // Entries in use in freeSlots
+    private int highWater;                                                      // Slots ever handed out
+    private final Map<String, Posting> idGrams = new HashMap<>();               // Id trigrams -> slots
+    private final Map<String, Posting> manufacturerGrams = new HashMap<>();     // Manufacturer trigrams -> slots
+    private final Map<String, Posting> modelGrams = new HashMap<>();            // Model trigrams -> slots
+    private final Map<String, Set<String>> byType = new HashMap<>();            // Lower-cased type display name -> vehicle ids
+    private final Map<String, Set<String>> byDealer = new HashMap<>();          // Dealer id -> vehicle ids
+    private final NavigableMap<Double, Set<String>> byPrice = new TreeMap<>();  // Price -> vehicle ids
+    private final NavigableMap<Long, Set<String>> byAcquisitionDate = new TreeMap<>(); // Acquisition millis -> vehicle ids
+    private long nextSequence;                                                  // Sequence for the next indexed vehicle
+
+    /**
+     * Adds a vehicle to the index, replacing any vehicle indexed under the same id
+     * @param vehicle The vehicle to index
+     */
+    public synchronized void add(Vehicle vehicle) {
+        remove(vehicle.getVehicleId());
+
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        Entry entry = new Entry(vehicle, nextSequence++, slot);
+        entries.put(vehicle.getVehicleId(), entry);
+        slots[slot] = entry;
+        addGrams(idGrams, entry.id, slot);
+        addGrams(manufacturerGrams, entry.manufacturer, slot);
+        addGrams(modelGrams, entry.model, slot);
+        addPosting(byType, TYPE_NAMES[entry.type], vehicle.getVehicleId());
+        addPosting(byDealer, DICTIONARY.value(entry.dealerId), vehicle.getVehicleId());
+        addPosting(byPrice, entry.price, vehicle.getVehicleId());
+        if (entry.acquiredAt != null) {
+            addPosting(byAcquisitionDate, entry.acquiredAt, vehicle.getVehicleId());
+        }
+    }
+
+    /**
+     * Removes a vehicle from the index
+     * @param vehicleId The vehicle ID
+     */
+    public synchronized void remove(String vehicleId) {
+        Entry entry = entries.remove(vehicleId);
+        if (entry == null) return;
+
+        removeGrams(idGrams, entry.id, entry.slot);
+        removeGrams(manufacturerGrams, entry.manufacturer, entry.slot);
+        removeGrams(modelGrams, entry.model, entry.slot);
+        slots[entry.slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = entry.slot;
+        removePosting(byType, TYPE_NAMES[entry.type], vehicleId);
+        removePosting(byDealer, DICTIONARY.value(entry.dealerId), vehicleId);
+        removePosting(byPrice, entry.price, vehicleId);
+        if (entry.acquiredAt != null) {
+            removePosting(byAcquisitionDate, entry.acquiredAt, vehicleId);
+        }
+    }
+
+    /**
+     * Moves an indexed vehicle to another dealer
+     * @param vehicleId The vehicle ID
+     * @param dealerId The new dealer ID
+     */
+    public synchronized void updateDealer(String vehicleId, String dealerId) {
+        Entry entry = entries.get(vehicleId);
+        if (entry == null) return;
+
+        removePosting(byDealer, DICTIONARY.value(entry.dealerId), vehicleId);
+        entry.dealerId = foldedCode(dealerId);
+        addPosting(byDealer, DICTIONARY.value(entry.dealerId), vehicleId);
+    }
+
+    /**
+     * Finds the vehicles whose field contains the query, ignoring case
+     * @param field The field to match, or ALL for any field
+     * @param query The text to look for
+     * @return The matching vehicles in the order they were indexed
+     * @throws CancellationException If the searching thread is interrupted; the index lock is released at once
+     */
+    public synchronized List<Vehicle> search(Field field, String query) {
+        String normalized = normalize(query).trim();
+        BitSet matches = new BitSet(highWater);
+
+        switch (field) {
+            case ID:
+                matchGrams(idGrams, normalized, entry -> entry.id, matches);
+                break;
+            case MANUFACTURER:
+                matchGrams(manufacturerGrams, normalized, entry -> entry.manufacturer, matches);
+                break;
+            case MODEL:
+                matchGrams(modelGrams, normalized, entry -> entry.model, matches);
+                break;
+            case DEALER_ID:
+                matchKeys(byDealer, normalized, matches);
+                break;
+            case TYPE:
+                matchKeys(byType, normalized, matches);
+                break;
+            case ALL:
+            default:
+                matchGrams(idGrams, normalized, entry -> entry.id, matches);
+                matchGrams(manufacturerGrams, normalized, entry -> entry.manufacturer, matches);
+                matchGrams(modelGrams, normalized, entry -> entry.model, matches);
+                matchKeys(byDealer, normalized, matches);
+                matchKeys(byType, normalized, matches);
+        }
+
+        List<Entry> found = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            checkInterrupted(found.size());
+            found.add(slots[slot]);
+        }
+        found.sort(Comparator.comparingLong(entry -> entry.sequence));
+
+        List<Vehicle> vehicles = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            vehicles.add(entry.vehicle);
+        }
+        return vehicles;
+    }
+
+    /**
+     * Runs a typed query.
+     * The most selective predicate drives the scan: an exact type or dealer posting, or a price or
+     * acquisition date range read straight from the sorted maps. The other predicates are checked
+     * only on those candidates. When the driving range is already in the requested sort order,
+     * the scan stops as soon as the requested page is full.
+     * @param query The query to run
+     * @return The matching vehicles, sorted and paged
+     */
+    public synchronized List<Vehicle> query(VehicleQuery query) {
+        Collection<Set<String>> driver = null;      // Postings to scan for candidates
+        VehicleQuery.SortKey driverOrder = null;    // Sort order the driver yields candidates in, if any
+        int driverSize = Integer.MAX_VALUE;         // Candidates in the driver
+
+        // Exact predicates: a missing posting means nothing can match
+        int type = query.getType() != null ? query.getType().getCode() : -1;
+        int dealerId = query.getDealerId() != null ? DICTIONARY.find(normalize(query.getDealerId())) : -1;
+        if (query.getType() != null) {
+            Set<String> posting = byType.get(TYPE_NAMES[type]);
+            if (posting == null) return new ArrayList<>();
+            driver = Collections.singletonList(posting);
+            driverSize = posting.size();
+        }
+        if (query.getDealerId() != null) {
+            Set<String> posting = dealerId >= 0 ? byDealer.get(DICTIONARY.value(dealerId)) : null;
+            if (posting == null) return new ArrayList<>();
+            if (posting.size() < driverSize) {
+                driver = Collections.singletonList(posting);
+                driverSize = posting.size();
+            }
+        }
+
+        // Range predicates drive the scan when they hold fewer candidates
+        boolean descending = query.isDescending();
+        if (query.hasPriceRange()) {
+            NavigableMap<Double, Set<String>> range =
+                    byPrice.subMap(query.getMinPrice(), true, query.getMaxPrice(), true);
+            if (descending && query.getSortKey() == VehicleQuery.SortKey.PRICE) {
+                range = range.descendingMap();
+            }
+            int size = countUpTo(range.values(), driverSize);
+            if (size < driverSize) {
+                driver = range.values();
+                driverOrder = VehicleQuery.SortKey.PRICE;
+                driverSize = size;
+            }
+        }
+        if (query.hasAcquisitionRange()) {
+            NavigableMap<Long, Set<String>> range =
+                    byAcquisitionDate.subMap(query.getAcquiredFrom(), true, query.getAcquiredTo(), true);
+            if (descending && query.getSortKey() == VehicleQuery.SortKey.ACQUISITION_DATE) {
+                range = range.descendingMap();
+            }
+            int size = countUpTo(range.values(), driverSize);
+            if (size < driverSize) {
+                driver = range.values();
+                driverOrder = VehicleQuery.SortKey.ACQUISITION_DATE;
+                driverSize = size;
+            }
+        }
+
+        // Without predicates, scan the whole fleet, in price order if that is the requested order
+        if (driver == null) {
+            if (query.getSortKey() == VehicleQuery.SortKey.PRICE) {
+                driver = (descending ? byPrice.descendingMap() : byPrice).values();
+                driverOrder = VehicleQuery.SortKey.PRICE;
+            } else {
+                driver = Collections.singletonList(entries.keySet());
+            }
+        }
+
+        boolean presorted = driverOrder != null && driverOrder == query.getSortKey();
+        long wanted = (long) query.getOffset() + query.getLimit();
+        List<Entry> found = new ArrayList<>();
+        scan:
+        for (Set<String> posting : driver) {
+            for (String vehicleId : posting) {
+                Entry entry = entries.get(vehicleId);
+                if (!matches(entry, query, type, dealerId)) continue;
+                found.add(entry);
+                if (presorted && found.size() >= wanted) break scan;
+            }
+        }
+
+        if (!presorted) {
+            Comparator<Vehicle> comparator = query.comparator();
+            if (comparator != null) {
+                found.sort((a, b) -> comparator.compare(a.vehicle, b.vehicle));
+            } else {
+                found.sort(Comparator.comparingLong(entry -> entry.sequence));
+            }
+        }
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = query.getOffset(); i < found.size() && i < wanted; i++) {
+            vehicles.add(found.get(i).vehicle);
+        }
+        return vehicles;
+    }
+
+    /**
+     * Gets the number of indexed vehicles
+     * @return The vehicle count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks every predicate of a query against an indexed vehicle
+     */
+    private static boolean matches(Entry entry, VehicleQuery query, int type, int dealerId) {
+        if (type >= 0 && type != entry.type) return false;
+        if (dealerId >= 0 && dealerId != entry.dealerId) return false;
+        if (query.hasPriceRange() && (entry.price < query.getMinPrice() || entry.price > query.getMaxPrice())) {
+            return false;
+        }
+        if (query.hasAcquisitionRange() && (entry.acquiredAt == null
+                || entry.acquiredAt < query.getAcquiredFrom() || entry.acquiredAt > query.getAcquiredTo())) {
+            return false;
+        }
+        return query.matchesRentalStatus(entry.vehicle);
+    }
+
+    /**
+     * Counts the ids in a range of postings, giving up once the count reaches a limit
+     */
+    private static int countUpTo(Collection<Set<String>> postings, int limit) {
+        int count = 0;
+        for (Set<String> posting : postings) {
+            count += posting.size();
+            if (count >= limit) return limit;
+        }
+        return count;
+    }
+
+    /**
+     * Collects the slots of the vehicles whose gram-indexed field contains the query
+     */
+    private void matchGrams(Map<String, Posting> grams, String query,
+                            Function<Entry, String> value, BitSet matches) {
+        // Queries shorter than a trigram match most of the fleet, so check every vehicle
+        if (query.length() < GRAM) {
+            for (int slot = 0; slot < highWater; slot++) {
+                checkInterrupted(slot);
+                Entry entry = slots[slot];
+                if (entry != null && value.apply(entry).contains(query)) {
+                    matches.set(slot);
+                }
+            }
+            return;
+        }
+
+        // Start from the rarest trigram and keep only vehicles that really contain the whole query
+        Posting smallest = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            Posting posting = grams.get(query.substring(i, i + GRAM));
+            if (posting == null) return;
+            if (smallest == null || posting.size < smallest.size) {
+                smallest = posting;
+            }
+        }
+        for (int i = 0; i < smallest.size; i++) {
+            checkInterrupted(i);
+            int slot = smallest.slots[i];
+            if (value.apply(slots[slot]).contains(query)) {
+                matches.set(slot);
+            }
+        }
+    }
+
+    /**
+     * Collects the slots of the vehicles whose exact-match key contains the query; there are few distinct keys
+     */
+    private void matchKeys(Map<String, Set<String>> postings, String query, BitSet matches) {
+        for (Map.Entry<String, Set<String>> posting : postings.entrySet()) {
+            if (posting.getKey().contains(query)) {
+                int checked = 0;
+                for (String vehicleId : posting.getValue()) {
+                    checkInterrupted(checked++);
+                    matches.set(entries.get(vehicleId).slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Abandons a search whose thread was interrupted, looking at the flag once every CANCEL_CHECK_INTERVAL vehicles.
+     * A replaced GUI search is interrupted, so it stops holding the index lock and the search thread.
+     */
+    private static void checkInterrupted(int checked) {
+        if (checked % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search cancelled");
+        }
+    }
+
+    private static void addGrams(Map<String, Posting> grams, String value, int slot) {
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.computeIfAbsent(value.substring(i, i + GRAM), gram -> new Posting()).add(slot);
+        }
+    }
+
+    private static void removeGrams(Map<String, Posting> grams, String value, int slot) {
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            String gram = value.substring(i, i + GRAM);
+            Posting posting = grams.get(gram);
+            if (posting != null && posting.remove(slot) && posting.size == 0) {
+                grams.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Hands out a new slot, growing the slot table when it is full
+     */
+    private int nextSlot() {
+        if (highWater == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        return highWater++;
+    }
+
+    private static <K> void addPosting(Map<K, Set<String>> postings, K key, String vehicleId) {
+        postings.computeIfAbsent(key, k -> new HashSet<>()).add(vehicleId);
+    }
+
+    private static <K> void removePosting(Map<K, Set<String>> postings, K key, String vehicleId) {
+        Set<String> posting = postings.get(key);
+        if (posting == null) return;
+        posting.remove(vehicleId);
+        if (posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static String[] typeNames() {
+        String[] names = new String[VehicleType.count()];
+        for (VehicleType type : VehicleType.values()) {
+            names[type.getCode()] = normalize(type.getDisplayName());
+        }
+        return names;
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Gets the dictionary code of a repeated field's lower-cased value; a missing value is the empty string
+     */
+    private static int foldedCode(String value) {
+        return DICTIONARY.foldedCode(DICTIONARY.code(value != null ? value : ""));
+    }
+
+    /**
+     * The slots of the vehicles holding one trigram, as a sorted int array
+     */
+    private static final class Posting {
+        int[] slots = new int[2];   // Sorted slots; entries past size are unused
+        int size;                   // Slots in use
+
+        void add(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) return;
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index < 0) return false;
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
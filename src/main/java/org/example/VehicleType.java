@@ -0,0 +1,105 @@
+package org.example;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The VehicleType enum is the one place that knows every kind of vehicle.
+ * Each type carries a stable numeric code for binary formats and per-type arrays, the name used in
+ * JSON and XML, the name shown to users, whether it may be rented, and how to create one.
+ * A new type is added here and as a Vehicle subclass returning it; loaders, indexes, statistics and
+ * the GUI pick it up from this list.
+ */
+public enum VehicleType {
+    SUV(0, "suv", "SUV", true, org.example.SUV.class, org.example.SUV::new),
+    SEDAN(1, "sedan", "Sedan", true, Sedan.class, Sedan::new),
+    PICKUP(2, "pickup", "Pickup", true, Pickup.class, Pickup::new),
+    SPORTS_CAR(3, "sports car", "Sports Car", false, SportsCar.class, SportsCar::new);
+
+    private static final VehicleType[] BY_CODE = new VehicleType[values().length];   // Code -> type
+    private static final Map<String, VehicleType> BY_NAME = new HashMap<>();         // Lower-cased names -> type
+
+    static {
+        for (VehicleType type : values()) {
+            BY_CODE[type.code] = type;
+            BY_NAME.put(type.key, type);
+            BY_NAME.put(type.displayName.toLowerCase(Locale.ROOT), type);
+            BY_NAME.put(type.vehicleClass.getSimpleName().toLowerCase(Locale.ROOT), type);
+        }
+    }
+
+    private final int code;                                 // Stable code, stored in binary snapshots
+    private final String key;                               // Name used in JSON and XML
+    private final String displayName;                       // Name shown to users
+    private final boolean rentable;                         // Whether vehicles of this type may be rented
+    private final Class<? extends Vehicle> vehicleClass;    // The class of vehicles of this type
+    private final Supplier<Vehicle> factory;                // Creates an empty vehicle of this type
+
+    VehicleType(int code, String key, String displayName, boolean rentable,
+                Class<? extends Vehicle> vehicleClass, Supplier<Vehicle> factory) {
+        this.code = code;
+        this.key = key;
+        this.displayName = displayName;
+        this.rentable = rentable;
+        this.vehicleClass = vehicleClass;
+        this.factory = factory;
+    }
+
+    public int getCode() { return code; }
+    public String getKey() { return key; }
+    public String getDisplayName() { return displayName; }
+    public boolean isRentable() { return rentable; }
+    public Class<? extends Vehicle> getVehicleClass() { return vehicleClass; }
+
+    /**
+     * Creates an empty vehicle of this type
+     * @return The new vehicle
+     */
+    public Vehicle newVehicle() {
+        return factory.get();
+    }
+
+    /**
+     * Gets the number of types; every code is below this
+     * @return The type count
+     */
+    public static int count() {
+        return BY_CODE.length;
+    }
+
+    /**
+     * Gets the type with a code
+     * @param code The code
+     * @return The type
+     * @throws IllegalArgumentException if no type has the code
+     */
+    public static VehicleType fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown vehicle type code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Finds a type by its JSON/XML name, display name or class name, ignoring case
+     * @param name The name, may be null
+     * @return The type, or null if no type has the name
+     */
+    public static VehicleType fromName(String name) {
+        return name != null ? BY_NAME.get(name.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Gets the type of a vehicle class
+     * @param vehicleClass The vehicle class
+     * @return The type, or null for a class that is not a registered type
+     */
+    public static VehicleType of(Class<? extends Vehicle> vehicleClass) {
+        for (VehicleType type : BY_CODE) {
+            if (type.vehicleClass == vehicleClass) return type;
+        }
+        return null;
+    }
+}
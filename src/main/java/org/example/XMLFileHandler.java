@@ -2,10 +2,22 @@ package org.example;
 
 import org.w3c.dom.*;
 import javax.xml.parsers.*;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public class XMLFileHandler {
+    private final StringDictionary strings = StringDictionary.shared(); // Shares repeated field values between vehicles
 
     /**
      * Parses an XML file into a list of Vehicle objects
@@ -13,6 +25,16 @@ public class XMLFileHandler {
      * @return A list of Vehicle objects
      */
     public List<Vehicle> importXML(File file) {
+        return importXML(file, new HashMap<>());
+    }
+
+    /**
+     * Parses an XML file into a list of Vehicle objects, collecting the dealer names
+     * @param file The XML file to parse
+     * @param dealerNames Receives the name of every dealer that has vehicles, by dealer ID; empty if it has none
+     * @return A list of Vehicle objects
+     */
+    public List<Vehicle> importXML(File file, Map<String, String> dealerNames) {
         List<Vehicle> vehicles = new ArrayList<>();
         try {
             DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -34,8 +56,9 @@ public class XMLFileHandler {
                 NodeList vehicleNodes = dealerElement.getElementsByTagName("Vehicle");
                 for (int j = 0; j < vehicleNodes.getLength(); j++) {
                     Element vehicleElement = (Element) vehicleNodes.item(j);
-                    Vehicle vehicle = createVehicleFromElement(vehicleElement, dealerId, dealerName);
+                    Vehicle vehicle = createVehicleFromElement(vehicleElement, dealerId);
                     if (vehicle != null) {
+                        dealerNames.putIfAbsent(dealerId, strings.intern(dealerName));
                         vehicles.add(vehicle);
                     }
                 }
@@ -48,51 +71,245 @@ public class XMLFileHandler {
     }
 
     /**
-     * Creates a Vehicle object from an XML element
+     * Streams vehicles from an XML file to a consumer using StAX.
+     * Each vehicle is handed over as soon as its element closes, so memory use does not grow
+     * with the size of the feed.
+     * @param file The XML file to parse
+     * @param consumer Receives each parsed vehicle
+     * @return The number of vehicles handed to the consumer
      */
-    private Vehicle createVehicleFromElement(Element vehicleElement, String dealerId, String dealerName) {
-        try {
-            // Get vehicle type with default if missing
-            String vehicleType = "suv"; // Default type
-            if (vehicleElement.hasAttribute("type")) {
-                vehicleType = vehicleElement.getAttribute("type").toLowerCase();
+    public int importXML(File file, Consumer<Vehicle> consumer) {
+        return importXML(file, consumer, () -> { });
+    }
+
+    /**
+     * Streams vehicles from an XML file to a consumer using StAX, reporting input that could not be used
+     * @param file The XML file to parse
+     * @param consumer Receives each parsed vehicle
+     * @param onMalformed Called for each Vehicle element that could not be converted,
+     *                    and once if the document itself cannot be parsed to the end
+     * @return The number of vehicles handed to the consumer
+     */
+    public int importXML(File file, Consumer<Vehicle> consumer, Runnable onMalformed) {
+        return importXML(file, consumer, onMalformed, (dealerId, dealerName) -> { });
+    }
+
+    /**
+     * Streams vehicles from an XML file to a consumer using StAX, reporting each dealer's name once.
+     * A dealer's Name (or n) must come before its vehicles to be reported.
+     * @param file The XML file to parse
+     * @param consumer Receives each parsed vehicle
+     * @param onMalformed Called for each Vehicle element that could not be converted,
+     *                    and once if the document itself cannot be parsed to the end
+     * @param onDealer Receives the dealer ID and name, empty if it has none, just before the dealer's first vehicle
+     * @return The number of vehicles handed to the consumer
+     */
+    public int importXML(File file, Consumer<Vehicle> consumer, Runnable onMalformed,
+                         BiConsumer<String, String> onDealer) {
+        return importXML(file, consumer, onMalformed, onDealer, bytes -> { });
+    }
+
+    /**
+     * Streams vehicles from an XML file to a consumer using StAX, reporting each dealer's name once
+     * and how many bytes of the file the parser reads as it goes.
+     * @param file The XML file to parse
+     * @param consumer Receives each parsed vehicle
+     * @param onMalformed Called for each Vehicle element that could not be converted,
+     *                    and once if the document itself cannot be parsed to the end
+     * @param onDealer Receives the dealer ID and name, empty if it has none, just before the dealer's first vehicle
+     * @param onBytesRead Receives the number of bytes of each read from the file
+     * @return The number of vehicles handed to the consumer
+     */
+    public int importXML(File file, Consumer<Vehicle> consumer, Runnable onMalformed,
+                         BiConsumer<String, String> onDealer, LongConsumer onBytesRead) {
+        int count = 0;
+        XMLStreamReader reader = null;
+        try (InputStream in = new CountingInputStream(new FileInputStream(file), onBytesRead)) {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            reader = factory.createXMLStreamReader(in);
+
+            // Current dealer
+            boolean inDealer = false;
+            String dealerId = "";
+            String dealerName = null;
+            boolean dealerReported = false;
+
+            // Current vehicle
+            boolean inVehicle = false;
+            String vehicleType = null;
+            String vehicleId = null;
+            String make = null;
+            String manufacturer = null;
+            String model = null;
+            String priceText = null;
+            String priceUnit = null;
+
+            // Text of the field element being captured, if any
+            String captureTag = null;
+            StringBuilder text = new StringBuilder();
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if (captureTag != null) {
+                        continue;
+                    }
+                    if (tag.equals("Dealer")) {
+                        inDealer = true;
+                        dealerId = attributeOrEmpty(reader, "id");
+                        dealerName = null;
+                        dealerReported = false;
+                    } else if (inDealer && tag.equals("Vehicle")) {
+                        inVehicle = true;
+                        vehicleType = reader.getAttributeValue(null, "type");
+                        vehicleId = reader.getAttributeValue(null, "id");
+                        make = manufacturer = model = priceText = priceUnit = null;
+                        if (dealerName == null) {
+                            dealerName = "";
+                        }
+                    } else if (inVehicle && ((tag.equals("Make") && make == null)
+                            || (tag.equals("Manufacturer") && manufacturer == null)
+                            || (tag.equals("Model") && model == null)
+                            || (tag.equals("Price") && priceText == null))) {
+                        if (tag.equals("Price")) {
+                            priceUnit = reader.getAttributeValue(null, "unit");
+                        }
+                        captureTag = tag;
+                        text.setLength(0);
+                    } else if (inDealer && !inVehicle && (dealerName == null || dealerName.isEmpty())
+                            && (tag.equals("Name") || tag.equals("n"))) {
+                        captureTag = tag;
+                        text.setLength(0);
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (captureTag != null) {
+                        text.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if (captureTag != null) {
+                        if (!tag.equals(captureTag)) {
+                            continue;
+                        }
+                        String value = text.toString();
+                        switch (captureTag) {
+                            case "Make": make = value; break;
+                            case "Manufacturer": manufacturer = value; break;
+                            case "Model": model = value; break;
+                            case "Price": priceText = value; break;
+                            default: dealerName = value;
+                        }
+                        captureTag = null;
+                    } else if (inVehicle && tag.equals("Vehicle")) {
+                        inVehicle = false;
+                        // Try alternate tag name "Manufacturer" when Make is missing or empty
+                        String vehicleMake = make != null && !make.isEmpty() ? make
+                                : (manufacturer != null ? manufacturer : "");
+                        Vehicle vehicle = createVehicle(vehicleType, vehicleId, vehicleMake,
+                                model != null ? model : "", priceText, priceUnit, dealerId);
+                        if (vehicle != null) {
+                            if (!dealerReported) {
+                                onDealer.accept(strings.intern(dealerId), strings.intern(dealerName));
+                                dealerReported = true;
+                            }
+                            consumer.accept(vehicle);
+                            count++;
+                        } else {
+                            onMalformed.run();
+                        }
+                    } else if (inDealer && tag.equals("Dealer")) {
+                        inDealer = false;
+                    }
+                }
+            }
+        } catch (XMLStreamException | IOException e) {
+            System.err.println("Error parsing XML file: " + e.getMessage());
+            onMalformed.run();
+            // Keep whatever vehicles were successfully parsed
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Nothing else to clean up
+                }
             }
+        }
+        return count;
+    }
 
-            // Get vehicle ID with generated ID if missing
-            String vehicleId = "";
-            if (vehicleElement.hasAttribute("id")) {
-                vehicleId = vehicleElement.getAttribute("id");
-            } else {
-                vehicleId = generateRandomId();
+    /**
+     * Gets an attribute value, or an empty string if it is missing
+     */
+    private String attributeOrEmpty(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Creates a Vehicle object from an XML element
+     */
+    private Vehicle createVehicleFromElement(Element vehicleElement, String dealerId) {
+        // Get make and model
+        String make = getElementValue(vehicleElement, "Make");
+        if (make.isEmpty()) {
+            // Try alternate tag name "Manufacturer"
+            make = getElementValue(vehicleElement, "Manufacturer");
+        }
+
+        String model = getElementValue(vehicleElement, "Model");
+
+        // Get price element safely
+        String priceText = null;
+        String priceUnit = null;
+        NodeList priceNodes = vehicleElement.getElementsByTagName("Price");
+        if (priceNodes.getLength() > 0) {
+            Element priceElement = (Element) priceNodes.item(0);
+            priceText = priceElement.getTextContent();
+            if (priceElement.hasAttribute("unit")) {
+                priceUnit = priceElement.getAttribute("unit");
             }
+        }
 
-            // Get make and model
-            String make = getElementValue(vehicleElement, "Make");
-            if (make.isEmpty()) {
-                // Try alternate tag name "Manufacturer"
-                make = getElementValue(vehicleElement, "Manufacturer");
+        return createVehicle(
+                vehicleElement.hasAttribute("type") ? vehicleElement.getAttribute("type") : null,
+                vehicleElement.hasAttribute("id") ? vehicleElement.getAttribute("id") : null,
+                make, model, priceText, priceUnit, dealerId);
+    }
+
+    /**
+     * Creates a Vehicle object from the values read for one Vehicle element
+     * @param type The type attribute, or null if missing
+     * @param id The id attribute, or null if missing
+     * @param make The make or manufacturer
+     * @param model The model
+     * @param priceText The text of the Price element, or null if missing
+     * @param priceUnit The unit attribute of the Price element, or null if missing
+     * @param dealerId The dealer ID
+     * @return The vehicle, or null if it could not be created
+     */
+    private Vehicle createVehicle(String type, String id, String make, String model, String priceText,
+                                  String priceUnit, String dealerId) {
+        try {
+            // Get vehicle type, defaulting to SUV when missing or unknown
+            VehicleType vehicleType = VehicleType.fromName(type);
+            if (vehicleType == null) {
+                vehicleType = VehicleType.SUV;
             }
 
-            String model = getElementValue(vehicleElement, "Model");
+            // Get vehicle ID with generated ID if missing
+            String vehicleId = id != null ? id : generateRandomId();
 
             // Initialize price with default
             double price = 0.0;
-
-            // Get price element safely
-            NodeList priceNodes = vehicleElement.getElementsByTagName("Price");
-            if (priceNodes.getLength() > 0) {
-                Element priceElement = (Element) priceNodes.item(0);
-
+            if (priceText != null) {
                 try {
-                    // Default to dollars if unit isn't specified
-                    String priceUnit = "dollars";
-                    if (priceElement.hasAttribute("unit")) {
-                        priceUnit = priceElement.getAttribute("unit");
-                    }
+                    price = Double.parseDouble(priceText);
 
-                    price = Double.parseDouble(priceElement.getTextContent());
-
-                    // Convert pounds to dollars
+                    // Convert pounds to dollars; default to dollars if unit isn't specified
                     if ("pounds".equals(priceUnit)) {
                         price = price * 1.25; // Example conversion rate
                     }
@@ -103,35 +320,15 @@ public class XMLFileHandler {
             }
 
             // Create the appropriate vehicle type
-            Vehicle vehicle;
-            switch (vehicleType) {
-                case "suv":
-                    vehicle = new SUV();
-                    break;
-                case "sedan":
-                    vehicle = new Sedan();
-                    break;
-                case "pickup":
-                    vehicle = new Pickup();
-                    break;
-                case "sports car":
-                    vehicle = new SportsCar();
-                    break;
-                default:
-                    // Default to SUV for unknown types
-                    vehicle = new SUV();
-            }
+            Vehicle vehicle = vehicleType.newVehicle();
 
             // Set all vehicle properties
             vehicle.setVehicleId(vehicleId);
-            vehicle.setManufacturer(make);
-            vehicle.setModel(model);
+            vehicle.setManufacturer(strings.intern(make));
+            vehicle.setModel(strings.intern(model));
             vehicle.setPrice(price);
-            vehicle.setDealerId(dealerId);
-            vehicle.setAcquisitionDate(new Date());
-
-            // Store dealer name in metadata (even if empty)
-            vehicle.getMetadata().put("dealer_name", dealerName != null ? dealerName : "");
+            vehicle.setDealerId(strings.intern(dealerId));
+            vehicle.setAcquisitionTime(System.currentTimeMillis());
 
             return vehicle;
         } catch (Exception e) {
@@ -157,4 +354,30 @@ public class XMLFileHandler {
     private String generateRandomId() {
         return "GEN-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
     }
+
+    /**
+     * Reports the number of bytes of every read from the wrapped stream
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongConsumer onBytesRead; // Receives the size of each read
+
+        CountingInputStream(InputStream in, LongConsumer onBytesRead) {
+            super(in);
+            this.onBytesRead = onBytesRead;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) onBytesRead.accept(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) onBytesRead.accept(n);
+            return n;
+        }
+    }
 }
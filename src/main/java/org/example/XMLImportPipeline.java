@@ -0,0 +1,232 @@
+package org.example;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The XMLImportPipeline class imports XML feeds in parallel stages.
+ * Parser threads stream each feed and route every vehicle into a bounded queue chosen by its
+ * dealer id. One worker thread drains each queue, so all vehicles of a dealership are applied
+ * by the same thread, in feed order, without locking across shards.
+ */
+class XMLImportPipeline {
+    private static final Vehicle END_OF_INPUT = new SUV(); // Tells a worker its queue is finished
+    private static final long WORKER_CHECK_MILLIS = 100;   // How long a parser waits on a full queue before checking its worker
+
+    private final XMLFileHandler xmlFileHandler;    // Streams vehicles out of each feed
+    private final int workerCount;                  // Number of shards and worker threads
+    private final int queueCapacity;                // Vehicles buffered per shard before parsers wait
+
+    /**
+     * Constructor that initializes the pipeline
+     * @param xmlFileHandler Streams vehicles out of each feed
+     * @param workerCount Number of shards and worker threads
+     * @param queueCapacity Vehicles buffered per shard before parsers wait
+     */
+    XMLImportPipeline(XMLFileHandler xmlFileHandler, int workerCount, int queueCapacity) {
+        this.xmlFileHandler = xmlFileHandler;
+        this.workerCount = Math.max(1, workerCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Imports the feeds, applying every parsed vehicle on the worker that owns its dealer
+     * @param xmlFiles The XML feeds to import
+     * @param applier Applies one vehicle and reports what happened to it; called concurrently for different shards
+     * @param onDealer Receives each dealer's ID and name on a parser thread, before any of its vehicles is applied
+     * @return The import statistics
+     */
+    ImportStatistics run(List<File> xmlFiles, Function<Vehicle, ImportStatistics.Outcome> applier,
+                         BiConsumer<String, String> onDealer) {
+        return run(xmlFiles, applier, onDealer, (done, total) -> { });
+    }
+
+    /**
+     * Imports the feeds, applying every parsed vehicle on the worker that owns its dealer.
+     * Progress is counted in bytes of the feeds parsed, and reaches the total once every vehicle is applied.
+     * Once the listener asks to stop, parsers stop reading and workers stop applying; vehicles already
+     * applied are left for the caller to take back.
+     * @param xmlFiles The XML feeds to import
+     * @param applier Applies one vehicle and reports what happened to it; called concurrently for different shards
+     * @param onDealer Receives each dealer's ID and name on a parser thread, before any of its vehicles is applied
+     * @param progress Told the bytes parsed so far out of the total size of the feeds, on parser threads,
+     *                 and asked whether to stop
+     * @return The import statistics
+     * @throws CancellationException if the listener asked to stop
+     */
+    ImportStatistics run(List<File> xmlFiles, Function<Vehicle, ImportStatistics.Outcome> applier,
+                         BiConsumer<String, String> onDealer, ProgressListener progress) {
+        long totalBytes = 0;
+        for (File xmlFile : xmlFiles) {
+            totalBytes += xmlFile.length();
+        }
+        // Parsers stop at most a queue ahead of the workers, so bytes parsed track vehicles applied
+        long total = Math.max(1, totalBytes);
+        LongAdder parsedBytes = new LongAdder();
+
+        LongAdder[] counts = new LongAdder[ImportStatistics.Outcome.values().length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+
+        List<BlockingQueue<Vehicle>> queues = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, daemonThreads("xml-import-worker"));
+        ExecutorService parsers = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(xmlFiles.size(), workerCount)), daemonThreads("xml-import-parser"));
+        try {
+            // Apply stage: one worker per shard
+            List<Future<?>> workerResults = new ArrayList<>();
+            for (BlockingQueue<Vehicle> queue : queues) {
+                workerResults.add(workers.submit(() -> {
+                    drain(queue, applier, counts, progress);
+                    return null;
+                }));
+            }
+
+            // Parse stage: one task per feed, routing vehicles to their shard
+            List<Future<?>> parserResults = new ArrayList<>();
+            for (File xmlFile : xmlFiles) {
+                parserResults.add(parsers.submit(() -> {
+                    xmlFileHandler.importXML(xmlFile,
+                            vehicle -> {
+                                if (progress.isCancelled()) {
+                                    throw new CancellationException("Import cancelled");
+                                }
+                                int shard = shardOf(vehicle);
+                                if (!enqueue(queues.get(shard), workerResults.get(shard), vehicle)) {
+                                    throw new IllegalStateException("Import worker stopped");
+                                }
+                            },
+                            () -> counts[ImportStatistics.Outcome.MALFORMED.ordinal()].increment(),
+                            onDealer, bytes -> {
+                                parsedBytes.add(bytes);
+                                progress.progress(Math.min(parsedBytes.sum(), total - 1), total);
+                            });
+                    return null;
+                }));
+            }
+            RuntimeException parseFailure = null;
+            try {
+                waitFor(parserResults);
+            } catch (RuntimeException e) {
+                parseFailure = e;
+            }
+
+            // All feeds parsed or stopped: tell every worker to finish its queue, so none is still applying on return.
+            // A worker that died is reported by waitFor, which comes first so its failure is the one thrown
+            for (int i = 0; i < workerCount; i++) {
+                enqueue(queues.get(i), workerResults.get(i), END_OF_INPUT);
+            }
+            waitFor(workerResults);
+            if (parseFailure != null) {
+                throw parseFailure;
+            }
+            if (progress.isCancelled()) {
+                throw new CancellationException("Import cancelled");
+            }
+            progress.progress(total, total);
+        } finally {
+            parsers.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        return new ImportStatistics(
+                counts[ImportStatistics.Outcome.IMPORTED.ordinal()].sum(),
+                counts[ImportStatistics.Outcome.DUPLICATE.ordinal()].sum(),
+                counts[ImportStatistics.Outcome.ACQUISITION_DISABLED.ordinal()].sum(),
+                counts[ImportStatistics.Outcome.MALFORMED.ordinal()].sum());
+    }
+
+    /**
+     * Applies vehicles from one shard queue until the end marker arrives; once cancelled, the rest are dropped
+     */
+    private void drain(BlockingQueue<Vehicle> queue, Function<Vehicle, ImportStatistics.Outcome> applier,
+                       LongAdder[] counts, ProgressListener progress) throws InterruptedException {
+        while (true) {
+            Vehicle vehicle = queue.take();
+            if (vehicle == END_OF_INPUT) return;
+            if (progress.isCancelled()) continue;
+
+            ImportStatistics.Outcome outcome;
+            try {
+                outcome = applier.apply(vehicle);
+            } catch (RuntimeException e) {
+                System.err.println("Error importing vehicle " + vehicle.getVehicleId() + ": " + e.getMessage());
+                outcome = ImportStatistics.Outcome.MALFORMED;
+            }
+            counts[outcome.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Picks the shard that owns a vehicle's dealer
+     */
+    private int shardOf(Vehicle vehicle) {
+        String dealerId = vehicle.getDealerId();
+        return Math.floorMod(dealerId != null ? dealerId.hashCode() : 0, workerCount);
+    }
+
+    /**
+     * Puts a vehicle on a queue, waiting while the queue is full as long as the worker draining it is alive,
+     * so a worker that died can never leave a parser blocked
+     * @return true if the vehicle was queued, false if the worker has stopped
+     */
+    private boolean enqueue(BlockingQueue<Vehicle> queue, Future<?> worker, Vehicle vehicle) {
+        try {
+            while (!queue.offer(vehicle, WORKER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (worker.isDone()) return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+
+    /**
+     * Waits for every task, rethrowing the first failure
+     */
+    private void waitFor(List<Future<?>> results) {
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    throw (CancellationException) e.getCause();
+                }
+                throw new IllegalStateException("Import failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Creates daemon threads so an abandoned import never keeps the application alive
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
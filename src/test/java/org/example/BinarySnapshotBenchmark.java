@@ -0,0 +1,100 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing a cold load of the binary snapshot with the streaming JSON reader.
+ * The setup prints both file sizes, and the gc profiler reports allocation per load:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.BinarySnapshotBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BinarySnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int vehicleCount;
+
+    private final JSONFileHandler jsonFileHandler = new JSONFileHandler();
+    private final BinarySnapshotHandler binarySnapshotHandler = new BinarySnapshotHandler();
+    private File jsonFile;
+    private File snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] manufacturers = {"Tesla", "Honda", "Toyota", "Ford", "Mazda"};
+        String[] models = {"Model 3", "Accord", "RAV4", "F-150", "Miata"};
+        List<Dealership> dealerships = new ArrayList<>();
+        for (int d = 0; d < 100; d++) {
+            dealerships.add(new Dealership("D" + d, "Dealer " + d));
+        }
+        for (int i = 0; i < vehicleCount; i++) {
+            Vehicle vehicle = new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setManufacturer(manufacturers[i % manufacturers.length]);
+            vehicle.setModel(models[i % models.length]);
+            vehicle.setPrice(20000 + i);
+            vehicle.setDealerId("D" + (i % 100));
+            vehicle.setAcquisitionDate(new Date());
+            dealerships.get(i % 100).addVehicle(vehicle);
+        }
+
+        jsonFile = File.createTempFile("inventory-benchmark", ".json");
+        snapshotFile = BinarySnapshotHandler.snapshotFileFor(jsonFile);
+        jsonFileHandler.writeInventory(dealerships.stream()
+                .flatMap(dealership -> dealership.getVehicles().stream()), jsonFile);
+        binarySnapshotHandler.writeSnapshot(dealerships, snapshotFile, jsonFile);
+        System.out.printf("%n%d vehicles: JSON %,d bytes, binary snapshot %,d bytes%n",
+                vehicleCount, jsonFile.length(), snapshotFile.length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile.toPath());
+        Files.deleteIfExists(snapshotFile.toPath());
+    }
+
+    @Benchmark
+    public int readJson(Blackhole blackhole) {
+        return jsonFileHandler.readInventory(jsonFile, blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean readBinarySnapshot(Blackhole blackhole) {
+        return binarySnapshotHandler.readSnapshot(snapshotFile, new BinarySnapshotHandler.Loader() {
+            @Override
+            public void dealership(String dealerId, String name, boolean acquisitionEnabled) {
+                blackhole.consume(dealerId);
+            }
+
+            @Override
+            public void vehicle(String dealerId, Vehicle vehicle) {
+                blackhole.consume(vehicle);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BinarySnapshotBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,190 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BinarySnapshotHandler class using Arrange-Act-Assert pattern.
+ * Tests focus on round trips of the whole fleet state and on rejecting stale or damaged snapshots.
+ */
+public class BinarySnapshotHandlerTest {
+
+    // Test objects
+    private BinarySnapshotHandler handler;
+    private File snapshotFile;
+
+    // Temporary directory for test files
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        handler = new BinarySnapshotHandler();
+        snapshotFile = tempDir.resolve("inventory.json.snapshot").toFile();
+    }
+
+    /**
+     * Helper method to create a vehicle
+     */
+    private Vehicle vehicle(Vehicle vehicle, String id, String manufacturer, String model, double price, String dealerId) {
+        vehicle.setVehicleId(id);
+        vehicle.setManufacturer(manufacturer);
+        vehicle.setModel(model);
+        vehicle.setPrice(price);
+        vehicle.setDealerId(dealerId);
+        vehicle.setAcquisitionDate(new Date(1515354694451L));
+        return vehicle;
+    }
+
+    /**
+     * Helper method that collects what a snapshot hands to its loader
+     */
+    private static final class CollectingLoader implements BinarySnapshotHandler.Loader {
+        final Map<String, String> names = new LinkedHashMap<>();
+        final Map<String, Boolean> acquisition = new LinkedHashMap<>();
+        final Map<String, String> holders = new LinkedHashMap<>();
+        final List<Vehicle> vehicles = new ArrayList<>();
+
+        @Override
+        public void dealership(String dealerId, String name, boolean acquisitionEnabled) {
+            names.put(dealerId, name);
+            acquisition.put(dealerId, acquisitionEnabled);
+        }
+
+        @Override
+        public void vehicle(String dealerId, Vehicle vehicle) {
+            holders.put(vehicle.getVehicleId(), dealerId);
+            vehicles.add(vehicle);
+        }
+    }
+
+    @Test
+    @DisplayName("Dealerships and vehicles survive a round trip with their rental state and metadata")
+    void testRoundTrip() {
+        // Arrange - Two dealerships, one closed, with every vehicle type
+        Dealership open = new Dealership("D001", "Downtown Motors");
+        Dealership closed = new Dealership("D002");
+        Vehicle suv = vehicle(new SUV(), "SUV001", "Toyota", "RAV4", 28000.0, "D001");
+        Vehicle sedan = vehicle(new Sedan(), "SEDAN001", "Honda", "Accord", 26000.0, "D001");
+        Vehicle pickup = vehicle(new Pickup(), "PICKUP001", "Ford", "F-150", 35000.0, "D002");
+        Vehicle sportsCar = vehicle(new SportsCar(), "SPORTS001", "Mazda", "Miata", 30000.0, "D002");
+        sedan.rent(new Date(1000), new Date(2000));
+        suv.reserve(new Date(5000), new Date(6000));
+        suv.setMetadata("dealer_name", "Downtown Motors");
+        suv.setMetadata("mileage", 1200L);
+        suv.setMetadata("warranty", true);
+        open.addVehicle(suv);
+        open.addVehicle(sedan);
+        closed.addVehicle(pickup);
+        closed.addVehicle(sportsCar);
+        closed.disableAcquisition();
+
+        // Act - Write and read the snapshot
+        assertTrue(handler.writeSnapshot(List.of(open, closed), snapshotFile), "Snapshot should be written");
+        CollectingLoader loader = new CollectingLoader();
+        boolean read = handler.readSnapshot(snapshotFile, loader);
+
+        // Assert - Verify dealerships, types, rentals and metadata
+        assertTrue(read, "Snapshot should be read");
+        assertEquals("Downtown Motors", loader.names.get("D001"), "Dealer name should be kept");
+        assertNull(loader.names.get("D002"), "Missing dealer name should stay null");
+        assertTrue(loader.acquisition.get("D001"), "Open dealership should stay open");
+        assertFalse(loader.acquisition.get("D002"), "Closed dealership should stay closed");
+        assertEquals(4, loader.vehicles.size(), "Should read 4 vehicles");
+        assertEquals("D002", loader.holders.get("PICKUP001"), "Vehicles should come with their dealership");
+
+        Vehicle readSuv = loader.vehicles.get(0);
+        Vehicle readSedan = loader.vehicles.get(1);
+        assertTrue(readSuv instanceof SUV, "SUV type should be kept");
+        assertTrue(readSedan instanceof Sedan, "Sedan type should be kept");
+        assertTrue(loader.vehicles.get(2) instanceof Pickup, "Pickup type should be kept");
+        assertTrue(loader.vehicles.get(3) instanceof SportsCar, "Sports car type should be kept");
+        assertEquals("RAV4", readSuv.getModel(), "Model should be kept");
+        assertEquals(28000.0, readSuv.getPrice(), "Price should be kept");
+        assertEquals(1515354694451L, readSuv.getAcquisitionDate().getTime(), "Acquisition date should be kept");
+        assertTrue(readSedan.isRented(), "Rental should be kept");
+        assertEquals(2000, readSedan.getRentalEndDate().getTime(), "Rental end should be kept");
+        assertFalse(readSuv.isRented(), "Unrented vehicle should stay available");
+        assertTrue(readSuv.getRentalCalendar().hasBooking(5000, 6000), "Reservation should be kept");
+        assertEquals("Downtown Motors", readSuv.getMetadata().get("dealer_name"), "String metadata should be kept");
+        assertEquals(1200L, readSuv.getMetadata().get("mileage"), "Number metadata should be kept");
+        assertEquals(true, readSuv.getMetadata().get("warranty"), "Boolean metadata should be kept");
+    }
+
+    @Test
+    @DisplayName("Repeated strings are stored once and shared after loading")
+    void testDictionaryEncoding() {
+        // Arrange - Many vehicles with the same manufacturer, model and dealer
+        Dealership dealership = new Dealership("D001");
+        for (int i = 0; i < 1000; i++) {
+            dealership.addVehicle(vehicle(new Sedan(), "V" + i, "Honda", "Accord", 20000 + i, "D001"));
+        }
+
+        // Act - Write and read the snapshot
+        handler.writeSnapshot(List.of(dealership), snapshotFile);
+        CollectingLoader loader = new CollectingLoader();
+        handler.readSnapshot(snapshotFile, loader);
+
+        // Assert - Each vehicle costs a few dozen bytes and shares one string instance per value
+        assertTrue(snapshotFile.length() < 1000 * 40, "Snapshot should be compact: " + snapshotFile.length());
+        assertSame(loader.vehicles.get(0).getModel(), loader.vehicles.get(999).getModel(),
+                "Vehicles should share the model string");
+    }
+
+    @Test
+    @DisplayName("A snapshot is only current while its inventory file is unchanged")
+    void testIsCurrentFor() throws IOException {
+        // Arrange - Write a snapshot for an inventory file
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        Files.writeString(inventoryFile.toPath(), "{\"car_inventory\": []}");
+        handler.writeSnapshot(List.of(new Dealership("D001")), snapshotFile, inventoryFile);
+        assertTrue(handler.isCurrentFor(snapshotFile, inventoryFile), "Fresh snapshot should be current");
+
+        // Act - Change the inventory file
+        Files.writeString(inventoryFile.toPath(), "{\"car_inventory\": [ ]}");
+
+        // Assert - The snapshot is stale
+        assertFalse(handler.isCurrentFor(snapshotFile, inventoryFile), "Snapshot should be stale");
+    }
+
+    @Test
+    @DisplayName("Damaged or foreign files are rejected instead of loaded")
+    void testRejectsDamagedSnapshot() throws IOException {
+        // Arrange - A snapshot cut short, and a file of another version
+        Dealership dealership = new Dealership("D001");
+        dealership.addVehicle(vehicle(new Sedan(), "V1", "Honda", "Accord", 20000, "D001"));
+        handler.writeSnapshot(List.of(dealership), snapshotFile);
+        File truncated = tempDir.resolve("truncated.snapshot").toFile();
+        Files.copy(snapshotFile.toPath(), truncated.toPath());
+        try (RandomAccessFile file = new RandomAccessFile(truncated, "rw")) {
+            file.setLength(file.length() - 5);
+        }
+        File otherVersion = tempDir.resolve("other.snapshot").toFile();
+        Files.copy(snapshotFile.toPath(), otherVersion.toPath());
+        try (RandomAccessFile file = new RandomAccessFile(otherVersion, "rw")) {
+            file.seek(4);
+            file.writeShort(BinarySnapshotHandler.VERSION + 1);
+        }
+
+        // Act & Assert - Neither file is read
+        assertFalse(handler.readSnapshot(truncated, new CollectingLoader()), "Truncated snapshot should fail");
+        assertFalse(handler.readSnapshot(otherVersion, new CollectingLoader()), "Other version should fail");
+        assertFalse(handler.readSnapshot(tempDir.resolve("missing").toFile(), new CollectingLoader()),
+                "Missing snapshot should fail");
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing the rental date parser with a SimpleDateFormat built per call, as the
+ * rental path used to do. The gc profiler reports allocation per parse:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.DateParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParserBenchmark {
+
+    private final DateParser parser = new DateParser(ZoneId.systemDefault());
+    private final String[] dates = {"03/25/2025", "03/30/2025", "04/10/2025", "12/31/2025"};
+    private int next;
+
+    @Benchmark
+    public long simpleDateFormat() throws ParseException {
+        return new SimpleDateFormat("MM/dd/yyyy").parse(nextDate()).getTime();
+    }
+
+    @Benchmark
+    public long dateParser() throws ParseException {
+        return parser.parse(nextDate());
+    }
+
+    private String nextDate() {
+        next = (next + 1) & 3;
+        return dates[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DateParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DateParser class using Arrange-Act-Assert pattern.
+ * Tests focus on agreeing with SimpleDateFormat for valid dates and rejecting invalid ones.
+ */
+public class DateParserTest {
+
+    @Test
+    @DisplayName("Valid dates parse to the same instant as SimpleDateFormat in several zones")
+    void testMatchesSimpleDateFormat() throws ParseException {
+        // Arrange - Zones with and without daylight saving, and one whose clocks change at midnight
+        String[] zones = {"UTC", "America/New_York", "Europe/London", "Asia/Kolkata", "America/Sao_Paulo"};
+        String[] dates = {"03/25/2025", "1/5/2024", "02/29/2024", "12/31/1999", "03/09/2025", "11/02/2025", "10/15/2017"};
+
+        for (String zone : zones) {
+            DateParser parser = new DateParser(ZoneId.of(zone));
+            SimpleDateFormat format = new SimpleDateFormat("MM/dd/yyyy");
+            format.setTimeZone(TimeZone.getTimeZone(zone));
+
+            for (String date : dates) {
+                // Act - Parse twice, so the second parse comes from the offset cache
+                long first = parser.parse(date);
+                long second = parser.parse(date);
+
+                // Assert
+                assertEquals(format.parse(date).getTime(), first, date + " in " + zone);
+                assertEquals(first, second, "Cached offset should give the same result for " + date);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Day numbers match java.time across centuries and leap years")
+    void testEpochDay() {
+        // Arrange
+        LocalDate date = LocalDate.of(1600, 1, 1);
+
+        // Act & Assert - Every day over 800 years
+        while (date.getYear() < 2400) {
+            assertEquals(date.toEpochDay(), DateParser.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()),
+                    "Day number of " + date);
+            date = date.plusDays(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed and impossible dates are rejected")
+    void testRejectsInvalidDates() {
+        // Arrange
+        DateParser parser = new DateParser(ZoneId.of("UTC"));
+        String[] invalid = {"", "03/25", "2025-03-25", "13/01/2025", "00/10/2025", "02/29/2025",
+                "04/31/2025", "03/25/25", "03/25/2025x", "003/25/2025", "3//2025", " 03/25/2025"};
+
+        // Act & Assert
+        for (String text : invalid) {
+            assertThrows(ParseException.class, () -> parser.parse(text), "Should reject \"" + text + "\"");
+        }
+        assertThrows(ParseException.class, () -> parser.parse(null), "Should reject null");
+    }
+}
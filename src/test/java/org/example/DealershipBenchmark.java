@@ -0,0 +1,105 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the id-indexed Dealership inventory.
+ * Compares the indexed lookups against the linear list scan the dealership used to do.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.DealershipBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealershipBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int vehicleCount;
+
+    private Vehicle[] fleet;
+    private Dealership dealership;
+    private List<Vehicle> vehicleList;
+    private Date startDate;
+    private Date endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fleet = new Vehicle[vehicleCount];
+        for (int i = 0; i < vehicleCount; i++) {
+            Vehicle vehicle = new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setManufacturer("Honda");
+            vehicle.setModel("Accord");
+            vehicle.setPrice(20000 + i);
+            vehicle.setDealerId("D001");
+            vehicle.setAcquisitionDate(new Date());
+            fleet[i] = vehicle;
+        }
+
+        dealership = new Dealership("D001");
+        for (Vehicle vehicle : fleet) {
+            dealership.addVehicle(vehicle);
+        }
+        vehicleList = dealership.getVehicles();
+        startDate = new Date();
+        endDate = new Date(startDate.getTime() + TimeUnit.DAYS.toMillis(3));
+    }
+
+    private String randomId() {
+        return fleet[ThreadLocalRandom.current().nextInt(vehicleCount)].getVehicleId();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Dealership bulkLoad() {
+        Dealership loaded = new Dealership("D002");
+        for (Vehicle vehicle : fleet) {
+            loaded.addVehicle(vehicle);
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public Vehicle findIndexed() {
+        return dealership.findVehicleById(randomId());
+    }
+
+    @Benchmark
+    public Vehicle findLinearScan() {
+        // The lookup Dealership performed before it was indexed by id
+        String vehicleId = randomId();
+        for (Vehicle vehicle : vehicleList) {
+            if (vehicle.getVehicleId().equals(vehicleId)) {
+                return vehicle;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void rentAndReturn(Blackhole blackhole) {
+        String vehicleId = randomId();
+        blackhole.consume(dealership.rentVehicle(vehicleId, startDate, endDate));
+        blackhole.consume(dealership.returnVehicle(vehicleId));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DealershipBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
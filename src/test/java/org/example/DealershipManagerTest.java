@@ -8,11 +8,23 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -100,6 +112,39 @@ public class DealershipManagerTest {
         return inventoryFile;
     }
 
+    // Helper method to build one XML vehicle element
+    private String xmlVehicle(String id, String make, String model, int price) {
+        return "    <Vehicle type=\"sedan\" id=\"" + id + "\">\n" +
+                "      <Price unit=\"dollars\">" + price + "</Price>\n" +
+                "      <Make>" + make + "</Make>\n" +
+                "      <Model>" + model + "</Model>\n" +
+                "    </Vehicle>\n";
+    }
+
+    // Helper method for a listener that asks to stop once it has been asked a number of times
+    private ProgressListener cancelAfter(int checks) {
+        AtomicInteger asked = new AtomicInteger();
+        return new ProgressListener() {
+            @Override
+            public void progress(long done, long total) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return asked.incrementAndGet() > checks;
+            }
+        };
+    }
+
+    // Helper method to write an XML feed
+    private File createXmlFile(String name, String content) throws IOException {
+        File xmlFile = tempDir.resolve(name).toFile();
+        try (FileWriter writer = new FileWriter(xmlFile)) {
+            writer.write(content);
+        }
+        return xmlFile;
+    }
+
     @Test
     @DisplayName("Adding vehicles to inventory with acquisition enabled")
     void testAddVehicleWithAcquisitionEnabled() {
@@ -313,4 +358,663 @@ public class DealershipManagerTest {
         assertEquals(1, manager.getVehiclesForDisplay().size(), "Should still have 1 vehicle");
         assertTrue(manager.getVehiclesForDisplay().get(0).isRented(), "Vehicle should still be rented");
     }
+
+    @Test
+    @DisplayName("Finding vehicles across the fleet by ID")
+    void testFindVehicle() {
+        // Arrange - Add vehicles and transfer one to another dealership
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.processAddVehicleCommand("D001", suv);
+        manager.processAddVehicleCommand("D001", sedan);
+        manager.enableAcquisition("D002");
+        manager.transferVehicle("D001", "D002", sedan.getVehicleId(), inventoryFile);
+
+        // Act - Look up both vehicles
+        Vehicle foundSuv = manager.findVehicle(suv.getVehicleId());
+        Vehicle foundSedan = manager.findVehicle(sedan.getVehicleId());
+
+        // Assert - Verify the index tracks each vehicle's dealership
+        assertSame(suv, foundSuv, "SUV should be found");
+        assertSame(sedan, foundSedan, "Sedan should be found");
+        assertEquals("D001", manager.findDealerIdForVehicle(suv.getVehicleId()), "SUV should be at D001");
+        assertEquals("D002", manager.findDealerIdForVehicle(sedan.getVehicleId()), "Sedan should be at D002");
+        assertNull(manager.findVehicle("NONEXISTENT"), "Unknown vehicle should not be found");
+    }
+
+    @Test
+    @DisplayName("Vehicle IDs are unique across all dealerships")
+    void testDuplicateIdAcrossDealerships() {
+        // Arrange - Add a vehicle to one dealership
+        manager.processAddVehicleCommand("D001", suv);
+        Vehicle duplicateSuv = new SUV();
+        duplicateSuv.setVehicleId(suv.getVehicleId());
+        duplicateSuv.setManufacturer("Ford");
+        duplicateSuv.setModel("Explorer");
+        duplicateSuv.setDealerId("D002");
+
+        // Act - Try to add a vehicle with the same ID to another dealership
+        boolean result = manager.processAddVehicleCommand("D002", duplicateSuv);
+
+        // Assert - Verify the duplicate was rejected
+        assertFalse(result, "Adding a duplicate ID to another dealership should fail");
+        assertEquals(1, manager.getVehiclesForDisplay().size(), "Manager should have 1 vehicle");
+        assertSame(suv, manager.findVehicle(suv.getVehicleId()), "Original vehicle should remain indexed");
+    }
+
+    @Test
+    @DisplayName("Removed vehicles are dropped from the fleet index")
+    void testRemoveVehicleUpdatesIndex() {
+        // Arrange - Add two vehicles
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.processAddVehicleCommand("D001", suv);
+        manager.processAddVehicleCommand("D001", sedan);
+
+        // Act - Remove one vehicle
+        manager.removeVehicleFromInventory(suv.getDealerId(), suv.getVehicleId(),
+                suv.getManufacturer(), suv.getModel(), suv.getPrice(), inventoryFile);
+
+        // Assert - Verify the index only holds the remaining vehicle
+        assertNull(manager.findVehicle(suv.getVehicleId()), "Removed vehicle should not be found");
+        assertSame(sedan, manager.findVehicle(sedan.getVehicleId()), "Remaining vehicle should still be found");
+    }
+
+    @Test
+    @DisplayName("Removing a vehicle keeps the dealership's acquisition setting")
+    void testRemoveVehicleKeepsDealership() {
+        // Arrange - Add two vehicles, then disable acquisition
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.processAddVehicleCommand("D001", suv);
+        manager.processAddVehicleCommand("D001", sedan);
+        manager.disableAcquisition("D001");
+
+        // Act - Remove a vehicle, then try to add it back
+        boolean removeResult = manager.removeVehicleFromInventory(suv.getDealerId(), suv.getVehicleId(),
+                suv.getManufacturer(), suv.getModel(), suv.getPrice(), inventoryFile);
+        boolean addResult = manager.processAddVehicleCommand("D001", suv);
+
+        // Assert - Verify the dealership still refuses new vehicles
+        assertTrue(removeResult, "Vehicle removal should succeed");
+        assertFalse(addResult, "Acquisition should still be disabled after removal");
+        assertEquals(1, manager.getVehiclesForDealer("D001").size(), "Dealership should have 1 vehicle");
+    }
+
+    @Test
+    @DisplayName("Cannot remove a vehicle when its details do not match")
+    void testRemoveVehicleMismatch() {
+        // Arrange - Add vehicle to inventory
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.processAddVehicleCommand("D001", suv);
+
+        // Act - Try to remove it with the wrong model
+        boolean removeResult = manager.removeVehicleFromInventory(suv.getDealerId(), suv.getVehicleId(),
+                suv.getManufacturer(), "Corolla", suv.getPrice(), inventoryFile);
+
+        // Assert - Verify the vehicle is still there
+        assertFalse(removeResult, "Removal should fail on mismatched details");
+        assertSame(suv, manager.findVehicle(suv.getVehicleId()), "Vehicle should still be in inventory");
+    }
+
+    @Test
+    @DisplayName("Journaled changes are replayed on top of the snapshot")
+    void testJournalReplay() {
+        // Arrange - Make several changes after the first save
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.enableAcquisition("D002");
+        manager.transferVehicle("D001", "D002", sedan.getVehicleId(), inventoryFile);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
+        manager.rentVehicle("D002", sedan.getVehicleId(),
+                dateFormat.format(startDate), dateFormat.format(endDate), inventoryFile);
+
+        File journalFile = InventoryJournal.journalFileFor(inventoryFile);
+        assertTrue(journalFile.length() > 0, "Changes after the first save should be journaled");
+
+        // Act - Load the inventory into a fresh manager
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+
+        // Assert - Verify the replayed state matches
+        assertEquals(2, reloaded.getVehiclesForDisplay().size(), "Should load 2 vehicles");
+        assertEquals("D001", reloaded.findDealerIdForVehicle(suv.getVehicleId()), "SUV should be at D001");
+        assertEquals("D002", reloaded.findDealerIdForVehicle(sedan.getVehicleId()), "Sedan should be at D002");
+        assertTrue(reloaded.findVehicle(sedan.getVehicleId()) instanceof Sedan, "Sedan type should be kept");
+        assertTrue(reloaded.findVehicle(sedan.getVehicleId()).isRented(), "Sedan rental should be replayed");
+    }
+
+    @Test
+    @DisplayName("Journal is folded into the snapshot at the compaction threshold")
+    void testJournalCompaction() {
+        // Arrange - Compact after every two journal records
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File journalFile = InventoryJournal.journalFileFor(inventoryFile);
+        manager.setJournalCompactionThreshold(2);
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        assertTrue(journalFile.length() > 0, "First record should be journaled");
+
+        // Act - Write the second journal record
+        manager.addVehicleToInventory(sportsCar, inventoryFile);
+
+        // Assert - Verify the snapshot holds everything and the journal is empty
+        assertEquals(0, journalFile.length(), "Journal should be empty after compaction");
+        assertEquals(3, new JSONFileHandler().readInventory(inventoryFile).size(), "Snapshot should hold 3 vehicles");
+    }
+
+    @Test
+    @DisplayName("A torn journal tail is cut off so later records survive the next reload")
+    void testTornJournalTail() throws IOException {
+        // Arrange - A journaled sedan followed by half a record, as left by a crash mid-write
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File journalFile = InventoryJournal.journalFileFor(inventoryFile);
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.close();
+        try (FileWriter writer = new FileWriter(journalFile, true)) {
+            writer.write("{\"op\":\"add\",\"vehicle_ty");
+        }
+
+        // Act - Reload, journal one more vehicle, and reload again
+        DealershipManager restarted = new DealershipManager();
+        restarted.readInventoryFile(inventoryFile);
+        assertTrue(restarted.addVehicleToInventory(sportsCar, inventoryFile), "Sports car should be added");
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+
+        // Assert - The record written after the torn one is replayed
+        assertNotNull(reloaded.findVehicle(sedan.getVehicleId()), "Sedan should be reloaded");
+        assertNotNull(reloaded.findVehicle(sportsCar.getVehicleId()), "Record after the torn tail should be replayed");
+    }
+
+    @Test
+    @DisplayName("A corrupt record in the middle of the journal is skipped, not cut off with what follows")
+    void testCorruptJournalRecord() throws IOException {
+        // Arrange - Two journaled vehicles with a complete but corrupt line between them
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File journalFile = InventoryJournal.journalFileFor(inventoryFile);
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.addVehicleToInventory(sportsCar, inventoryFile);
+        List<String> lines = new ArrayList<>(Files.readAllLines(journalFile.toPath()));
+        assertTrue(lines.size() >= 2, "Sedan and sports car should be journaled");
+        lines.add(lines.size() - 1, "{\"op\":\"add\",\"vehicle_ty");
+        Files.write(journalFile.toPath(), lines);
+        long journalLength = journalFile.length();
+
+        // Act
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+
+        // Assert - Both records around the corrupt line are replayed and the file is left alone
+        assertNotNull(reloaded.findVehicle(sedan.getVehicleId()), "Record before the corrupt line should be replayed");
+        assertNotNull(reloaded.findVehicle(sportsCar.getVehicleId()), "Record after the corrupt line should be replayed");
+        assertEquals(journalLength, journalFile.length(), "Journal should not be truncated");
+    }
+
+    @Test
+    @DisplayName("A change that cannot be journaled is written in a full snapshot instead")
+    void testFailedJournalAppendWritesSnapshot() {
+        // Arrange - A saved SUV, and a directory where the journal file should be so appends fail
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        assertTrue(InventoryJournal.journalFileFor(inventoryFile).mkdir(), "Journal path should be blocked");
+
+        // Act
+        boolean added = manager.addVehicleToInventory(sedan, inventoryFile);
+
+        // Assert - The sedan reached the snapshot even though its record could not be appended
+        assertTrue(added, "Sedan should be added");
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+        assertNotNull(reloaded.findVehicle(sedan.getVehicleId()), "Sedan should survive a reload");
+    }
+
+    @Test
+    @DisplayName("Journal is kept when the snapshot cannot be written")
+    void testFailedCompactionKeepsJournal() {
+        // Arrange - A saved SUV, a journaled sedan, and an in-memory vehicle the snapshot cannot write
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File journalFile = InventoryJournal.journalFileFor(inventoryFile);
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        long journalLength = journalFile.length();
+        assertTrue(journalLength > 0, "Sedan should be journaled");
+        Vehicle undated = createSedan("UNDATED", "D001");
+        undated.setAcquisitionTime(Vehicle.NO_TIME);
+        manager.processAddVehicleCommand("D001", undated);
+
+        // Act
+        boolean compacted = manager.compactJournal(inventoryFile);
+
+        // Assert - The journal still holds the sedan, so a reload still finds it
+        assertFalse(compacted, "Compaction should report the failed write");
+        assertEquals(journalLength, journalFile.length(), "Journal should not be truncated");
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+        assertNotNull(reloaded.findVehicle(suv.getVehicleId()), "Saved SUV should be reloaded");
+        assertNotNull(reloaded.findVehicle(sedan.getVehicleId()), "Journaled sedan should be replayed");
+    }
+
+    @Test
+    @DisplayName("Closing writes a binary snapshot that the next start loads instead of the JSON file")
+    void testBinarySnapshotColdStart() throws IOException {
+        // Arrange - Rent a vehicle, close a dealership and shut down
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.rentVehicle("D001", sedan.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        manager.disableAcquisition("D001");
+        manager.close();
+        File snapshotFile = BinarySnapshotHandler.snapshotFileFor(inventoryFile);
+        assertTrue(snapshotFile.exists(), "Closing should write the binary snapshot");
+
+        // Act - Start again from the same inventory file
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+
+        // Assert - State the JSON file does not hold came back from the binary snapshot
+        assertEquals(2, reloaded.getVehiclesForDisplay().size(), "Should load 2 vehicles");
+        assertTrue(reloaded.findVehicle(sedan.getVehicleId()).isRented(), "Rental should be restored");
+        assertEquals(1, reloaded.getStatistics().getRentedVehicles(), "Statistics should count the rental");
+        assertFalse(reloaded.addVehicleToInventory(sportsCar, inventoryFile), "Dealership should stay closed");
+
+        // Act - Rewrite the JSON file behind the snapshot's back and start again
+        new JSONFileHandler().writeInventory(List.of(suv), inventoryFile);
+        DealershipManager restarted = new DealershipManager();
+        restarted.readInventoryFile(inventoryFile);
+
+        // Assert - The stale snapshot is ignored
+        assertEquals(1, restarted.getVehiclesForDisplay().size(), "Changed JSON file should win");
+    }
+
+    @Test
+    @DisplayName("Importing several XML feeds reports per-outcome statistics")
+    void testImportXMLFiles() throws IOException {
+        // Arrange - Two feeds over three dealers, with a duplicate id, a closed dealer and a truncated feed
+        manager.disableAcquisition("D300");
+        File first = createXmlFile("first.xml", "<Dealers>\n" +
+                "  <Dealer id=\"D100\">\n    <Name>North Motors</Name>\n" +
+                xmlVehicle("X1", "Honda", "Accord", 26000) +
+                xmlVehicle("X2", "Toyota", "Camry", 27000) +
+                "  </Dealer>\n" +
+                "  <Dealer id=\"D300\">\n" +
+                xmlVehicle("X9", "Genesis", "G70", 36600) +
+                "  </Dealer>\n</Dealers>");
+        File second = createXmlFile("second.xml", "<Dealers>\n" +
+                "  <Dealer id=\"D200\">\n" +
+                xmlVehicle("X3", "Tesla", "Model 3", 50444) +
+                xmlVehicle("X1", "Honda", "Accord", 26000) +
+                "  </Dealer>\n</Dealers>");
+        File truncated = createXmlFile("truncated.xml", "<Dealers>\n  <Dealer id=\"D400\">\n" +
+                xmlVehicle("X4", "Ford", "Fusion", 22000) + "  <Deal");
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+
+        // Act - Import all feeds at once
+        ImportStatistics statistics = manager.importXMLFiles(List.of(first, second, truncated), inventoryFile);
+
+        // Assert - Verify the statistics and the resulting inventory
+        assertEquals(4, statistics.getImported(), "X1, X2, X3 and X4 should be imported once");
+        assertEquals(1, statistics.getDuplicates(), "The second X1 should be a duplicate");
+        assertEquals(1, statistics.getAcquisitionDisabled(), "X9 should be refused by D300");
+        assertEquals(1, statistics.getMalformed(), "The truncated feed should be counted as malformed");
+        assertEquals(4, manager.getVehiclesForDisplay().size(), "Should hold 4 vehicles");
+        assertEquals("D100", manager.findDealerIdForVehicle("X2"), "X2 should be at D100");
+        assertEquals("D200", manager.findDealerIdForVehicle("X3"), "X3 should be at D200");
+        assertEquals(4, new JSONFileHandler().readInventory(inventoryFile).size(), "Inventory file should hold 4 vehicles");
+        assertEquals("North Motors", manager.getDealerName("D100"), "Dealer name should be kept on the dealership");
+        assertFalse(manager.findVehicle("X2").hasMetadata(), "Dealer name should not be copied onto vehicles");
+
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+        assertEquals("North Motors", reloaded.getDealerName("D100"), "Dealer name should survive a reload");
+    }
+
+    @Test
+    @DisplayName("Importing and exporting report progress that only grows and ends at the total")
+    void testImportAndExportProgress() throws IOException {
+        // Arrange - One feed of two vehicles and listeners that record every report
+        File feed = createXmlFile("feed.xml", "<Dealers>\n  <Dealer id=\"D100\">\n" +
+                xmlVehicle("X1", "Honda", "Accord", 26000) +
+                xmlVehicle("X2", "Toyota", "Camry", 27000) +
+                "  </Dealer>\n</Dealers>");
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File exportFile = tempDir.resolve("export.json").toFile();
+        List<long[]> importReports = new ArrayList<>();
+        List<long[]> exportReports = new ArrayList<>();
+
+        // Act - Import the feed, then export it
+        manager.importXMLFiles(List.of(feed), inventoryFile,
+                (done, total) -> importReports.add(new long[] {done, total}));
+        boolean exported = manager.exportInventoryToExport(inventoryFile, exportFile,
+                (done, total) -> exportReports.add(new long[] {done, total}));
+
+        // Assert - Verify both end at their total without going backwards
+        assertTrue(exported, "Export should succeed");
+        assertFalse(importReports.isEmpty(), "Import should report progress");
+        for (int i = 1; i < importReports.size(); i++) {
+            assertTrue(importReports.get(i)[0] >= importReports.get(i - 1)[0], "Import progress should not go backwards");
+        }
+        long[] lastImport = importReports.get(importReports.size() - 1);
+        assertEquals(feed.length(), lastImport[1], "Import should be measured in bytes of the feed");
+        assertEquals(lastImport[1], lastImport[0], "Import should end at its total");
+        assertEquals(2, exportReports.size(), "Export should report once per vehicle");
+        assertArrayEquals(new long[] {2, 2}, exportReports.get(1), "Export should end at its total");
+    }
+
+    @Test
+    @DisplayName("A cancelled import takes back what it applied and leaves the inventory file alone")
+    void testCancelledImportChangesNothing() throws IOException {
+        // Arrange - A saved SUV and a feed of 200 vehicles, cancelled part way through
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        StringBuilder feed = new StringBuilder("<Dealers>\n  <Dealer id=\"D100\">\n");
+        for (int i = 0; i < 200; i++) {
+            feed.append(xmlVehicle("X" + i, "Honda", "Accord", 26000));
+        }
+        File xmlFile = createXmlFile("feed.xml", feed.append("  </Dealer>\n</Dealers>").toString());
+        byte[] inventoryBefore = Files.readAllBytes(inventoryFile.toPath());
+
+        // Act & Assert
+        assertThrows(CancellationException.class,
+                () -> manager.importXMLFiles(List.of(xmlFile), inventoryFile, cancelAfter(50)),
+                "Import should report the cancellation");
+        assertEquals(1, manager.getVehiclesForDisplay().size(), "Only the SUV should remain");
+        assertEquals(1, manager.getStatistics().getTotalVehicles(), "Statistics should be taken back too");
+        assertEquals(0, manager.summarize(new VehicleQuery().dealer("D100")).getCount(), "Columns should be taken back too");
+        assertArrayEquals(inventoryBefore, Files.readAllBytes(inventoryFile.toPath()), "Inventory file should not change");
+        assertEquals(0, InventoryJournal.journalFileFor(inventoryFile).length(), "Nothing should be journaled");
+    }
+
+    @Test
+    @DisplayName("A cancelled load takes back every vehicle it added")
+    void testCancelledLoadChangesNothing() {
+        // Arrange
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.compactJournal(inventoryFile);
+        DealershipManager restarted = new DealershipManager();
+
+        // Act & Assert
+        assertThrows(CancellationException.class,
+                () -> restarted.readInventoryFile(inventoryFile, cancelAfter(1)), "Load should report the cancellation");
+        assertTrue(restarted.getVehiclesForDisplay().isEmpty(), "No vehicle should stay loaded");
+        assertNull(restarted.findVehicle(suv.getVehicleId()), "SUV should be taken back");
+        assertEquals(0, restarted.getStatistics().getTotalVehicles(), "Statistics should be taken back too");
+    }
+
+    @Test
+    @DisplayName("A cancelled export leaves the previous export file as it was")
+    void testCancelledExportKeepsOldFile() throws IOException {
+        // Arrange - A first full export
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        File exportFile = tempDir.resolve("export.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        assertTrue(manager.exportInventoryToExport(inventoryFile, exportFile), "First export should succeed");
+        byte[] exportedBefore = Files.readAllBytes(exportFile.toPath());
+        manager.addVehicleToInventory(sedan, inventoryFile);
+
+        // Act & Assert - The second export is stopped after its first vehicle
+        assertThrows(CancellationException.class,
+                () -> manager.exportInventoryToExport(inventoryFile, exportFile, cancelAfter(1)),
+                "Export should report the cancellation");
+        assertArrayEquals(exportedBefore, Files.readAllBytes(exportFile.toPath()), "Old export should be kept");
+    }
+
+    @Test
+    @DisplayName("Concurrent adds, transfers and rentals never lose or duplicate a vehicle")
+    void testConcurrentMutations() throws Exception {
+        // Arrange - Four dealerships sharing 200 vehicles, and a small threshold so compactions run under load
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.setJournalCompactionThreshold(50);
+        String[] dealerIds = {"D1", "D2", "D3", "D4"};
+        for (String dealerId : dealerIds) {
+            manager.enableAcquisition(dealerId);
+        }
+        for (int i = 0; i < 200; i++) {
+            manager.processAddVehicleCommand(dealerIds[i % 4], createSedan("V" + i, dealerIds[i % 4]));
+        }
+        manager.compactJournal(inventoryFile);
+
+        int threads = 8;
+        int operationsPerThread = 500;
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        // Act - Hammer the manager from several threads at once
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int op = 0; op < operationsPerThread; op++) {
+                    String vehicleId = "V" + random.nextInt(200);
+                    String dealerId = manager.findDealerIdForVehicle(vehicleId);
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            String targetId = dealerIds[random.nextInt(4)];
+                            if (dealerId != null && !dealerId.equals(targetId)) {
+                                manager.transferVehicle(dealerId, targetId, vehicleId, inventoryFile);
+                            }
+                            break;
+                        case 1:
+                            manager.rentVehicle(dealerId, vehicleId, "03/25/2025", "03/30/2025", inventoryFile);
+                            break;
+                        case 2:
+                            manager.returnVehicle(dealerId, vehicleId, inventoryFile);
+                            break;
+                        default:
+                            String newDealerId = dealerIds[random.nextInt(4)];
+                            if (manager.addVehicleToInventory(createSedan("T" + thread + "-" + op, newDealerId), inventoryFile)) {
+                                added.incrementAndGet();
+                            }
+                            // Adding an existing id must always be refused
+                            assertFalse(manager.addVehicleToInventory(createSedan(vehicleId, newDealerId), inventoryFile),
+                                    "Duplicate ids should be refused");
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Workers should finish");
+
+        // Assert - Every vehicle is held exactly once, by the dealership the index points at
+        List<Vehicle> vehicles = manager.getVehiclesForDisplay();
+        Set<String> ids = new HashSet<>();
+        for (Vehicle vehicle : vehicles) {
+            assertTrue(ids.add(vehicle.getVehicleId()), "Vehicle " + vehicle.getVehicleId() + " should be held once");
+            assertEquals(vehicle.getDealerId(), manager.findDealerIdForVehicle(vehicle.getVehicleId()),
+                    "Index should point at the dealership holding " + vehicle.getVehicleId());
+        }
+        assertEquals(200 + added.get(), vehicles.size(), "No vehicle should be lost or duplicated");
+
+        // Assert - The snapshot plus journal replays to the same fleet
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+        assertEquals(vehicles.size(), reloaded.getVehiclesForDisplay().size(), "Reloaded fleet should match");
+        for (Vehicle vehicle : vehicles) {
+            assertEquals(vehicle.getDealerId(), reloaded.findDealerIdForVehicle(vehicle.getVehicleId()),
+                    "Reloaded dealership should match for " + vehicle.getVehicleId());
+        }
+    }
+
+    @Test
+    @DisplayName("Available vehicles exclude those booked during the period")
+    void testFindAvailableVehicles() throws Exception {
+        // Arrange - Three vehicles at one dealer, one rented and one reserved for later
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.addVehicleToInventory(sportsCar, inventoryFile);
+        manager.addVehicleToInventory(createSedan("SEDAN002", "D002"), inventoryFile);
+        manager.rentVehicle("D001", suv.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        assertTrue(manager.reserveVehicle("D001", sedan.getVehicleId(), "04/10/2025", "04/12/2025", inventoryFile),
+                "Future reservation should succeed");
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
+
+        // Act - Query periods that overlap the rental, the reservation, and neither
+        List<Vehicle> duringRental = manager.findAvailableVehicles("D001",
+                dateFormat.parse("03/28/2025"), dateFormat.parse("04/01/2025"));
+        List<Vehicle> duringReservation = manager.findAvailableVehicles("D001",
+                dateFormat.parse("04/11/2025"), dateFormat.parse("04/11/2025"));
+        List<Vehicle> anyDealerLater = manager.findAvailableVehicles(null,
+                dateFormat.parse("05/01/2025"), dateFormat.parse("05/05/2025"));
+
+        // Assert - Booked vehicles and sports cars are excluded
+        assertEquals(List.of(sedan), duringRental, "Only the sedan should be free during the rental");
+        assertEquals(List.of(suv), duringReservation, "Only the SUV should be free during the reservation");
+        assertEquals(3, anyDealerLater.size(), "Every rentable vehicle should be free later");
+        assertFalse(manager.rentVehicle("D001", sedan.getVehicleId(), "04/11/2025", "04/15/2025", inventoryFile),
+                "Renting over a reservation should fail");
+    }
+
+    @Test
+    @DisplayName("Returning a vehicle frees its booking and reservations survive a reload")
+    void testReturnFreesBookingAndReservationsReplay() throws Exception {
+        // Arrange - Rent and return one vehicle, reserve another
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.rentVehicle("D001", suv.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        manager.returnVehicle("D001", suv.getVehicleId(), inventoryFile);
+        manager.reserveVehicle("D001", sedan.getVehicleId(), "04/10/2025", "04/12/2025", inventoryFile);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
+
+        // Act - Reload the journaled state into a fresh manager
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+        List<Vehicle> available = reloaded.findAvailableVehicles("D001",
+                dateFormat.parse("03/25/2025"), dateFormat.parse("04/12/2025"));
+
+        // Assert - The returned SUV is free again and the sedan is still reserved
+        assertEquals(1, available.size(), "Only one vehicle should be free");
+        assertEquals(suv.getVehicleId(), available.get(0).getVehicleId(), "Returned SUV should be free");
+    }
+
+    @Test
+    @DisplayName("Rentals and reservations survive a compaction into the JSON snapshot")
+    void testRentalsSurviveCompaction() throws Exception {
+        // Arrange - Rent the SUV, reserve the sedan, then fold the journal into the JSON file
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.rentVehicle("D001", suv.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        manager.reserveVehicle("D001", sedan.getVehicleId(), "04/10/2025", "04/12/2025", inventoryFile);
+        assertTrue(manager.compactJournal(inventoryFile), "Compaction should succeed");
+        assertFalse(BinarySnapshotHandler.snapshotFileFor(inventoryFile).exists(), "Only the JSON file should be left");
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
+
+        // Act - Reload from the JSON file alone
+        DealershipManager reloaded = new DealershipManager();
+        reloaded.readInventoryFile(inventoryFile);
+
+        // Assert - The rental and the reservation are both still in force
+        assertTrue(reloaded.findVehicle(suv.getVehicleId()).isRented(), "SUV should still be rented");
+        assertEquals(1, reloaded.getStatistics().getRentedVehicles(), "Rental should be counted");
+        assertTrue(reloaded.findAvailableVehicles("D001",
+                dateFormat.parse("03/28/2025"), dateFormat.parse("04/11/2025")).isEmpty(),
+                "Both bookings should be indexed again");
+        assertFalse(reloaded.reserveVehicle("D001", sedan.getVehicleId(), "04/11/2025", "04/11/2025", inventoryFile),
+                "Reserved period should stay booked");
+    }
+
+    @Test
+    @DisplayName("Searches follow vehicles through transfers and removals")
+    void testSearchVehicles() {
+        // Arrange - Two vehicles at D001, one transferred and one removed
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.enableAcquisition("D002");
+
+        // Act
+        manager.transferVehicle("D001", "D002", sedan.getVehicleId(), inventoryFile);
+        manager.removeVehicleFromInventory("D001", suv.getVehicleId(), suv.getManufacturer(),
+                suv.getModel(), suv.getPrice(), inventoryFile);
+
+        // Assert
+        assertEquals(List.of(sedan), manager.searchVehicles(VehicleSearchIndex.Field.DEALER_ID, "d002"),
+                "Transferred sedan should be found at D002");
+        assertTrue(manager.searchVehicles(VehicleSearchIndex.Field.MODEL, "rav").isEmpty(),
+                "Removed SUV should not be found");
+    }
+
+    @Test
+    @DisplayName("Dashboard statistics follow adds, rentals, transfers and removals")
+    void testStatistics() {
+        // Arrange - Three vehicles at D001, one rented, one transferred and one removed
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.addVehicleToInventory(sedan, inventoryFile);
+        manager.addVehicleToInventory(sportsCar, inventoryFile);
+        manager.enableAcquisition("D002");
+
+        // Act
+        manager.rentVehicle("D001", suv.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        manager.transferVehicle("D001", "D002", sedan.getVehicleId(), inventoryFile);
+        manager.removeVehicleFromInventory("D001", sportsCar.getVehicleId(), sportsCar.getManufacturer(),
+                sportsCar.getModel(), sportsCar.getPrice(), inventoryFile);
+        FleetStatistics.Snapshot statistics = manager.getStatistics();
+
+        // Assert
+        assertEquals(2, statistics.getTotalVehicles(), "Two vehicles should remain");
+        assertEquals(1, statistics.getRentedVehicles(), "The SUV should be rented");
+        assertEquals(1L, statistics.getVehiclesByDealer().get("D002"), "The sedan should count at D002");
+        assertEquals(28000.0, statistics.getAveragePrice("D001"), 0.01, "Only the SUV should be priced at D001");
+        assertNull(statistics.getVehiclesByType().get("Sports Car"), "Removed sports car should not be counted");
+
+        FleetColumns.Summary rentedAtD001 = manager.summarize(new VehicleQuery().dealer("D001").rented(true));
+        assertEquals(1, rentedAtD001.getCount(), "Column scan should see the rented SUV at D001");
+        assertEquals(28000.0, rentedAtD001.getAveragePrice(), 0.01, "Column scan should price the SUV");
+        assertEquals(1, manager.summarizeBy(FleetColumns.GroupBy.DEALER, new VehicleQuery())
+                .get("D002").getCount(), "Column scan should see the sedan at D002");
+    }
+
+    @Test
+    @DisplayName("Fleet listeners are told about every change as it happens")
+    void testFleetListener() {
+        // Arrange - Deliver each change right away
+        List<FleetEvent> events = new ArrayList<>();
+        manager.addFleetListener(events::addAll, Runnable::run);
+        File inventoryFile = tempDir.resolve("inventory.json").toFile();
+
+        // Act
+        manager.addVehicleToInventory(suv, inventoryFile);
+        manager.enableAcquisition("D002");
+        manager.rentVehicle("D001", suv.getVehicleId(), "03/25/2025", "03/30/2025", inventoryFile);
+        manager.returnVehicle("D001", suv.getVehicleId(), inventoryFile);
+        manager.transferVehicle("D001", "D002", suv.getVehicleId(), inventoryFile);
+        manager.removeVehicleFromInventory("D002", suv.getVehicleId(), suv.getManufacturer(),
+                suv.getModel(), suv.getPrice(), inventoryFile);
+
+        // Assert
+        List<FleetEvent.Type> types = new ArrayList<>();
+        events.forEach(event -> types.add(event.getType()));
+        assertEquals(List.of(FleetEvent.Type.DEALER_CREATED, FleetEvent.Type.VEHICLE_ADDED,
+                FleetEvent.Type.DEALER_CREATED, FleetEvent.Type.VEHICLE_RENTED, FleetEvent.Type.VEHICLE_RETURNED,
+                FleetEvent.Type.VEHICLE_TRANSFERRED, FleetEvent.Type.VEHICLE_REMOVED), types,
+                "Every change should be reported in order");
+        assertEquals("D001", events.get(5).getPreviousDealerId(), "Transfer should name the source dealer");
+    }
+
+    // Helper method to create a sedan at a dealership
+    private Vehicle createSedan(String vehicleId, String dealerId) {
+        Vehicle vehicle = new Sedan();
+        vehicle.setVehicleId(vehicleId);
+        vehicle.setManufacturer("Honda");
+        vehicle.setModel("Accord");
+        vehicle.setPrice(26000.0);
+        vehicle.setDealerId(dealerId);
+        vehicle.setAcquisitionDate(new Date());
+        return vehicle;
+    }
 }
@@ -6,9 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -260,4 +262,93 @@ public class DealershipTest {
         // Assert - Verify null is returned
         assertNull(foundVehicle, "Finding non-existent vehicle should return null");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Inventory keeps vehicles in insertion order")
+    void testVehicleOrderPreserved() {
+        // Arrange - Add vehicles in a known order
+        dealership.addVehicle(sedan);
+        dealership.addVehicle(suv);
+        dealership.addVehicle(sportsCar);
+
+        // Act - Get the inventory
+        List<Vehicle> vehicles = dealership.getVehicles();
+
+        // Assert - Verify the display order matches the insertion order
+        assertEquals(3, dealership.getVehicleCount(), "Dealership should have 3 vehicles");
+        assertSame(sedan, vehicles.get(0), "First vehicle should be the sedan");
+        assertSame(suv, vehicles.get(1), "Second vehicle should be the SUV");
+        assertSame(sportsCar, vehicles.get(2), "Third vehicle should be the sports car");
+    }
+
+    @Test
+    @DisplayName("Cannot transfer a vehicle onto an ID the target already holds")
+    void testTransferDuplicateId() {
+        // Arrange - Both dealerships hold a vehicle with the same ID
+        dealership.addVehicle(suv);
+        Vehicle duplicateSuv = new SUV();
+        duplicateSuv.setVehicleId(suv.getVehicleId());
+        duplicateSuv.setDealerId("D002");
+        targetDealership.addVehicle(duplicateSuv);
+
+        // Act - Try to transfer the vehicle
+        boolean transferResult = dealership.transferVehicle(suv.getVehicleId(), targetDealership);
+
+        // Assert - Verify the vehicle stays with the source
+        assertFalse(transferResult, "Transfer should fail on a duplicate ID");
+        assertSame(suv, dealership.findVehicleById(suv.getVehicleId()), "Source should still hold the vehicle");
+        assertEquals("D001", suv.getDealerId(), "Vehicle dealer ID should be unchanged");
+    }
+
+    @Test
+    @DisplayName("Removing vehicles from dealership inventory")
+    void testRemoveVehicle() {
+        // Arrange - Add vehicles to dealership
+        dealership.addVehicle(suv);
+        dealership.addVehicle(sedan);
+
+        // Act - Remove one vehicle
+        boolean removeResult = dealership.removeVehicle(suv.getVehicleId());
+
+        // Assert - Verify only that vehicle was removed
+        assertTrue(removeResult, "Removal should succeed");
+        assertEquals(1, dealership.getVehicles().size(), "Dealership should have 1 vehicle");
+        assertNull(dealership.findVehicleById(suv.getVehicleId()), "Removed vehicle should not be found");
+        assertFalse(dealership.removeVehicle(suv.getVehicleId()), "Removing it again should fail");
+    }
+
+    @Test
+    @DisplayName("Cannot remove rented vehicles")
+    void testRemoveRentedVehicle() {
+        // Arrange - Add and rent a vehicle
+        dealership.addVehicle(sedan);
+        dealership.rentVehicle(sedan.getVehicleId(), startDate, endDate);
+
+        // Act - Try to remove the rented vehicle
+        boolean removeResult = dealership.removeVehicle(sedan.getVehicleId());
+
+        // Assert - Verify removal failed
+        assertFalse(removeResult, "Removing a rented vehicle should fail");
+        assertSame(sedan, dealership.findVehicleById(sedan.getVehicleId()), "Vehicle should still be in inventory");
+    }
+
+    @Test
+    @DisplayName("Available vehicles skip sports cars, booked ids and vehicles that left")
+    void testCollectAvailableVehicles() {
+        // Arrange - Three vehicles, one of them transferred away afterwards
+        dealership.addVehicle(suv);
+        dealership.addVehicle(sedan);
+        dealership.addVehicle(sportsCar);
+        dealership.transferVehicle(sedan.getVehicleId(), targetDealership);
+        List<Vehicle> available = new ArrayList<>();
+        List<Vehicle> availableAtTarget = new ArrayList<>();
+
+        // Act
+        dealership.collectAvailableVehicles(Set.of(), available);
+        targetDealership.collectAvailableVehicles(Set.of(sedan.getVehicleId()), availableAtTarget);
+
+        // Assert
+        assertEquals(List.of(suv), available, "Only the SUV should be left to rent at D001");
+        assertTrue(availableAtTarget.isEmpty(), "Booked sedan should be left out at D002");
+    }
+}
@@ -0,0 +1,86 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing a filtered price aggregate over the primitive columns with the same
+ * aggregate over the Vehicle objects:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.FleetColumnsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FleetColumnsBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int vehicleCount;
+
+    private final FleetColumns columns = new FleetColumns();
+    private final List<Vehicle> fleet = new ArrayList<>();
+    private final VehicleQuery query = new VehicleQuery().type(SUV.class).dealer("D7")
+            .priceBetween(20000, 40000).rented(false);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Shuffled ids, so the objects are spread over the heap like a fleet built up over time.
+        // The columns get their own copy of each vehicle, so the object fleet keeps its fields in the objects.
+        Random random = new Random(1);
+        for (int i = 0; i < vehicleCount; i++) {
+            boolean suv = random.nextBoolean();
+            double price = 10000 + random.nextInt(40000);
+            String dealerId = "D" + random.nextInt(100);
+            fleet.add(createVehicle(suv, i, price, dealerId));
+            columns.add(createVehicle(suv, i, price, dealerId));
+        }
+        Collections.shuffle(fleet, random);
+    }
+
+    /**
+     * Helper method to create a vehicle of the benchmark fleet
+     */
+    private Vehicle createVehicle(boolean suv, int index, double price, String dealerId) {
+        Vehicle vehicle = suv ? new SUV() : new Sedan();
+        vehicle.setVehicleId("V" + index);
+        vehicle.setManufacturer("Toyota");
+        vehicle.setModel("RAV4");
+        vehicle.setPrice(price);
+        vehicle.setDealerId(dealerId);
+        vehicle.setAcquisitionDate(new Date());
+        return vehicle;
+    }
+
+    @Benchmark
+    public double summarizeColumns() {
+        return columns.summarize(query).getAveragePrice();
+    }
+
+    @Benchmark
+    public double summarizeObjects() {
+        return fleet.stream()
+                .filter(vehicle -> vehicle instanceof SUV && vehicle.getDealerId().equalsIgnoreCase("D7")
+                        && vehicle.getPrice() >= 20000 && vehicle.getPrice() <= 40000 && !vehicle.isRented())
+                .mapToDouble(Vehicle::getPrice)
+                .average().orElse(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FleetColumnsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
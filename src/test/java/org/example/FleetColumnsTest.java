@@ -0,0 +1,166 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FleetColumns class using Arrange-Act-Assert pattern.
+ * Tests compare the column scans against aggregates recomputed from the vehicles, whose fields live in the columns.
+ */
+public class FleetColumnsTest {
+
+    /**
+     * Helper method that fills the columns with a random fleet and then rents, transfers and removes part of it
+     */
+    private List<Vehicle> randomFleet(FleetColumns columns, Random random) {
+        String[] manufacturers = {"Toyota", "Honda", "Ford"};
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Vehicle vehicle = random.nextBoolean() ? new SUV() : new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setManufacturer(manufacturers[random.nextInt(manufacturers.length)]);
+            vehicle.setModel("M" + random.nextInt(4));
+            vehicle.setPrice(10000 + random.nextInt(40000));
+            vehicle.setDealerId("D" + random.nextInt(5));
+            vehicle.setAcquisitionDate(new Date(random.nextInt(1000)));
+            columns.add(vehicle);
+            fleet.add(vehicle);
+        }
+        for (int i = 0; i < 1500; i++) {
+            Vehicle vehicle = fleet.get(random.nextInt(fleet.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    if (vehicle.isRented()) {
+                        vehicle.returnVehicle();
+                    } else {
+                        vehicle.rent(null, null);
+                    }
+                    break;
+                case 1:
+                    vehicle.setDealerId("D" + random.nextInt(5));
+                    break;
+                default:
+                    columns.remove(vehicle);
+                    fleet.remove(vehicle);
+            }
+        }
+        return fleet;
+    }
+
+    @Test
+    @DisplayName("Column scans match a recount through adds, rentals, transfers and removals")
+    void testSummaryMatchesRecount() {
+        // Arrange
+        FleetColumns columns = new FleetColumns();
+        List<Vehicle> fleet = randomFleet(columns, new Random(11));
+        VehicleQuery query = new VehicleQuery().type(SUV.class).dealer("d2")
+                .priceBetween(15000, 40000).acquiredBetween(new Date(100), new Date(800)).rented(false);
+
+        // Act
+        FleetColumns.Summary summary = columns.summarize(query);
+
+        // Assert
+        long count = 0;
+        double total = 0;
+        double min = Double.MAX_VALUE;
+        for (Vehicle vehicle : fleet) {
+            long acquired = vehicle.getAcquisitionDate().getTime();
+            if (vehicle instanceof SUV && vehicle.getDealerId().equals("D2")
+                    && vehicle.getPrice() >= 15000 && vehicle.getPrice() <= 40000
+                    && acquired >= 100 && acquired <= 800 && !vehicle.isRented()) {
+                count++;
+                total += vehicle.getPrice();
+                min = Math.min(min, vehicle.getPrice());
+            }
+        }
+        assertEquals(fleet.size(), columns.size(), "Columns should hold the fleet");
+        assertTrue(count > 0, "The query should match part of the fleet");
+        assertEquals(count, summary.getCount(), "Count should match the fleet");
+        assertEquals(0, summary.getRentedCount(), "Only available vehicles should match");
+        assertEquals(total, summary.getTotalPrice(), 0.01, "Total price should match the fleet");
+        assertEquals(min, summary.getMinPrice(), 0.01, "Lowest price should match the fleet");
+    }
+
+    @Test
+    @DisplayName("Grouped aggregates match a recount per column value")
+    void testSummarizeByMatchesRecount() {
+        // Arrange
+        FleetColumns columns = new FleetColumns();
+        List<Vehicle> fleet = randomFleet(columns, new Random(13));
+
+        // Act
+        Map<String, FleetColumns.Summary> byDealer = columns.summarizeBy(FleetColumns.GroupBy.DEALER, new VehicleQuery());
+        Map<String, FleetColumns.Summary> byType = columns.summarizeBy(FleetColumns.GroupBy.TYPE,
+                new VehicleQuery().rented(true));
+
+        // Assert
+        for (Map.Entry<String, FleetColumns.Summary> entry : byDealer.entrySet()) {
+            long count = fleet.stream().filter(vehicle -> vehicle.getDealerId().equals(entry.getKey())).count();
+            assertEquals(count, entry.getValue().getCount(), "Count should match for " + entry.getKey());
+        }
+        assertEquals(fleet.size(), byDealer.values().stream().mapToLong(FleetColumns.Summary::getCount).sum(),
+                "Dealer groups should cover the fleet");
+        long rentedSuvs = fleet.stream().filter(vehicle -> vehicle instanceof SUV && vehicle.isRented()).count();
+        assertEquals(rentedSuvs, byType.get("SUV").getRentedCount(), "Rented SUVs should match");
+    }
+
+    @Test
+    @DisplayName("Predicates on values the fleet never had match nothing")
+    void testUnknownValuesMatchNothing() {
+        // Arrange
+        FleetColumns columns = new FleetColumns();
+        randomFleet(columns, new Random(17));
+
+        // Act
+        FleetColumns.Summary unknownDealer = columns.summarize(new VehicleQuery().dealer("D99"));
+        FleetColumns.Summary unknownType = columns.summarize(new VehicleQuery().type(Pickup.class));
+
+        // Assert
+        assertEquals(0, unknownDealer.getCount(), "Unknown dealer should match nothing");
+        assertEquals(0, unknownType.getCount(), "Unknown type should match nothing");
+        assertEquals(0, unknownType.getAveragePrice(), "Empty summary should average to 0");
+    }
+
+    @Test
+    @DisplayName("Stored vehicles read and write their slot, and a removed vehicle keeps its fields")
+    void testVehiclesAreViewsOnTheirSlot() {
+        // Arrange
+        FleetColumns columns = new FleetColumns();
+        Vehicle sedan = new Sedan();
+        sedan.setVehicleId("V1");
+        sedan.setManufacturer("Honda");
+        sedan.setModel("Accord");
+        sedan.setPrice(20000);
+        sedan.setDealerId("D1");
+        sedan.setAcquisitionDate(new Date(500));
+        columns.add(sedan);
+
+        // Act - Change the stored vehicle through its setters, then remove it
+        sedan.setPrice(25000);
+        sedan.setDealerId("D2");
+        assertTrue(sedan.rent(new Date(1000), new Date(2000)), "Sedan should be rented");
+        FleetColumns.Summary stored = columns.summarize(new VehicleQuery().dealer("D2").rented(true));
+        columns.remove(sedan);
+        sedan.setModel("Civic");
+
+        // Assert
+        assertEquals(1, stored.getCount(), "Columns should see the new dealer and the rental");
+        assertEquals(25000, stored.getTotalPrice(), 0.01, "Columns should see the new price");
+        assertEquals(0, columns.size(), "Columns should be empty after the removal");
+        assertEquals("Honda", sedan.getManufacturer(), "Removed vehicle should keep its manufacturer");
+        assertEquals("Civic", sedan.getModel(), "Removed vehicle should take new values");
+        assertEquals(25000, sedan.getPrice(), 0.01, "Removed vehicle should keep its price");
+        assertEquals("D2", sedan.getDealerId(), "Removed vehicle should keep its dealer");
+        assertEquals(500, sedan.getAcquisitionTime(), "Removed vehicle should keep its acquisition time");
+        assertTrue(sedan.isRented(), "Removed vehicle should keep its rental");
+        assertEquals(0, columns.summarize(new VehicleQuery()).getCount(), "Removed vehicle should not be scanned");
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FleetEventDispatcher class using Arrange-Act-Assert pattern.
+ * Tests hold deliveries back in a queue so several events land in one batch.
+ */
+public class FleetEventDispatcherTest {
+
+    // Test objects
+    private FleetEventDispatcher dispatcher;
+    private List<Runnable> scheduled;
+    private List<List<FleetEvent>> batches;
+    private Vehicle suv;
+    private Vehicle sedan;
+
+    @BeforeEach
+    void setUp() {
+        // Deliveries wait in a list until the test runs them
+        dispatcher = new FleetEventDispatcher();
+        scheduled = new ArrayList<>();
+        batches = new ArrayList<>();
+        dispatcher.addListener(batches::add, scheduled::add);
+
+        suv = new SUV();
+        suv.setVehicleId("SUV001");
+        sedan = new Sedan();
+        sedan.setVehicleId("SEDAN001");
+    }
+
+    /**
+     * Helper method to run the queued deliveries
+     */
+    private void deliver() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Events published before delivery arrive as one batch, in order")
+    void testBatchedDelivery() {
+        // Act
+        dispatcher.publish(FleetEvent.dealerCreated("D001"));
+        dispatcher.publish(FleetEvent.vehicleAdded(suv, "D001"));
+        dispatcher.publish(FleetEvent.vehicleAdded(sedan, "D001"));
+        deliver();
+
+        // Assert
+        assertEquals(1, batches.size(), "Events should be delivered in a single batch");
+        List<FleetEvent> batch = batches.get(0);
+        assertEquals(3, batch.size(), "Batch should hold every event");
+        assertEquals(FleetEvent.Type.DEALER_CREATED, batch.get(0).getType(), "Dealer should come first");
+        assertEquals("SEDAN001", batch.get(2).getVehicleId(), "Vehicles should keep their order");
+    }
+
+    @Test
+    @DisplayName("Changes that cancel out or follow an add are coalesced")
+    void testCoalescing() {
+        // Arrange - The SUV is already known to the listener
+        dispatcher.publish(FleetEvent.vehicleAdded(suv, "D001"));
+        deliver();
+        batches.clear();
+
+        // Act - Rent and return the SUV, move it twice, and add then remove the sedan
+        dispatcher.publish(FleetEvent.vehicleRented(suv, "D001"));
+        dispatcher.publish(FleetEvent.vehicleReturned(suv, "D001"));
+        dispatcher.publish(FleetEvent.vehicleTransferred(suv, "D001", "D002"));
+        dispatcher.publish(FleetEvent.vehicleTransferred(suv, "D002", "D003"));
+        dispatcher.publish(FleetEvent.vehicleAdded(sedan, "D001"));
+        dispatcher.publish(FleetEvent.vehicleTransferred(sedan, "D001", "D002"));
+        dispatcher.publish(FleetEvent.vehicleRemoved(sedan, "D002"));
+        deliver();
+
+        // Assert - Only the net move of the SUV is left
+        assertEquals(1, batches.size(), "Events should be delivered in a single batch");
+        List<FleetEvent> batch = batches.get(0);
+        assertEquals(1, batch.size(), "Only one event should be left");
+        assertEquals(FleetEvent.Type.VEHICLE_TRANSFERRED, batch.get(0).getType(), "SUV should be transferred");
+        assertEquals("D001", batch.get(0).getPreviousDealerId(), "Transfer should start at the first dealer");
+        assertEquals("D003", batch.get(0).getDealerId(), "Transfer should end at the last dealer");
+    }
+
+    @Test
+    @DisplayName("Removed listeners get no new batches")
+    void testRemoveListener() {
+        // Arrange
+        FleetListener listener = batches::add;
+        FleetEventDispatcher other = new FleetEventDispatcher();
+        other.addListener(listener, Runnable::run);
+
+        // Act
+        other.publish(FleetEvent.dealerCreated("D001"));
+        other.removeListener(listener);
+        other.publish(FleetEvent.dealerCreated("D002"));
+
+        // Assert
+        assertEquals(1, batches.size(), "Only the event before removal should be delivered");
+    }
+}
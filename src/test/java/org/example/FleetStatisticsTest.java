@@ -0,0 +1,80 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FleetStatistics class using Arrange-Act-Assert pattern.
+ * Tests compare the running totals against totals recomputed from the vehicles.
+ */
+public class FleetStatisticsTest {
+
+    @Test
+    @DisplayName("Running totals match a recount through adds, transfers, rentals and removals")
+    void testTotalsMatchRecount() {
+        // Arrange - A random fleet spread over five dealers
+        Random random = new Random(7);
+        FleetStatistics statistics = new FleetStatistics();
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Vehicle vehicle = random.nextBoolean() ? new SUV() : new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setPrice(10000 + random.nextInt(40000));
+            vehicle.setDealerId("D" + random.nextInt(5));
+            statistics.vehicleAdded(vehicle, vehicle.getDealerId());
+            fleet.add(vehicle);
+        }
+
+        // Act - Rent, transfer and remove a random share of the fleet
+        for (int i = 0; i < 300; i++) {
+            Vehicle vehicle = fleet.get(random.nextInt(fleet.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    if (vehicle.isRented()) {
+                        vehicle.returnVehicle();
+                        statistics.rentalChanged(false);
+                    } else if (vehicle.rent(null, null)) {
+                        statistics.rentalChanged(true);
+                    }
+                    break;
+                case 1:
+                    String target = "D" + random.nextInt(5);
+                    statistics.vehicleTransferred(vehicle, vehicle.getDealerId(), target);
+                    vehicle.setDealerId(target);
+                    break;
+                default:
+                    statistics.vehicleRemoved(vehicle, vehicle.getDealerId());
+                    fleet.remove(vehicle);
+            }
+        }
+        FleetStatistics.Snapshot snapshot = statistics.snapshot();
+
+        // Assert
+        Map<String, Long> byType = new HashMap<>();
+        Map<String, Long> byDealer = new HashMap<>();
+        Map<String, Double> priceByDealer = new HashMap<>();
+        long rented = 0;
+        for (Vehicle vehicle : fleet) {
+            byType.merge(vehicle.getType().getDisplayName(), 1L, Long::sum);
+            byDealer.merge(vehicle.getDealerId(), 1L, Long::sum);
+            priceByDealer.merge(vehicle.getDealerId(), vehicle.getPrice(), Double::sum);
+            if (vehicle.isRented()) rented++;
+        }
+        assertEquals(fleet.size(), snapshot.getTotalVehicles(), "Total should match the fleet");
+        assertEquals(rented, snapshot.getRentedVehicles(), "Rented count should match the fleet");
+        assertEquals(byType, snapshot.getVehiclesByType(), "Type counts should match the fleet");
+        assertEquals(byDealer, snapshot.getVehiclesByDealer(), "Dealer counts should match the fleet");
+        for (String dealerId : byDealer.keySet()) {
+            assertEquals(priceByDealer.get(dealerId) / byDealer.get(dealerId), snapshot.getAveragePrice(dealerId), 0.01,
+                    "Average price should match for " + dealerId);
+        }
+    }
+}
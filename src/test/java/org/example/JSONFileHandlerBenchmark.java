@@ -0,0 +1,76 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing the tree-based and streaming inventory readers.
+ * The gc profiler reports allocation per read, which is where the two readers differ most:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.JSONFileHandlerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JSONFileHandlerBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int vehicleCount;
+
+    private final JSONFileHandler jsonFileHandler = new JSONFileHandler();
+    private File inventoryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int i = 0; i < vehicleCount; i++) {
+            Vehicle vehicle = new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setManufacturer("Tesla");
+            vehicle.setModel("Model 3");
+            vehicle.setPrice(20000 + i);
+            vehicle.setDealerId("D" + (i % 100));
+            vehicle.setAcquisitionDate(new Date());
+            vehicles.add(vehicle);
+        }
+        inventoryFile = File.createTempFile("inventory-benchmark", ".json");
+        jsonFileHandler.writeInventory(vehicles, inventoryFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inventoryFile.toPath());
+    }
+
+    @Benchmark
+    public List<Vehicle> readTree() {
+        return jsonFileHandler.readInventory(inventoryFile);
+    }
+
+    @Benchmark
+    public int readStreaming(Blackhole blackhole) {
+        return jsonFileHandler.readInventory(inventoryFile, blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JSONFileHandlerBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
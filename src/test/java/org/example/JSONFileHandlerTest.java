@@ -0,0 +1,329 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JSONFileHandler class using Arrange-Act-Assert pattern.
+ * Tests focus on reading and writing inventory files with the tree-based and streaming paths.
+ */
+public class JSONFileHandlerTest {
+
+    // Test objects
+    private JSONFileHandler jsonFileHandler;
+
+    // Temporary directory for test files
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        // Create a fresh JSONFileHandler for each test
+        jsonFileHandler = new JSONFileHandler();
+    }
+
+    /**
+     * Helper method to create a test JSON file
+     */
+    private File createTestJsonFile(String content) throws IOException {
+        File jsonFile = tempDir.resolve("test_inventory.json").toFile();
+        try (FileWriter writer = new FileWriter(jsonFile)) {
+            writer.write(content);
+        }
+        return jsonFile;
+    }
+
+    /**
+     * Helper method to build one inventory entry
+     */
+    private String entry(String id, String manufacturer, String model, double price, String dealerId) {
+        return "{\"price\": " + price + ", \"vehicle_model\": \"" + model + "\", " +
+                "\"dealership_id\": \"" + dealerId + "\", \"vehicle_id\": \"" + id + "\", " +
+                "\"vehicle_manufacturer\": \"" + manufacturer + "\", \"acquisition_date\": 1515354694451}";
+    }
+
+    @Test
+    @DisplayName("Streaming reader returns the same vehicles as the tree reader")
+    void testStreamingMatchesTreeReader() throws IOException {
+        // Arrange - Create an inventory with one vehicle of each inferred type
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                entry("1", "Chevy", "Silverado", 70444.0, "12513") + "," +
+                entry("2", "Tesla", "Model 3", 50444.0, "12513") + "," +
+                entry("3", "Toyota", "Supra", 49889.0, "77338") + "," +
+                entry("4", "Honda", "Civic", 30000.0, "12513") + "]}");
+
+        // Act - Read the inventory both ways
+        List<Vehicle> treeVehicles = jsonFileHandler.readInventory(jsonFile);
+        List<Vehicle> streamedVehicles = new ArrayList<>();
+        int count = jsonFileHandler.readInventory(jsonFile, streamedVehicles::add);
+
+        // Assert - Verify both readers agree
+        assertEquals(4, count, "Streaming reader should report 4 vehicles");
+        assertEquals(treeVehicles.size(), streamedVehicles.size(), "Both readers should read the same number of vehicles");
+        for (int i = 0; i < treeVehicles.size(); i++) {
+            Vehicle expected = treeVehicles.get(i);
+            Vehicle actual = streamedVehicles.get(i);
+            assertEquals(expected.getClass(), actual.getClass(), "Vehicle types should match");
+            assertEquals(expected.getVehicleId(), actual.getVehicleId(), "Vehicle IDs should match");
+            assertEquals(expected.getManufacturer(), actual.getManufacturer(), "Manufacturers should match");
+            assertEquals(expected.getModel(), actual.getModel(), "Models should match");
+            assertEquals(expected.getPrice(), actual.getPrice(), 0.01, "Prices should match");
+            assertEquals(expected.getDealerId(), actual.getDealerId(), "Dealer IDs should match");
+            assertEquals(expected.getAcquisitionDate(), actual.getAcquisitionDate(), "Acquisition dates should match");
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming reader skips unknown fields and incomplete records")
+    void testStreamingSkipsUnknownAndIncomplete() throws IOException {
+        // Arrange - Create an inventory with extra fields, nested values and a record missing its price
+        File jsonFile = createTestJsonFile("{\"version\": {\"major\": 1}, \"car_inventory\": [" +
+                "{\"vehicle_id\": \"1\", \"vehicle_manufacturer\": \"Ford\", \"vehicle_model\": \"Explorer\", " +
+                "\"dealership_id\": \"485\", \"acquisition_date\": 1, \"tags\": [\"a\", {\"b\": 2}]}," +
+                entry("2", "Toyota", "RAV4", 28000.0, "485") + "], \"trailer\": true}");
+
+        // Act - Stream the inventory
+        List<Vehicle> vehicles = new ArrayList<>();
+        int count = jsonFileHandler.readInventory(jsonFile, vehicles::add);
+
+        // Assert - Verify only the complete record was read
+        assertEquals(1, count, "Only the complete record should be read");
+        assertEquals("2", vehicles.get(0).getVehicleId(), "The complete record should be kept");
+    }
+
+    @Test
+    @DisplayName("Explicit vehicle types override model-based inference")
+    void testExplicitVehicleType() throws IOException {
+        // Arrange - Create an inventory whose model would otherwise be inferred as an SUV
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                "{\"vehicle_type\": \"pickup\", \"vehicle_id\": \"1\", \"vehicle_manufacturer\": \"Ford\", " +
+                "\"vehicle_model\": \"F-150\", \"price\": 42000, \"dealership_id\": \"485\", \"acquisition_date\": 1}]}");
+
+        // Act - Read the inventory both ways
+        List<Vehicle> treeVehicles = jsonFileHandler.readInventory(jsonFile);
+        List<Vehicle> streamedVehicles = new ArrayList<>();
+        jsonFileHandler.readInventory(jsonFile, streamedVehicles::add);
+
+        // Assert - Verify the explicit type is used
+        assertTrue(treeVehicles.get(0) instanceof Pickup, "Tree reader should honour vehicle_type");
+        assertTrue(streamedVehicles.get(0) instanceof Pickup, "Streaming reader should honour vehicle_type");
+    }
+
+    @Test
+    @DisplayName("Reading a missing file returns nothing")
+    void testReadMissingFile() {
+        // Arrange - A file that does not exist
+        File missingFile = tempDir.resolve("missing.json").toFile();
+
+        // Act - Read the file both ways
+        List<Vehicle> treeVehicles = jsonFileHandler.readInventory(missingFile);
+        int count = jsonFileHandler.readInventory(missingFile, vehicle -> fail("No vehicle expected"));
+
+        // Assert - Verify nothing was read
+        assertTrue(treeVehicles.isEmpty(), "Tree reader should return an empty list");
+        assertEquals(0, count, "Streaming reader should read no vehicles");
+    }
+
+    @Test
+    @DisplayName("Streaming writer replaces the inventory file without leaving temp files")
+    void testStreamingWriteReplacesFile() throws IOException {
+        // Arrange - Start from an existing inventory file
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                entry("OLD", "Honda", "Civic", 30000.0, "12513") + "]}");
+        Vehicle sedan = new Sedan();
+        sedan.setVehicleId("SEDAN001");
+        sedan.setManufacturer("Tesla");
+        sedan.setModel("Model 3");
+        sedan.setPrice(50444.0);
+        sedan.setDealerId("12513");
+        sedan.setAcquisitionDate(new Date(1515354694451L));
+
+        // Act - Stream the new inventory over it
+        boolean result = jsonFileHandler.writeInventory(Stream.of(sedan), jsonFile);
+
+        // Assert - Verify the file holds exactly the new inventory
+        assertTrue(result, "Write should succeed");
+        List<Vehicle> vehicles = jsonFileHandler.readInventory(jsonFile);
+        assertEquals(1, vehicles.size(), "File should hold 1 vehicle");
+        assertEquals("SEDAN001", vehicles.get(0).getVehicleId(), "File should hold the new vehicle");
+        assertEquals(50444.0, vehicles.get(0).getPrice(), 0.01, "Price should be written");
+        assertEquals(1515354694451L, vehicles.get(0).getAcquisitionDate().getTime(), "Acquisition date should be written");
+        assertEquals(1, tempDir.toFile().listFiles().length, "No temp files should be left behind");
+    }
+
+    @Test
+    @DisplayName("Rental state and bookings survive a write and both readers")
+    void testRentalStateRoundTrip() throws IOException {
+        // Arrange - A sedan rented now and reserved for later
+        File jsonFile = tempDir.resolve("rentals.json").toFile();
+        Vehicle sedan = new Sedan();
+        sedan.setVehicleId("SEDAN001");
+        sedan.setManufacturer("Tesla");
+        sedan.setModel("Model 3");
+        sedan.setPrice(50444.0);
+        sedan.setDealerId("12513");
+        sedan.setAcquisitionTime(1515354694451L);
+        sedan.rent(1_000_000L, 2_000_000L);
+        sedan.reserve(5_000_000L, 6_000_000L);
+
+        // Act - Write it and read it back with the streaming and tree readers
+        assertTrue(jsonFileHandler.writeInventory(Stream.of(sedan), jsonFile), "Write should succeed");
+        List<Vehicle> streamed = new ArrayList<>();
+        jsonFileHandler.readInventory(jsonFile, streamed::add);
+        List<Vehicle> tree = jsonFileHandler.readInventory(jsonFile);
+
+        // Assert
+        for (Vehicle vehicle : List.of(streamed.get(0), tree.get(0))) {
+            assertTrue(vehicle.isRented(), "Rented flag should be kept");
+            assertEquals(1_000_000L, vehicle.getRentalStartTime(), "Rental start should be kept");
+            assertEquals(2_000_000L, vehicle.getRentalEndTime(), "Rental end should be kept");
+            assertEquals(sedan.getRentalCalendar().getBookings(), vehicle.getRentalCalendar().getBookings(),
+                    "Bookings should be kept");
+        }
+    }
+
+    @Test
+    @DisplayName("Failed writes leave the existing inventory untouched")
+    void testFailedWriteKeepsFile() throws IOException {
+        // Arrange - Start from an existing inventory file and a vehicle that cannot be written
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                entry("OLD", "Honda", "Civic", 30000.0, "12513") + "]}");
+        Vehicle broken = new SUV();
+        broken.setVehicleId("BROKEN");
+
+        // Act - Try to write the inventory
+        boolean result = jsonFileHandler.writeInventory(Stream.of(broken), jsonFile);
+
+        // Assert - Verify the old inventory is still intact
+        assertFalse(result, "Write should fail");
+        List<Vehicle> vehicles = jsonFileHandler.readInventory(jsonFile);
+        assertEquals(1, vehicles.size(), "File should still hold 1 vehicle");
+        assertEquals("OLD", vehicles.get(0).getVehicleId(), "File should still hold the old vehicle");
+        assertEquals(1, tempDir.toFile().listFiles().length, "No temp files should be left behind");
+    }
+
+    @Test
+    @DisplayName("Merging replaces matching vehicles and appends new ones")
+    void testMergeInventory() throws IOException {
+        // Arrange - Start from an inventory with two vehicles
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                entry("A", "Honda", "Civic", 30000.0, "12513") + "," +
+                entry("B", "Tesla", "Model 3", 50444.0, "12513") + "]}");
+        Vehicle updatedB = new Sedan();
+        updatedB.setVehicleId("B");
+        updatedB.setManufacturer("Tesla");
+        updatedB.setModel("Model 3");
+        updatedB.setPrice(45000.0);
+        updatedB.setDealerId("77338");
+        updatedB.setAcquisitionDate(new Date(1515354694451L));
+        Vehicle newC = new Pickup();
+        newC.setVehicleId("C");
+        newC.setManufacturer("Chevy");
+        newC.setModel("Silverado");
+        newC.setPrice(70444.0);
+        newC.setDealerId("12513");
+        newC.setAcquisitionDate(new Date(1515354694451L));
+
+        // Act - Merge the changes into the file
+        boolean result = jsonFileHandler.mergeInventory(List.of(updatedB, newC), jsonFile);
+
+        // Assert - Verify the merged inventory
+        assertTrue(result, "Merge should succeed");
+        List<Vehicle> vehicles = jsonFileHandler.readInventory(jsonFile);
+        assertEquals(3, vehicles.size(), "File should hold 3 vehicles");
+        assertEquals("A", vehicles.get(0).getVehicleId(), "Untouched vehicle should be kept in place");
+        assertEquals("B", vehicles.get(1).getVehicleId(), "Updated vehicle should keep its position");
+        assertEquals(45000.0, vehicles.get(1).getPrice(), 0.01, "Updated vehicle should have the new price");
+        assertEquals("77338", vehicles.get(1).getDealerId(), "Updated vehicle should have the new dealer");
+        assertEquals("C", vehicles.get(2).getVehicleId(), "New vehicle should be appended");
+    }
+
+    @Test
+    @DisplayName("Merging keeps a dealer name only for vehicles that stay with that dealer")
+    void testMergeDropsNameOfOldDealer() throws IOException {
+        // Arrange - Two vehicles stored with their dealer's name; one of them moves to another dealer
+        String named = ", \"dealer_name\": \"Northside\"}";
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" +
+                entry("A", "Honda", "Civic", 30000.0, "12513").replaceFirst("}$", named) + "," +
+                entry("B", "Tesla", "Model 3", 50444.0, "12513").replaceFirst("}$", named) + "]}");
+        Vehicle repricedA = new Sedan();
+        repricedA.setVehicleId("A");
+        repricedA.setManufacturer("Honda");
+        repricedA.setModel("Civic");
+        repricedA.setPrice(28000.0);
+        repricedA.setDealerId("12513");
+        repricedA.setAcquisitionDate(new Date(1515354694451L));
+        Vehicle movedB = new Sedan();
+        movedB.setVehicleId("B");
+        movedB.setManufacturer("Tesla");
+        movedB.setModel("Model 3");
+        movedB.setPrice(50444.0);
+        movedB.setDealerId("77338");
+        movedB.setAcquisitionDate(new Date(1515354694451L));
+
+        // Act - Merge both changes into the file
+        boolean result = jsonFileHandler.mergeInventory(List.of(repricedA, movedB), jsonFile);
+
+        // Assert - Verify the moved vehicle no longer carries the old dealer's name
+        assertTrue(result, "Merge should succeed");
+        Map<String, String> names = new HashMap<>();
+        jsonFileHandler.readInventoryWithDealerNames(jsonFile,
+                (vehicle, dealerName) -> names.put(vehicle.getVehicleId(), dealerName));
+        assertEquals("Northside", names.get("A"), "Vehicle at the same dealer should keep the name");
+        assertNull(names.get("B"), "Moved vehicle should not keep the old dealer's name");
+    }
+
+    @Test
+    @DisplayName("Merging into an unreadable file leaves it untouched")
+    void testMergeIntoCorruptFile() throws IOException {
+        // Arrange - Start from a truncated inventory file
+        String corrupt = "{\"car_inventory\": [" + entry("A", "Honda", "Civic", 30000.0, "12513") + ",";
+        File jsonFile = createTestJsonFile(corrupt);
+        Vehicle sedan = new Sedan();
+        sedan.setVehicleId("B");
+        sedan.setManufacturer("Tesla");
+        sedan.setModel("Model 3");
+        sedan.setDealerId("12513");
+        sedan.setAcquisitionDate(new Date());
+
+        // Act - Try to merge into it
+        boolean result = jsonFileHandler.mergeInventory(List.of(sedan), jsonFile);
+
+        // Assert - Verify the file was not replaced
+        assertFalse(result, "Merge should fail");
+        assertEquals(corrupt, Files.readString(jsonFile.toPath()), "File should be unchanged");
+        assertEquals(1, tempDir.toFile().listFiles().length, "No temp files should be left behind");
+    }
+
+    @Test
+    @DisplayName("Repeated field values share one instance across the loaded vehicles")
+    void testRepeatedValuesAreShared() throws IOException {
+        // Arrange - Two vehicles with the same manufacturer, model and dealer
+        File jsonFile = createTestJsonFile("{\"car_inventory\": [" + entry("A", "Honda", "Civic", 30000.0, "12513") + ", "
+                + entry("B", "Honda", "Civic", 31000.0, "12513") + "]}");
+
+        // Act
+        List<Vehicle> vehicles = jsonFileHandler.readInventory(jsonFile);
+
+        // Assert - The strings are the same instances, not just equal
+        assertSame(vehicles.get(0).getManufacturer(), vehicles.get(1).getManufacturer(), "Manufacturer should be shared");
+        assertSame(vehicles.get(0).getModel(), vehicles.get(1).getModel(), "Model should be shared");
+        assertSame(vehicles.get(0).getDealerId(), vehicles.get(1).getDealerId(), "Dealer ID should be shared");
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MetadataMap class using Arrange-Act-Assert pattern.
+ * Tests focus on behaving like any other Map and on vehicles only allocating metadata when it is used.
+ */
+public class MetadataMapTest {
+
+    @Test
+    @DisplayName("Entries can be added, replaced and removed like in any map")
+    void testPutGetRemove() {
+        // Arrange
+        MetadataMap metadata = new MetadataMap();
+
+        // Act - Add enough entries to grow the array, replace one and remove one
+        for (int i = 0; i < 10; i++) {
+            metadata.put("key" + i, i);
+        }
+        Object replaced = metadata.put("key3", "three");
+        Object removed = metadata.remove("key0");
+
+        // Assert
+        assertEquals(3, replaced, "Put should return the replaced value");
+        assertEquals(0, removed, "Remove should return the removed value");
+        assertEquals(9, metadata.size(), "Should hold 9 entries");
+        assertEquals("three", metadata.get("key3"), "Replaced value should be returned");
+        assertFalse(metadata.containsKey("key0"), "Removed key should be gone");
+        assertEquals(9, metadata.get("key9"), "Moved entry should still be found");
+        assertNull(metadata.get("missing"), "Missing key should return null");
+    }
+
+    @Test
+    @DisplayName("Equals, iteration and iterator removal match a HashMap")
+    void testMapContract() {
+        // Arrange
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("color", "Midnight Blue");
+        expected.put("mileage", 1200L);
+        expected.put("warranty", true);
+        MetadataMap metadata = new MetadataMap(expected);
+
+        // Act - Remove one entry through the iterator and change another through its entry
+        Iterator<Map.Entry<String, Object>> iterator = metadata.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            if (entry.getKey().equals("color")) {
+                iterator.remove();
+            } else if (entry.getKey().equals("mileage")) {
+                entry.setValue(1500L);
+            }
+        }
+        expected.remove("color");
+        expected.put("mileage", 1500L);
+
+        // Assert
+        assertEquals(expected, metadata, "Map should equal a HashMap with the same entries");
+        assertEquals(expected.hashCode(), metadata.hashCode(), "Hash codes should match");
+    }
+
+    @Test
+    @DisplayName("Vehicles allocate metadata only when a property is stored")
+    void testVehicleMetadataIsLazy() {
+        // Arrange
+        Vehicle vehicle = new Sedan();
+
+        // Act & Assert - Reads do not allocate, the first write does
+        assertFalse(vehicle.hasMetadata(), "New vehicle should have no metadata");
+        assertNull(vehicle.getMetadata("color"), "Missing property should be null");
+        assertFalse(vehicle.hasMetadata(), "Reading a property should not allocate metadata");
+        vehicle.setMetadata("color", "Red");
+        assertTrue(vehicle.hasMetadata(), "Stored property should be kept");
+        assertEquals("Red", vehicle.getMetadata("color"), "Stored property should be returned");
+        vehicle.setMetadata(Map.of());
+        assertFalse(vehicle.hasMetadata(), "Setting empty metadata should drop it");
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RentalCalendar class using Arrange-Act-Assert pattern.
+ * Tests focus on booking, overlap detection and cancellation.
+ */
+public class RentalCalendarTest {
+
+    // Test objects
+    private RentalCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        // Create a fresh calendar with one booking from 100 to 200
+        calendar = new RentalCalendar();
+        calendar.reserve(100, 200);
+    }
+
+    @Test
+    @DisplayName("Bookings that overlap an existing booking are refused")
+    void testOverlappingBookingsRefused() {
+        // Act & Assert - Try every way of overlapping [100, 200]
+        assertFalse(calendar.reserve(50, 100), "Booking ending on the start should overlap");
+        assertFalse(calendar.reserve(200, 250), "Booking starting on the end should overlap");
+        assertFalse(calendar.reserve(120, 180), "Booking inside should overlap");
+        assertFalse(calendar.reserve(50, 250), "Booking around should overlap");
+        assertEquals(1, calendar.size(), "Only the first booking should be kept");
+    }
+
+    @Test
+    @DisplayName("Bookings on either side of an existing booking are accepted")
+    void testAdjacentBookingsAccepted() {
+        // Act
+        boolean before = calendar.reserve(0, 99);
+        boolean after = calendar.reserve(201, 300);
+
+        // Assert
+        assertTrue(before, "Booking before should be accepted");
+        assertTrue(after, "Booking after should be accepted");
+        assertFalse(calendar.isFree(99, 201), "Period spanning all bookings should not be free");
+        assertTrue(calendar.isFree(301, 400), "Period after all bookings should be free");
+        assertEquals(3, calendar.getBookings().size(), "Calendar should hold 3 bookings");
+    }
+
+    @Test
+    @DisplayName("Cancelled bookings free their period")
+    void testCancelBooking() {
+        // Act
+        Long cancelledEnd = calendar.cancel(100);
+
+        // Assert
+        assertEquals(200L, cancelledEnd, "Cancel should return the booking end");
+        assertTrue(calendar.isFree(100, 200), "Period should be free again");
+        assertNull(calendar.cancel(100), "Cancelling twice should find nothing");
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RentalIntervalIndex class using Arrange-Act-Assert pattern.
+ * Tests compare the interval tree against a brute-force scan of the same bookings.
+ */
+public class RentalIntervalIndexTest {
+
+    @Test
+    @DisplayName("Overlap queries match a brute-force scan through adds and removes")
+    void testQueriesMatchBruteForce() {
+        // Arrange - A random mix of bookings, some of which are removed again
+        Random random = new Random(42);
+        RentalIntervalIndex index = new RentalIntervalIndex();
+        List<long[]> bookings = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(500);
+            index.add(start, end, "V" + i);
+            bookings.add(new long[]{start, end, i});
+        }
+        for (int i = 0; i < 700; i++) {
+            long[] booking = bookings.remove(random.nextInt(bookings.size()));
+            assertTrue(index.remove(booking[0], "V" + booking[2]), "Indexed booking should be removed");
+        }
+
+        // Act & Assert - Every query returns exactly the overlapping bookings
+        assertEquals(bookings.size(), index.size(), "Index should hold the remaining bookings");
+        for (int q = 0; q < 500; q++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(2000);
+            Set<String> expected = new HashSet<>();
+            for (long[] booking : bookings) {
+                if (booking[0] <= end && booking[1] >= start) {
+                    expected.add("V" + booking[2]);
+                }
+            }
+            assertEquals(expected, index.findBooked(start, end), "Query [" + start + ", " + end + "] should match");
+        }
+    }
+
+    @Test
+    @DisplayName("Removing a booking that is not indexed changes nothing")
+    void testRemoveMissingBooking() {
+        // Arrange
+        RentalIntervalIndex index = new RentalIntervalIndex();
+        index.add(10, 20, "V1");
+
+        // Act
+        boolean removed = index.remove(10, "V2");
+
+        // Assert
+        assertFalse(removed, "Missing booking should not be removed");
+        assertEquals(Set.of("V1"), index.findBooked(15, 15), "Existing booking should remain");
+    }
+}
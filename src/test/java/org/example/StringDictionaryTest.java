@@ -0,0 +1,92 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the StringDictionary class using Arrange-Act-Assert pattern.
+ * Tests focus on shared instances, dense codes and case folding.
+ */
+public class StringDictionaryTest {
+
+    @Test
+    @DisplayName("Equal values share one instance and one code")
+    void testInternSharesInstances() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("Toyota");
+        String second = new String("Toyota");
+
+        // Act
+        String internedFirst = dictionary.intern(first);
+        String internedSecond = dictionary.intern(second);
+
+        // Assert
+        assertSame(internedFirst, internedSecond, "Equal values should share an instance");
+        assertEquals(dictionary.code(first), dictionary.code(second), "Equal values should share a code");
+        assertEquals("Toyota", dictionary.value(dictionary.code(first)), "Code should decode to the value");
+        assertEquals(StringDictionary.NULL_CODE, dictionary.code(null), "Null should have the null code");
+        assertNull(dictionary.value(StringDictionary.NULL_CODE), "Null code should decode to null");
+        assertEquals(-1, dictionary.find("Honda"), "Unknown value should not be added by find");
+    }
+
+    @Test
+    @DisplayName("Values that are equal ignoring case share a folded code")
+    void testFoldedCodes() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+        int upper = dictionary.code("D001");
+        int lower = dictionary.code("d001");
+        int other = dictionary.code("D002");
+
+        // Act & Assert
+        assertEquals(dictionary.foldedCode(upper), dictionary.foldedCode(lower), "Case should be ignored");
+        assertNotEquals(dictionary.foldedCode(upper), dictionary.foldedCode(other), "Other values should differ");
+        assertEquals(lower, dictionary.foldedCode(lower), "A lower-case value should fold to itself");
+        assertSame(dictionary.intern("d001"), dictionary.fold("D001"), "Folded value should be the shared instance");
+    }
+
+    @Test
+    @DisplayName("Threads interning the same values agree on instances and codes")
+    void testConcurrentIntern() throws Exception {
+        // Arrange - Several threads intern the same values in different orders
+        StringDictionary dictionary = new StringDictionary();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<int[]>> results = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            results.add(executor.submit(() -> {
+                int[] codes = new int[1000];
+                for (int i = 0; i < codes.length; i++) {
+                    int value = (i + offset * 250) % codes.length;
+                    codes[value] = dictionary.code(new String("M" + value));
+                }
+                return codes;
+            }));
+        }
+        List<int[]> codes = new ArrayList<>();
+        for (Future<int[]> result : results) {
+            codes.add(result.get());
+        }
+        executor.shutdown();
+
+        // Assert - Every thread saw the same code per value and the codes are dense
+        for (int[] threadCodes : codes) {
+            assertArrayEquals(codes.get(0), threadCodes, "Threads should agree on codes");
+        }
+        assertEquals(1001, dictionary.size(), "Each value should get one code besides null");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("M" + i, dictionary.value(codes.get(0)[i]), "Code should decode to its value");
+        }
+    }
+}
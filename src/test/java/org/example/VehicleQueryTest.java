@@ -0,0 +1,105 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the VehicleQuery class using Arrange-Act-Assert pattern.
+ * Tests run typed queries through the search index and compare them with the expected vehicles.
+ */
+public class VehicleQueryTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    // Test objects
+    private VehicleSearchIndex index;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        // Create an index with 20 SUVs and 20 sedans at two dealers, priced 10k to 49k
+        index = new VehicleSearchIndex();
+        now = System.currentTimeMillis();
+        for (int i = 0; i < 40; i++) {
+            Vehicle vehicle = i % 2 == 0 ? new SUV() : new Sedan();
+            vehicle.setVehicleId("V" + i);
+            vehicle.setManufacturer("Make" + i);
+            vehicle.setModel("Model" + i);
+            vehicle.setPrice(10000 + i * 1000);
+            vehicle.setDealerId(i % 4 < 2 ? "485" : "721");
+            vehicle.setAcquisitionDate(new Date(now - i * 10 * DAY));
+            if (i % 8 == 0) {
+                vehicle.rent(new Date(now), new Date(now + DAY));
+            }
+            index.add(vehicle);
+        }
+    }
+
+    /**
+     * Helper method to collect the ids of query results
+     */
+    private List<String> ids(List<Vehicle> vehicles) {
+        List<String> ids = new ArrayList<>();
+        vehicles.forEach(vehicle -> ids.add(vehicle.getVehicleId()));
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Combined predicates match type, dealer, price range, acquisition date and rental status")
+    void testCombinedPredicates() {
+        // Arrange - SUVs at 485 priced 10k-40k, acquired in the last 90 days, not rented
+        VehicleQuery query = new VehicleQuery()
+                .type(SUV.class)
+                .dealer("485")
+                .priceBetween(10000, 40000)
+                .acquiredAfter(new Date(now - 90 * DAY))
+                .rented(false);
+
+        // Act
+        List<Vehicle> results = index.query(query);
+
+        // Assert - V0 and V8 are rented; V4 is at 485 and within range
+        assertEquals(List.of("V4"), ids(results), "Only V4 should match every predicate");
+    }
+
+    @Test
+    @DisplayName("Price-sorted queries are paged with offset and limit")
+    void testSortedPaging() {
+        // Arrange
+        VehicleQuery firstPage = new VehicleQuery().priceBetween(20000, 30000)
+                .sortBy(VehicleQuery.SortKey.PRICE, true).limit(3);
+        VehicleQuery secondPage = new VehicleQuery().priceBetween(20000, 30000)
+                .sortBy(VehicleQuery.SortKey.PRICE, true).offset(3).limit(3);
+
+        // Act
+        List<Vehicle> first = index.query(firstPage);
+        List<Vehicle> second = index.query(secondPage);
+
+        // Assert
+        assertEquals(List.of("V20", "V19", "V18"), ids(first), "First page should hold the most expensive");
+        assertEquals(List.of("V17", "V16", "V15"), ids(second), "Second page should continue in order");
+    }
+
+    @Test
+    @DisplayName("Queries sorted by another field and unknown postings")
+    void testOtherSortsAndMissingPostings() {
+        // Act
+        List<Vehicle> byDate = index.query(new VehicleQuery().dealer("721")
+                .sortBy(VehicleQuery.SortKey.ACQUISITION_DATE).limit(2));
+        List<Vehicle> unknownDealer = index.query(new VehicleQuery().dealer("999"));
+        List<Vehicle> everything = index.query(new VehicleQuery());
+
+        // Assert
+        assertEquals(List.of("V39", "V38"), ids(byDate), "Oldest acquisitions at 721 should come first");
+        assertTrue(unknownDealer.isEmpty(), "Unknown dealer should match nothing");
+        assertEquals(40, everything.size(), "Empty query should match the whole fleet");
+        assertEquals("V0", everything.get(0).getVehicleId(), "Unsorted results should keep fleet order");
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the VehicleRows class using Arrange-Act-Assert pattern.
+ * Tests focus on keeping the row of every vehicle id correct while rows are replaced and removed.
+ */
+public class VehicleRowsTest {
+
+    // Test objects
+    private VehicleRows rows;
+    private Vehicle first;
+    private Vehicle second;
+    private Vehicle third;
+
+    @BeforeEach
+    void setUp() {
+        // Create three rows
+        rows = new VehicleRows();
+        first = createSedan("V1");
+        second = createSedan("V2");
+        third = createSedan("V3");
+        rows.setAll(List.of(first, second, third));
+    }
+
+    /**
+     * Helper method to create a sedan with an id
+     */
+    private Vehicle createSedan(String vehicleId) {
+        Vehicle vehicle = new Sedan();
+        vehicle.setVehicleId(vehicleId);
+        return vehicle;
+    }
+
+    @Test
+    @DisplayName("Removing a row moves the last row into its place and keeps its id findable")
+    void testRemoveMovesLastRow() {
+        // Act
+        boolean removed = rows.remove("V1");
+        Vehicle updatedThird = createSedan("V3");
+        boolean replaced = rows.replace(updatedThird);
+
+        // Assert
+        assertTrue(removed, "V1 should be removed");
+        assertTrue(replaced, "Moved row should still be found by id");
+        assertEquals(List.of(updatedThird, second), rows.getRows(), "Last row should fill the hole");
+        assertFalse(rows.remove("V1"), "Removing V1 again should do nothing");
+    }
+
+    @Test
+    @DisplayName("Adding an id that already has a row replaces that row")
+    void testAddAllReplacesExistingIds() {
+        // Arrange
+        Vehicle updatedSecond = createSedan("V2");
+        Vehicle fourth = createSedan("V4");
+
+        // Act
+        rows.addAll(List.of(updatedSecond, fourth));
+        rows.remove("V4");
+
+        // Assert
+        assertEquals(List.of(first, updatedSecond, third), rows.getRows(), "Only the new id should be appended");
+        assertFalse(rows.replace(fourth), "Removed id should have no row");
+    }
+}
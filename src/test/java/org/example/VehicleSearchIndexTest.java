@@ -0,0 +1,130 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the VehicleSearchIndex class using Arrange-Act-Assert pattern.
+ * Tests focus on case-insensitive substring matching and keeping the index current.
+ */
+public class VehicleSearchIndexTest {
+
+    // Test objects
+    private VehicleSearchIndex index;
+    private Vehicle rangeRover;
+    private Vehicle accord;
+    private Vehicle miata;
+
+    @BeforeEach
+    void setUp() {
+        // Create a fresh index holding three vehicles at two dealers
+        index = new VehicleSearchIndex();
+        rangeRover = createVehicle(new SUV(), "848432", "Land Rover", "Range Rover", "485");
+        accord = createVehicle(new Sedan(), "151e5dde", "Honda", "Accord", "485");
+        miata = createVehicle(new SportsCar(), "sc123", "Mazda", "Miata", "721");
+        index.add(rangeRover);
+        index.add(accord);
+        index.add(miata);
+    }
+
+    /**
+     * Helper method to fill in a vehicle
+     */
+    private Vehicle createVehicle(Vehicle vehicle, String id, String manufacturer, String model, String dealerId) {
+        vehicle.setVehicleId(id);
+        vehicle.setManufacturer(manufacturer);
+        vehicle.setModel(model);
+        vehicle.setDealerId(dealerId);
+        vehicle.setAcquisitionDate(new Date());
+        return vehicle;
+    }
+
+    @Test
+    @DisplayName("Short and long queries match substrings regardless of case")
+    void testSubstringSearch() {
+        // Act
+        List<Vehicle> shortQuery = index.search(VehicleSearchIndex.Field.MODEL, "RO");
+        List<Vehicle> longQuery = index.search(VehicleSearchIndex.Field.MODEL, "ange rov");
+        List<Vehicle> falseTrigrams = index.search(VehicleSearchIndex.Field.MODEL, "rover range");
+
+        // Assert
+        assertEquals(List.of(rangeRover), shortQuery, "Two-letter query should match Range Rover");
+        assertEquals(List.of(rangeRover), longQuery, "Longer query should match Range Rover");
+        assertTrue(falseTrigrams.isEmpty(), "Trigrams present in a different order should not match");
+    }
+
+    @Test
+    @DisplayName("Type and dealer searches match substrings of their keys")
+    void testTypeAndDealerSearch() {
+        // Act
+        List<Vehicle> byType = index.search(VehicleSearchIndex.Field.TYPE, "sedan");
+        List<Vehicle> byDealer = index.search(VehicleSearchIndex.Field.DEALER_ID, "48");
+        List<Vehicle> anyField = index.search(VehicleSearchIndex.Field.ALL, "a");
+
+        // Assert
+        assertEquals(List.of(accord), byType, "Type search should find the sedan");
+        assertEquals(List.of(rangeRover, accord), byDealer, "Dealer search should find both vehicles at 485");
+        assertEquals(List.of(rangeRover, accord, miata), anyField, "All-fields search should return index order");
+    }
+
+    @Test
+    @DisplayName("Removed and transferred vehicles are reflected in searches")
+    void testIndexUpdates() {
+        // Act
+        index.remove(rangeRover.getVehicleId());
+        index.updateDealer(accord.getVehicleId(), "721");
+
+        // Assert
+        assertTrue(index.search(VehicleSearchIndex.Field.MANUFACTURER, "rover").isEmpty(), "Removed vehicle should not match");
+        assertTrue(index.search(VehicleSearchIndex.Field.DEALER_ID, "485").isEmpty(), "Dealer 485 should be empty");
+        assertEquals(List.of(accord, miata), index.search(VehicleSearchIndex.Field.DEALER_ID, "721"),
+                "Transferred vehicle should be found at its new dealer");
+        assertEquals(2, index.size(), "Index should hold 2 vehicles");
+    }
+
+    @Test
+    @DisplayName("A vehicle added after a removal reuses its slot without inheriting its matches")
+    void testSlotReuse() {
+        // Arrange - Free the Range Rover's slot and index a new vehicle into it
+        index.remove(rangeRover.getVehicleId());
+        Vehicle civic = createVehicle(new Sedan(), "cv777", "Honda", "Civic", "485");
+
+        // Act
+        index.add(civic);
+
+        // Assert - The new vehicle matches its own trigrams only, and results keep index order
+        assertTrue(index.search(VehicleSearchIndex.Field.MODEL, "range").isEmpty(), "Old trigrams should be gone");
+        assertEquals(List.of(accord, civic), index.search(VehicleSearchIndex.Field.MANUFACTURER, "hon"),
+                "Both Hondas should be found in index order");
+        assertEquals(List.of(civic), index.search(VehicleSearchIndex.Field.ID, "v7"), "Short ID query should match");
+    }
+
+    @Test
+    @DisplayName("An interrupted search stops scanning and leaves the index usable")
+    void testInterruptedSearchIsCancelled() {
+        // Arrange - Interrupt the searching thread, as the GUI does when a newer search replaces this one
+        Thread.currentThread().interrupt();
+
+        // Act & Assert - Both the short-query scan and the trigram postings give up
+        try {
+            assertThrows(CancellationException.class, () -> index.search(VehicleSearchIndex.Field.MODEL, "a"),
+                    "Short query should be cancelled");
+            assertThrows(CancellationException.class, () -> index.search(VehicleSearchIndex.Field.MODEL, "range"),
+                    "Trigram query should be cancelled");
+        } finally {
+            Thread.interrupted();
+        }
+
+        // Assert - The lock was released and later searches run normally
+        index.remove(miata.getVehicleId());
+        assertEquals(List.of(rangeRover), index.search(VehicleSearchIndex.Field.MODEL, "range"),
+                "Search after the cancellation should succeed");
+    }
+}
@@ -3,8 +3,16 @@ package org.example;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -134,4 +142,64 @@ public class VehicleTest {
         assertEquals("Luxury Motors", suv.getMetadata().get("dealer_name"));
         assertEquals("Midnight Blue", suv.getMetadata().get("color"));
     }
+
+    @Test
+    @DisplayName("Concurrent rentals of one vehicle succeed exactly once")
+    void testConcurrentRentalExactlyOnce() throws Exception {
+        // Arrange - Many rental counters racing for the same vehicle, over several rounds
+        int threads = 16;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                Sedan vehicle = new Sedan();
+                vehicle.setVehicleId("SEDAN" + round);
+                AtomicInteger successes = new AtomicInteger();
+                List<Future<?>> results = new ArrayList<>();
+
+                // Act - Every thread tries to rent the vehicle for its own dates at the same moment
+                for (int t = 0; t < threads; t++) {
+                    Date threadStart = new Date(startDate.getTime() + t);
+                    results.add(executor.submit(() -> {
+                        barrier.await();
+                        if (vehicle.rent(threadStart, endDate)) {
+                            successes.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+
+                // Assert - Exactly one rental won, and the state holds that rental's dates
+                assertEquals(1, successes.get(), "Exactly one rental should succeed in round " + round);
+                Vehicle.RentalState state = vehicle.getRentalState();
+                assertTrue(state.isRented(), "Vehicle should be rented");
+                assertEquals(endDate, state.getEndDate(), "End date should belong to the winning rental");
+                assertFalse(vehicle.isAvailableForRent(), "Vehicle should not be available");
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Workers should finish");
+        }
+    }
+
+    @Test
+    @DisplayName("Returning a vehicle keeps the last rental dates")
+    void testReturnKeepsRentalDates() {
+        // Arrange
+        sedan.setVehicleId("SEDAN123");
+        sedan.rent(startDate, endDate);
+
+        // Act
+        sedan.returnVehicle();
+
+        // Assert
+        assertTrue(sedan.isAvailableForRent(), "Vehicle should be available again");
+        assertEquals(startDate, sedan.getRentalStartDate(), "Start date should be kept");
+        assertEquals(endDate, sedan.getRentalEndDate(), "End date should be kept");
+    }
 }
@@ -0,0 +1,59 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the VehicleType enum using Arrange-Act-Assert pattern.
+ * Tests focus on looking types up by code and name and on each type creating its own vehicles.
+ */
+public class VehicleTypeTest {
+
+    @Test
+    @DisplayName("Every type is found by its code and creates vehicles of that type")
+    void testCodesAndFactories() {
+        for (VehicleType type : VehicleType.values()) {
+            // Act
+            VehicleType byCode = VehicleType.fromCode(type.getCode());
+            Vehicle vehicle = type.newVehicle();
+
+            // Assert
+            assertSame(type, byCode, "Code should resolve to " + type);
+            assertTrue(type.getCode() < VehicleType.count(), "Codes should index an array of count() entries");
+            assertSame(type.getVehicleClass(), vehicle.getClass(), "Factory should create a " + type.getDisplayName());
+            assertSame(type, vehicle.getType(), "Vehicle should report its type");
+            assertSame(type, VehicleType.of(type.getVehicleClass()), "Class should resolve to " + type);
+        }
+        assertThrows(IllegalArgumentException.class, () -> VehicleType.fromCode(VehicleType.count()),
+                "Unknown code should be rejected");
+    }
+
+    @Test
+    @DisplayName("Names resolve ignoring case, whether file key, display name or class name")
+    void testFromName() {
+        // Act & Assert
+        assertSame(VehicleType.SPORTS_CAR, VehicleType.fromName("sports car"), "File key should resolve");
+        assertSame(VehicleType.SPORTS_CAR, VehicleType.fromName("Sports Car"), "Display name should resolve");
+        assertSame(VehicleType.SPORTS_CAR, VehicleType.fromName("SPORTSCAR"), "Class name should resolve");
+        assertSame(VehicleType.SUV, VehicleType.fromName("suv"), "Lower-case SUV should resolve");
+        assertNull(VehicleType.fromName("hovercraft"), "Unknown name should return null");
+        assertNull(VehicleType.fromName(null), "Missing name should return null");
+    }
+
+    @Test
+    @DisplayName("Only sports cars may not be rented")
+    void testRentalPolicy() {
+        // Arrange
+        Vehicle sportsCar = new SportsCar();
+        Vehicle sedan = new Sedan();
+
+        // Act & Assert
+        assertFalse(VehicleType.SPORTS_CAR.isRentable(), "Sports cars should not be rentable");
+        assertFalse(sportsCar.isRentable(), "Sports car vehicle should follow its type");
+        assertTrue(VehicleType.SUV.isRentable(), "SUVs should be rentable");
+        assertTrue(VehicleType.PICKUP.isRentable(), "Pickups should be rentable");
+        assertTrue(sedan.isRentable(), "Sedan vehicle should follow its type");
+    }
+}
@@ -9,7 +9,11 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,7 +92,8 @@ public class XMLFileHandlerTest {
         File xmlFile = createTestXmlFile(xmlContent);
 
         // Act - Import the XML file
-        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile);
+        Map<String, String> dealerNames = new HashMap<>();
+        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile, dealerNames);
 
         // Assert - Verify correct number of vehicles imported
         assertEquals(3, importedVehicles.size(), "Should import 3 vehicles");
@@ -102,7 +107,7 @@ public class XMLFileHandlerTest {
         // Price should be converted from pounds to dollars
         assertEquals(21250.0, landRover.getPrice(), 0.01, "Price should be converted from pounds to dollars");
         assertEquals("485", landRover.getDealerId(), "Dealer ID should be set");
-        assertEquals("Wacky Bob's Automall", landRover.getMetadata().get("dealer_name"), "Dealer name should be stored in metadata");
+        assertFalse(landRover.hasMetadata(), "Dealer name should not be copied onto the vehicle");
 
         // Verify second vehicle (Sedan with dollar pricing)
         Vehicle genesis = findVehicleById(importedVehicles, "151e5dde");
@@ -112,7 +117,6 @@ public class XMLFileHandlerTest {
         assertEquals("G70", genesis.getModel(), "Model should be G70");
         assertEquals(36600.0, genesis.getPrice(), 0.01, "Price should remain in dollars");
         assertEquals("485", genesis.getDealerId(), "Dealer ID should be set");
-        assertEquals("Wacky Bob's Automall", genesis.getMetadata().get("dealer_name"), "Dealer name should be stored in metadata");
 
         // Verify third vehicle (Sports car)
         Vehicle porsche = findVehicleById(importedVehicles, "sc123");
@@ -122,7 +126,10 @@ public class XMLFileHandlerTest {
         assertEquals("911", porsche.getModel(), "Model should be 911");
         assertEquals(68000.0, porsche.getPrice(), 0.01, "Price should be set correctly");
         assertEquals("721", porsche.getDealerId(), "Dealer ID should be set");
-        assertEquals("Luxury Motors", porsche.getMetadata().get("dealer_name"), "Dealer name should be stored in metadata");
+
+        // Verify dealer names are reported once per dealer
+        assertEquals(Map.of("485", "Wacky Bob's Automall", "721", "Luxury Motors"), dealerNames,
+                "Dealer names should be reported by dealer ID");
     }
 
     @Test
@@ -306,7 +313,8 @@ public class XMLFileHandlerTest {
         File xmlFile = createTestXmlFile(xmlContent);
 
         // Act - Import the XML file
-        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile);
+        Map<String, String> dealerNames = new HashMap<>();
+        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile, dealerNames);
 
 // Assert - Should still import the vehicle
         assertEquals(1, importedVehicles.size(), "Should import the vehicle");
@@ -314,8 +322,8 @@ public class XMLFileHandlerTest {
 // Check dealer information
         Vehicle vehicle = importedVehicles.get(0);
         assertEquals("485", vehicle.getDealerId(), "Dealer ID should be set");
-// Either empty string or null in metadata depending on implementation
-        assertTrue(vehicle.getMetadata().containsKey("dealer_name"), "Dealer name key should exist in metadata");
+// The dealer is still reported, with an empty name
+        assertEquals("", dealerNames.get("485"), "Dealer should be reported with an empty name");
     }
 
     @Test
@@ -371,15 +379,103 @@ public class XMLFileHandlerTest {
         File xmlFile = createTestXmlFile(xmlContent);
 
         // Act - Import the XML file
-        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile);
+        Map<String, String> dealerNames = new HashMap<>();
+        List<Vehicle> importedVehicles = xmlFileHandler.importXML(xmlFile, dealerNames);
 
         // Assert - Should still import the vehicle and handle different name tag
         assertEquals(1, importedVehicles.size(), "Should import the vehicle");
 
         // Check dealer name handling with different tag
-        Vehicle vehicle = importedVehicles.get(0);
-        assertTrue(vehicle.getMetadata().containsKey("dealer_name"), "Dealer name key should exist in metadata");
-        assertEquals("Wacky Bob's Automall", vehicle.getMetadata().get("dealer_name"),
+        assertEquals("Wacky Bob's Automall", dealerNames.get("485"),
                 "Dealer name should be extracted despite different tag name");
     }
+
+    @Test
+    @DisplayName("Streaming import matches the DOM import")
+    void testStreamingImportMatchesDom() throws IOException {
+        // Arrange - Create test XML using both name tags and both manufacturer tags
+        String xmlContent =
+                "<Dealers>\n" +
+                        "  <Dealer id=\"485\">\n" +
+                        "    <Name>Wacky Bob's Automall</Name>\n" +
+                        "    <Vehicle type=\"suv\" id=\"848432\">\n" +
+                        "      <Price unit=\"pounds\">17000</Price>\n" +
+                        "      <Make>Land Rover</Make>\n" +
+                        "      <Model>Range Rover</Model>\n" +
+                        "    </Vehicle>\n" +
+                        "    <Vehicle type=\"Sedan\" id=\"151e5dde\">\n" +
+                        "      <Price>Invalid</Price>\n" +
+                        "      <Manufacturer>Genesis</Manufacturer>\n" +
+                        "      <Model>G70</Model>\n" +
+                        "    </Vehicle>\n" +
+                        "  </Dealer>\n" +
+                        "  <Dealer id=\"721\">\n" +
+                        "    <n>Luxury Motors</n>\n" +
+                        "    <Vehicle type=\"sports car\" id=\"sc123\">\n" +
+                        "      <Price unit=\"dollars\">68000</Price>\n" +
+                        "      <Make>Porsche</Make>\n" +
+                        "      <Model>911</Model>\n" +
+                        "    </Vehicle>\n" +
+                        "    <Vehicle type=\"unknown\" id=\"12345\">\n" +
+                        "      <Model>Mystery</Model>\n" +
+                        "    </Vehicle>\n" +
+                        "  </Dealer>\n" +
+                        "  <BadTag>\n" +
+                        "    <Vehicle id=\"orphan\"><Make>Nobody</Make></Vehicle>\n" +
+                        "  </BadTag>\n" +
+                        "</Dealers>";
+
+        File xmlFile = createTestXmlFile(xmlContent);
+
+        // Act - Import the XML file both ways
+        Map<String, String> domDealerNames = new HashMap<>();
+        List<Vehicle> domVehicles = xmlFileHandler.importXML(xmlFile, domDealerNames);
+        List<Vehicle> streamedVehicles = new ArrayList<>();
+        Map<String, String> streamedDealerNames = new LinkedHashMap<>();
+        int count = xmlFileHandler.importXML(xmlFile, streamedVehicles::add, () -> { }, streamedDealerNames::put);
+
+        // Assert - Verify both imports agree
+        assertEquals(4, count, "Streaming import should report 4 vehicles");
+        assertEquals(domVehicles.size(), streamedVehicles.size(), "Both imports should find the same vehicles");
+        for (int i = 0; i < domVehicles.size(); i++) {
+            Vehicle expected = domVehicles.get(i);
+            Vehicle actual = streamedVehicles.get(i);
+            assertEquals(expected.getClass(), actual.getClass(), "Vehicle types should match");
+            assertEquals(expected.getVehicleId(), actual.getVehicleId(), "Vehicle IDs should match");
+            assertEquals(expected.getManufacturer(), actual.getManufacturer(), "Manufacturers should match");
+            assertEquals(expected.getModel(), actual.getModel(), "Models should match");
+            assertEquals(expected.getPrice(), actual.getPrice(), 0.01, "Prices should match");
+            assertEquals(expected.getDealerId(), actual.getDealerId(), "Dealer IDs should match");
+        }
+        assertEquals(domDealerNames, streamedDealerNames, "Dealer names should match");
+    }
+
+    @Test
+    @DisplayName("Streaming import keeps vehicles parsed before a syntax error")
+    void testStreamingImportTruncatedXml() throws IOException {
+        // Arrange - Create test XML that is cut off mid-document
+        String xmlContent =
+                "<Dealers>\n" +
+                        "  <Dealer id=\"485\">\n" +
+                        "    <Name>Wacky Bob's Automall</Name>\n" +
+                        "    <Vehicle type=\"pickup\" id=\"789\">\n" +
+                        "      <Price unit=\"dollars\">25000</Price>\n" +
+                        "      <Make>Ford</Make>\n" +
+                        "      <Model>Ranger</Model>\n" +
+                        "    </Vehicle>\n" +
+                        "    <Vehicle type=\"sedan\" id=\"456\">\n" +
+                        "      <Price unit=\"dollars\">300";
+
+        File xmlFile = createTestXmlFile(xmlContent);
+
+        // Act - Stream the XML file
+        List<Vehicle> importedVehicles = new ArrayList<>();
+        Map<String, String> dealerNames = new HashMap<>();
+        int count = xmlFileHandler.importXML(xmlFile, importedVehicles::add, () -> { }, dealerNames::put);
+
+        // Assert - Verify the complete vehicle was kept
+        assertEquals(1, count, "Should import the vehicle parsed before the error");
+        assertTrue(importedVehicles.get(0) instanceof Pickup, "Vehicle should be a Pickup");
+        assertEquals("Wacky Bob's Automall", dealerNames.get("485"), "Dealer name should be reported");
+    }
 }
@@ -0,0 +1,75 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the XMLImportPipeline class using Arrange-Act-Assert pattern.
+ * Tests focus on an import ending, with or without a failure, however its workers stop.
+ */
+public class XMLImportPipelineTest {
+
+    // Temporary directory for test files
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Helper method to write a feed of one dealer with a number of sedans
+     */
+    private File createFeed(int vehicleCount) throws IOException {
+        File feed = tempDir.resolve("feed.xml").toFile();
+        try (FileWriter writer = new FileWriter(feed)) {
+            writer.write("<Dealers>\n  <Dealer id=\"D1\">\n");
+            for (int i = 0; i < vehicleCount; i++) {
+                writer.write("    <Vehicle type=\"sedan\" id=\"V" + i + "\"><Price>1000</Price>"
+                        + "<Make>Honda</Make><Model>Accord</Model></Vehicle>\n");
+            }
+            writer.write("  </Dealer>\n</Dealers>");
+        }
+        return feed;
+    }
+
+    @Test
+    @DisplayName("Every vehicle of a feed is applied once")
+    void testAppliesEveryVehicle() throws IOException {
+        // Arrange
+        XMLImportPipeline pipeline = new XMLImportPipeline(new XMLFileHandler(), 2, 4);
+        File feed = createFeed(100);
+
+        // Act
+        ImportStatistics statistics = pipeline.run(List.of(feed),
+                vehicle -> ImportStatistics.Outcome.IMPORTED, (dealerId, dealerName) -> { });
+
+        // Assert
+        assertEquals(100, statistics.getImported(), "Every vehicle should be applied");
+    }
+
+    @Test
+    @DisplayName("A worker killed by an Error fails the import instead of leaving the parser blocked")
+    void testWorkerErrorFailsImport() throws IOException {
+        // Arrange - One worker with a tiny queue, which dies on its first vehicle
+        XMLImportPipeline pipeline = new XMLImportPipeline(new XMLFileHandler(), 1, 2);
+        File feed = createFeed(100);
+
+        // Act
+        IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(List.of(feed),
+                        vehicle -> {
+                            throw new StackOverflowError("worker died");
+                        }, (dealerId, dealerName) -> { })),
+                "Import should not hang");
+
+        // Assert
+        assertTrue(failure.getCause() instanceof StackOverflowError, "Worker's error should be reported");
+    }
+}